@@ -65,3 +65,26 @@ export async function fetching(url: string, method: string, params?: Params[], d
   return res;
 }
 
+/**
+ * fetches all pages of a paginated list by following the nextCursor of each page
+ * @param url the url to fetch
+ * @param params the params to add to the url OPTIONAL
+ * @returns the response of the last page containing the items of all pages
+ * @example fetchingAllPages('/api/get-published-decks')
+ */
+export async function fetchingAllPages(url: string, params: Params[] = []): json{
+  let items = [];
+  let cursor = null;
+  let res;
+  do{
+    let pageParams = cursor ? [...params, {name: "cursor", value: cursor}] : params;
+    res = await fetching(url, "GET", pageParams);
+    if(!res?.success){
+      return res;
+    }
+    items = [...items, ...res.items];
+    cursor = res.nextCursor;
+  } while(cursor);
+  res.items = items;
+  return res;
+}
@@ -0,0 +1,51 @@
+package at.ac.uibk.swa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configures the versioned Schema-Migrations (Flyway).
+ * <br/>
+ * The Migrations of every Database live in {@code db/migration/<vendor>} and are applied on Startup,
+ * afterwards Hibernate only validates the Schema against the Entities. New Columns, Tables and Indexes therefore
+ * always need a new Migration (for H2 and MariaDB).
+ * <br/>
+ * The Column-Type of the IDs depends on {@code swa.database.uuid-type} and is available as {@code ${uuid}}
+ * in the Migrations.
+ */
+@Configuration
+public class DatabaseMigrationConfig {
+
+    public static final String UUID_PLACEHOLDER = "uuid";
+
+    @Bean
+    public FlywayConfigurationCustomizer uuidPlaceholderCustomizer(
+            @Value("${swa.database.uuid-type:NVARCHAR}") String uuidType
+    ) {
+        return configuration -> {
+            // NOTE: Keep the Placeholders configured with spring.flyway.placeholders.
+            Map<String, String> placeholders = new HashMap<>(configuration.getPlaceholders());
+            placeholders.put(UUID_PLACEHOLDER, uuidColumnType(uuidType));
+            configuration.placeholders(placeholders);
+        };
+    }
+
+    /**
+     * Gets the Column-Type Hibernate uses for UUIDs (see {@code hibernate.type.preferred_uuid_jdbc_type}).
+     *
+     * @param uuidType The configured Type of the UUIDs (NVARCHAR or BINARY).
+     * @return The Column-Type of the IDs.
+     */
+    public static String uuidColumnType(String uuidType) {
+        return switch (uuidType.toUpperCase()) {
+            case "BINARY" -> "BINARY(16)";
+            case "NVARCHAR", "VARCHAR", "CHAR" -> "VARCHAR(255)";
+            default -> throw new IllegalArgumentException("Unsupported UUID-Type: " + uuidType);
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package at.ac.uibk.swa.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Configures the in-process Second-Level Cache of Hibernate (JCache backed by Caffeine).
+ * <br/>
+ * Only read-mostly Entities ({@link at.ac.uibk.swa.models.Deck} and {@link at.ac.uibk.swa.models.Card}) and the
+ * Catalog-Queries are cached. Hibernate invalidates the Entries itself whenever an Entity is changed through the
+ * Persistence-Context and evicts whole Regions on Bulk-Updates, so the Caches never serve stale Data as long as the
+ * Database is only changed by this Application.
+ * <br/>
+ * The Size and Time-To-Live of the Regions are configured with {@code swa.cache.entity.*} and {@code swa.cache.query.*}.
+ * <br/>
+ * The Counters of a Deck change with every created Card and every Subscription. Evicting the whole Deck-Region and
+ * all Catalog-Queries for each of these Statements made the Cache useless for busy Decks, so they are synchronized
+ * with {@link #DECK_COUNTER_SPACE} and only the changed Decks are evicted (see {@link SecondLevelCacheEvictor}).
+ * This relies on no cached Query filtering or ordering by the Counters; the Effect on the Hit-Ratio is measured in
+ * {@code TestSecondLevelCache}.
+ *
+ * @see SecondLevelCacheStatistics
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String DECK_REGION = "deck";
+    public static final String CARD_REGION = "card";
+    public static final String QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+    /**
+     * Query-Space of native Statements that only change the Counters of Decks.
+     * No Entity or cached Query uses it, so such Statements neither flush nor invalidate anything.
+     */
+    public static final String DECK_COUNTER_SPACE = "deck_counter";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${swa.cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${swa.cache.entity.ttl:PT10M}") Duration entityTtl,
+            @Value("${swa.cache.query.max-size:1000}") long queryMaxSize,
+            @Value("${swa.cache.query.ttl:PT1M}") Duration queryTtl
+    ) {
+        // NOTE: Every Application-Context needs its own Caches (e.g. when running Tests with different Contexts).
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("swa-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(DECK_REGION, configuration(entityMaxSize, entityTtl));
+        cacheManager.createCache(CARD_REGION, configuration(entityMaxSize, entityTtl));
+        cacheManager.createCache(QUERY_REGION, configuration(queryMaxSize, queryTtl));
+        // NOTE: The Update-Timestamps must never be evicted, otherwise stale Query-Results would be served.
+        //       There is only one Entry per Table, so the Region does not need to be bounded.
+        cacheManager.createCache(TIMESTAMPS_REGION, configuration(null, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(Long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,58 @@
+package at.ac.uibk.swa.config;
+
+import at.ac.uibk.swa.models.Deck;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Evicts single Entities from the Second-Level Cache after they have been changed by Statements that bypass the
+ * Persistence-Context.
+ * <br/>
+ * Hibernate evicts the whole Region (and invalidates every cached Query of the Table) after such Statements.
+ * Statements that are only synchronized with {@link SecondLevelCacheConfig#DECK_COUNTER_SPACE} skip this,
+ * so the changed Decks have to be evicted here instead.
+ *
+ * @see SecondLevelCacheConfig
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    private final Cache cache;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Evicts the given Decks.
+     * Within a Transaction, they are evicted once it has completed: until then the cached Decks still match the
+     * committed Rows, and Hibernate might cache them again (with the Counters of the Persistence-Context) on Commit.
+     *
+     * @param deckIds The IDs of the changed Decks.
+     */
+    public void evictDecks(Collection<UUID> deckIds) {
+        List<UUID> ids = List.copyOf(deckIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictDecksNow(ids);
+                }
+            });
+        } else {
+            evictDecksNow(ids);
+        }
+    }
+
+    private void evictDecksNow(List<UUID> deckIds) {
+        deckIds.forEach(deckId -> this.cache.evictEntityData(Deck.class, deckId));
+    }
+}
@@ -0,0 +1,75 @@
+package at.ac.uibk.swa.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Exposes the Hit-Ratios of the Regions of the Second-Level Cache.
+ * The Counters are only collected if {@code hibernate.generate_statistics} is enabled.
+ *
+ * @see SecondLevelCacheConfig
+ */
+@Component
+public class SecondLevelCacheStatistics {
+
+    private static final List<String> REGIONS = List.of(
+            SecondLevelCacheConfig.DECK_REGION,
+            SecondLevelCacheConfig.CARD_REGION,
+            SecondLevelCacheConfig.QUERY_REGION
+    );
+
+    /**
+     * Snapshot of the Counters of a Region.
+     *
+     * @param region The Name of the Region.
+     * @param hits The number of Lookups that were answered by the Cache.
+     * @param misses The number of Lookups that had to go to the Database.
+     * @param puts The number of Entries that were put into the Cache.
+     * @param size The current number of Entries.
+     */
+    public record RegionStatistics(String region, long hits, long misses, long puts, long size) {
+        /**
+         * @return The Ratio of Lookups that were answered by the Cache (0 if there were no Lookups yet).
+         */
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Gets the current Counters of the given Region.
+     *
+     * @param region The Name of the Region.
+     * @return A Snapshot of the Counters (if the Region exists), otherwise nothing.
+     */
+    public Optional<RegionStatistics> getStatistics(String region) {
+        return Optional.ofNullable(statistics.getCacheRegionStatistics(region))
+                .map(s -> toRegionStatistics(region, s));
+    }
+
+    /**
+     * Gets the current Counters of all cached Regions.
+     *
+     * @return A Snapshot of the Counters of every Region.
+     */
+    public List<RegionStatistics> getStatistics() {
+        return REGIONS.stream().flatMap(region -> getStatistics(region).stream()).toList();
+    }
+
+    private static RegionStatistics toRegionStatistics(String region, CacheRegionStatistics s) {
+        return new RegionStatistics(region, s.getHitCount(), s.getMissCount(), s.getPutCount(), s.getElementCountInMemory());
+    }
+}
@@ -6,6 +6,8 @@ import at.ac.uibk.swa.config.filters.CookieTokenAuthenticationFilter;
 import at.ac.uibk.swa.models.Permission;
 import at.ac.uibk.swa.util.EndpointMatcherUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -86,6 +88,26 @@ public class SecurityConfiguration {
 
         return filter;
     }
+
+    // NOTE: Spring Boot registers every Filter-Bean with the Servlet Container, which would run the
+    //       Authentication Filters (and therefore the Token-Lookup) a second time after the Security Filter Chain.
+    @Bean
+    FilterRegistrationBean<AbstractAuthenticationProcessingFilter> bearerAuthenticationFilterRegistration(
+            @Qualifier("bearerAuthenticationFilter") AbstractAuthenticationProcessingFilter filter
+    ) {
+        FilterRegistrationBean<AbstractAuthenticationProcessingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    FilterRegistrationBean<AbstractAuthenticationProcessingFilter> cookieAuthenticationFilterRegistration(
+            @Qualifier("cookieAuthenticationFilter") AbstractAuthenticationProcessingFilter filter
+    ) {
+        FilterRegistrationBean<AbstractAuthenticationProcessingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
     //endregion
 
     //region Filter Chain Bean
@@ -88,6 +88,7 @@ public class StartupConfig {
         DEV,
         PROD,
         TEST,
+        LOADTEST,
         OTHER;
 
         public static Profile fromString(String string) {
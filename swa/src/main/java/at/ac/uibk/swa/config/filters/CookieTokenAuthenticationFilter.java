@@ -1,6 +1,7 @@
 package at.ac.uibk.swa.config.filters;
 
 import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.config.jwt_authentication.SignedToken;
 import at.ac.uibk.swa.util.ConversionUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -44,11 +45,16 @@ public class CookieTokenAuthenticationFilter extends AbstractAuthenticationProce
 
         Optional<Cookie> usernameCookie = Arrays.stream(cookies).filter(c -> c.getName().equalsIgnoreCase("username")).findFirst();
         Optional<Cookie> tokenCookie = Arrays.stream(cookies).filter(c -> c.getName().equalsIgnoreCase("token")).findFirst();
-        if (usernameCookie.isEmpty() || tokenCookie.isEmpty())
+        if (tokenCookie.isEmpty())
             throw new AuthenticationCredentialsNotFoundException("Missing Credentials!");
 
         Optional<UUID> maybeToken = ConversionUtil.tryConvertUUIDOptional(tokenCookie.get().getValue());
-        if (maybeToken.isEmpty())
+        if (maybeToken.isEmpty()) {
+            // Signed Tokens contain the User themselves, so no Username-Cookie is needed.
+            SignedToken signedToken = new SignedToken(tokenCookie.get().getValue());
+            return getAuthenticationManager().authenticate(new UsernamePasswordAuthenticationToken(null, signedToken));
+        }
+        if (usernameCookie.isEmpty())
             throw new AuthenticationCredentialsNotFoundException("Missing Credentials!");
 
         JwtToken jwtToken = new JwtToken(usernameCookie.get().getValue(), maybeToken.get());
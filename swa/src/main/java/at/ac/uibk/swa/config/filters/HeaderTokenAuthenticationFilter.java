@@ -1,5 +1,6 @@
 package at.ac.uibk.swa.config.filters;
 
+import at.ac.uibk.swa.config.jwt_authentication.SignedToken;
 import at.ac.uibk.swa.util.ConversionUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -20,12 +21,17 @@ import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
 /**
  * Filter for trying to get a Bearer Token from a Request.
+ * <br/>
+ * The Header either contains a {@link at.ac.uibk.swa.config.jwt_authentication.JwtToken} as JSON or
+ * a signed Token prefixed with "Bearer " (see {@link at.ac.uibk.swa.config.jwt_authentication.SignedTokenCodec}).
  *
  * @author David Rieser
  * @see AbstractAuthenticationProcessingFilter
  */
 public class HeaderTokenAuthenticationFilter extends AbstractAuthenticationProcessingFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     public HeaderTokenAuthenticationFilter(final RequestMatcher requiresAuth) {
         super(requiresAuth);
     }
@@ -39,8 +45,8 @@ public class HeaderTokenAuthenticationFilter extends AbstractAuthenticationProce
         Optional<UsernamePasswordAuthenticationToken> authenticationToken =
                 // Get the Authorization Header
                 Optional.ofNullable(httpServletRequest.getHeader(AUTHORIZATION))
-                        // The Jwt Token is stored in the Authorization Header
-                        .map(ConversionUtil::tryConvertJwtToken)
+                        // The Jwt Token (or a signed Bearer-Token) is stored in the Authorization Header
+                        .map(HeaderTokenAuthenticationFilter::tryConvertCredentials)
                         // If the JwtToken is a valid UUID then pass it onto the AuthenticationFilter
                         .map(token -> new UsernamePasswordAuthenticationToken(null, token));
 
@@ -52,6 +58,12 @@ public class HeaderTokenAuthenticationFilter extends AbstractAuthenticationProce
         throw new AuthenticationCredentialsNotFoundException("No Token was sent with the Request!");
     }
 
+    private static Object tryConvertCredentials(String header) {
+        if (header.startsWith(BEARER_PREFIX))
+            return new SignedToken(header.substring(BEARER_PREFIX.length()).trim());
+        return ConversionUtil.tryConvertJwtToken(header);
+    }
+
     @Override
     protected void successfulAuthentication(
             final HttpServletRequest request, final HttpServletResponse response,
@@ -9,6 +9,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.*;
 
@@ -16,7 +17,7 @@ import java.util.*;
  * Helper Class for accessing security Information contained in the current request.
  *
  * @author David Rieser
- * @version 1.1
+ * @version 1.2
  */
 // All your constructors are belong to us!
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -53,17 +54,47 @@ public class AuthContext {
     /**
      * Get the user that is currently logged-in.
      *
-     * @return The Authenticable whose credentials were sent with the request (if valid credentials were sent).
-     * @see Authenticable
+     * @return The UserDetails of the User whose credentials were sent with the request (if valid credentials were sent).
+     * @see PersonPrincipal
      */
-    private static Optional<Authenticable> getCurrentUser() {
-        return getAuthentication().map(x -> (Authenticable) x.getPrincipal());
+    private static Optional<UserDetails> getCurrentUser() {
+        return getAuthentication().map(x -> x.getPrincipal() instanceof UserDetails u ? u : null);
+    }
+
+    /**
+     * Get the Principal of the person that is currently logged-in.
+     *
+     * @return The Principal of the Person whose credentials were sent with the request (if valid credentials were sent).
+     * @see PersonPrincipal
+     */
+    public static Optional<PersonPrincipal> getCurrentPrincipal() {
+        return getCurrentUser().map(u -> {
+            if (u instanceof PersonPrincipal p) return p;
+            if (u instanceof Person p) return PersonPrincipal.of(p);
+            return null;
+        });
+    }
+
+    /**
+     * Get the ID of the person that is currently logged-in.
+     *
+     * @return The ID of the Person whose credentials were sent with the request (if valid credentials were sent).
+     */
+    public static Optional<UUID> getCurrentPersonId() {
+        return getCurrentUser().map(u -> {
+            if (u instanceof PersonPrincipal p) return p.getId();
+            if (u instanceof Person p) return p.getPersonId();
+            return null;
+        });
     }
 
     /**
      * Get the person that is currently logged-in.
      *
-     * @return The Person whose credentials were sent with the request (if valid credentials were sent).
+     * @implNote Requests are authenticated with a {@link PersonPrincipal}, so this only returns a Person if the
+     *           Person itself was set as the Principal. Use {@link at.ac.uibk.swa.service.PersonService#getCurrentPerson()}
+     *           to load the Person otherwise.
+     * @return The Person whose credentials were sent with the request (if the Person is the Principal).
      * @see Person
      */
     public static Optional<Person> getCurrentPerson() {
@@ -76,7 +107,11 @@ public class AuthContext {
      * @return The Token sent with the request (if a valid one was sent).
      */
     public static Optional<UUID> getLoginToken() {
-        return getCurrentUser().map(Authenticable::getToken);
+        return getAuthentication().map(x -> {
+            if (x.getCredentials() instanceof JwtToken t) return t.getToken();
+            if (x.getPrincipal() instanceof Authenticable a) return a.getToken();
+            return null;
+        });
     }
 
     /**
@@ -99,7 +134,7 @@ public class AuthContext {
      */
     public static boolean anyPermission(Collection<GrantedAuthority> required) {
         return getCurrentUser()
-                .map(Authenticable::getPermissions)
+                .map(UserDetails::getAuthorities)
                 .map(permissions -> required.stream().anyMatch(permissions::contains))
                 .orElse(false);
     }
@@ -113,7 +148,7 @@ public class AuthContext {
      */
     public static boolean allPermissions(Collection<GrantedAuthority> required) {
         return getCurrentUser()
-                .map(Authenticable::getPermissions)
+                .map(UserDetails::getAuthorities)
                 .map(permissions -> required.stream().allMatch(permissions::contains))
                 .orElse(false);
     }
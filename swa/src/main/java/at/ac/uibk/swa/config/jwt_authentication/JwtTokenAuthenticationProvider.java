@@ -1,8 +1,8 @@
 package at.ac.uibk.swa.config.jwt_authentication;
 
-import at.ac.uibk.swa.models.Authenticable;
 import at.ac.uibk.swa.models.exceptions.TokenExpiredException;
 import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.TokenRevocationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -32,6 +32,15 @@ public class JwtTokenAuthenticationProvider extends AbstractUserDetailsAuthentic
     @Autowired
     private PersonService loginService;
 
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private SignedTokenCodec signedTokenCodec;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Value("${swa.token.expiration-duration:1h}")
     private Duration tokenExpirationDuration;
 
@@ -48,20 +57,45 @@ public class JwtTokenAuthenticationProvider extends AbstractUserDetailsAuthentic
             String userName,
             UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken
     ) {
+        if (usernamePasswordAuthenticationToken.getCredentials() instanceof SignedToken signedToken)
+            return retrieveUser(signedToken);
+
         JwtToken token = (JwtToken) usernamePasswordAuthenticationToken.getCredentials();
 
-        // Try to find the User with the given Session Token
-        Optional<? extends Authenticable> maybeAuthenticable = loginService.findByUsernameAndToken(token);
-        return maybeAuthenticable
-                .map(authenticable -> {this.checkTokenExpired(authenticable); return authenticable;})
+        // Try to find the User with the given Session Token (first in the Cache, then in the Database)
+        // NOTE: Only the Principal is loaded, the Person itself is loaded by the Services that need it.
+        Optional<PersonPrincipal> maybePrincipal = tokenCache.get(token);
+        if (maybePrincipal.isEmpty()) {
+            // NOTE: The Generation must be read first, so an Eviction during the Query prevents caching the Result.
+            long generation = tokenCache.getGeneration();
+            maybePrincipal = loginService.findPrincipalByUsernameAndToken(token);
+            maybePrincipal.ifPresent(principal -> tokenCache.put(token, principal, generation));
+        }
+        return maybePrincipal
+                .map(principal -> {this.checkTokenExpired(principal); return principal;})
                 .orElseThrow(() -> new BadCredentialsException(formatTokenError(token.getToken())));
     }
 
+    /**
+     * Verifies a signed Token without querying the Database.
+     *
+     * @param token The signed Token sent with the Request.
+     * @return The Principal contained in the Token.
+     */
+    private UserDetails retrieveUser(SignedToken token) {
+        PersonPrincipal principal = signedTokenCodec.verify(token.token())
+                .orElseThrow(() -> new BadCredentialsException("Invalid signed authentication token"));
+        this.checkTokenExpired(principal);
+        if (tokenRevocationService.isRevoked(principal))
+            throw new BadCredentialsException("Signed authentication token has been revoked");
+        return principal;
+    }
+
     private static String formatTokenError(UUID token) {
         return String.format("Cannot find user with authentication token: <%s>", token.toString());
     }
 
-    private void checkTokenExpired(Authenticable person)
+    private void checkTokenExpired(PersonPrincipal person)
         throws TokenExpiredException
     {
         LocalDateTime expirationDate = (LocalDateTime) tokenExpirationDuration.addTo(person.getTokenCreationDate());
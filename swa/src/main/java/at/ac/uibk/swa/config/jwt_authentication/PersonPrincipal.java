@@ -0,0 +1,97 @@
+package at.ac.uibk.swa.config.jwt_authentication;
+
+import at.ac.uibk.swa.models.Authenticable;
+import at.ac.uibk.swa.models.Permission;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.SpringSecurityCoreVersion;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.Serial;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Lightweight Principal of an authenticated Person.
+ * <br/>
+ * Contains only the Information that is needed to authenticate a Request and to check its Permissions,
+ * so it can be loaded with a single Row instead of the whole {@link at.ac.uibk.swa.models.Person} (and its Decks).
+ * Services that need the Person itself have to load it through {@link at.ac.uibk.swa.service.PersonService#getCurrentPerson()}.
+ *
+ * @see JwtTokenAuthenticationProvider
+ */
+@Getter
+public class PersonPrincipal implements UserDetails {
+
+    @Serial
+    private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+    private final UUID id;
+    private final String username;
+    private final int permissionMask;
+    private final LocalDateTime tokenCreationDate;
+    private final Set<Permission> permissions;
+
+    public PersonPrincipal(UUID id, String username, int permissionMask, LocalDateTime tokenCreationDate) {
+        this.id = id;
+        this.username = username;
+        this.permissionMask = permissionMask;
+        this.tokenCreationDate = tokenCreationDate;
+        this.permissions = Permission.fromMask(permissionMask);
+    }
+
+    /**
+     * Creates the Principal of an already loaded User.
+     *
+     * @param authenticable The User to create the Principal for.
+     * @return The Principal of the User.
+     */
+    public static PersonPrincipal of(Authenticable authenticable) {
+        return new PersonPrincipal(
+                authenticable.getId(),
+                authenticable.getUsername(),
+                Permission.toMask(authenticable.getPermissions()),
+                authenticable.getTokenCreationDate()
+        );
+    }
+
+    //region UserDetails Implementation
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return this.permissions;
+    }
+
+    @Override
+    public String getPassword() {
+        // NOTE: The Password is never needed after the Login, so it is not loaded.
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+    //endregion
+
+    @Override
+    public String toString() {
+        return this.username;
+    }
+}
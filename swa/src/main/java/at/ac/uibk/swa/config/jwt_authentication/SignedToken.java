@@ -0,0 +1,15 @@
+package at.ac.uibk.swa.config.jwt_authentication;
+
+/**
+ * Credentials of a Request that was sent with a signed (stateless) Token.
+ *
+ * @param token The signed Token as it was sent with the Request.
+ * @see SignedTokenCodec
+ */
+public record SignedToken(String token) {
+    @Override
+    public String toString() {
+        // NOTE: Do not leak the Token into Logs.
+        return "SignedToken[***]";
+    }
+}
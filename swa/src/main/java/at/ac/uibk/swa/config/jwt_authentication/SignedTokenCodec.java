@@ -0,0 +1,142 @@
+package at.ac.uibk.swa.config.jwt_authentication;
+
+import at.ac.uibk.swa.models.Authenticable;
+import at.ac.uibk.swa.models.Permission;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Creates and verifies signed Tokens for the stateless Authentication.
+ * <br/>
+ * A signed Token contains the ID, Permissions, Username and Issue-Date of a Person and is signed using HMAC-SHA256,
+ * so it can be verified without querying the Database. The Token has the Format
+ * {@code base64url(payload).base64url(signature)}.
+ * <br/>
+ * All Nodes must use the same Secret ({@code swa.token.stateless.secret}), otherwise they can not verify each other's
+ * Tokens. If no Secret is configured, a random one is generated (which only works with a single Node).
+ *
+ * @see at.ac.uibk.swa.service.TokenRevocationService
+ */
+@Slf4j
+@Component
+public class SignedTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SEPARATOR = ":";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Getter
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    // NOTE: Mac is not thread-safe, so every Thread gets its own Instance.
+    private final ThreadLocal<Mac> mac;
+
+    public SignedTokenCodec(
+            @Value("${swa.token.stateless.enabled:false}") boolean enabled,
+            @Value("${swa.token.stateless.secret:}") String secret
+    ) {
+        this.enabled = enabled;
+
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            if (enabled)
+                log.warn("No Secret for signed Tokens configured, generating a random one (only valid for this Node)");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(this.key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Unable to initialize " + ALGORITHM, e);
+            }
+        });
+    }
+
+    /**
+     * Creates a signed Token for the given User, which was issued at the User's Token-Creation-Date.
+     *
+     * @param authenticable The User to create the Token for.
+     * @return The signed Token (if stateless Tokens are enabled and the User is logged in), otherwise nothing.
+     */
+    public Optional<String> sign(Authenticable authenticable) {
+        if (!this.enabled || authenticable.getId() == null || authenticable.getTokenCreationDate() == null)
+            return Optional.empty();
+
+        long issuedAt = authenticable.getTokenCreationDate().toInstant(ZoneOffset.UTC).toEpochMilli();
+        String payload = String.join(SEPARATOR,
+                authenticable.getId().toString(),
+                Integer.toString(Permission.toMask(authenticable.getPermissions())),
+                Long.toString(issuedAt),
+                authenticable.getUsername()
+        );
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return Optional.of(ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(signature(payloadBytes)));
+    }
+
+    /**
+     * Verifies the Signature of the given Token and decodes it.
+     *
+     * @implNote This does not check whether the Token expired or was revoked.
+     * @param token The signed Token.
+     * @return The Principal contained in the Token (if the Signature is valid), otherwise nothing.
+     */
+    public Optional<PersonPrincipal> verify(String token) {
+        if (!this.enabled || token == null)
+            return Optional.empty();
+
+        int separatorIndex = token.indexOf('.');
+        if (separatorIndex < 0)
+            return Optional.empty();
+
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, separatorIndex));
+            byte[] signature = DECODER.decode(token.substring(separatorIndex + 1));
+            // NOTE: Compare in constant time so the Signature can not be guessed byte by byte.
+            if (!MessageDigest.isEqual(signature, signature(payloadBytes)))
+                return Optional.empty();
+
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split(SEPARATOR, 4);
+            if (parts.length != 4)
+                return Optional.empty();
+
+            LocalDateTime issuedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[2])), ZoneOffset.UTC);
+            return Optional.of(new PersonPrincipal(
+                    UUID.fromString(parts[0]),
+                    parts[3],
+                    Integer.parseInt(parts[1]),
+                    issuedAt.truncatedTo(ChronoUnit.MILLIS)
+            ));
+        } catch (IllegalArgumentException e) {
+            // Invalid Base64, UUID or Number
+            return Optional.empty();
+        }
+    }
+
+    private byte[] signature(byte[] payload) {
+        return this.mac.get().doFinal(payload);
+    }
+}
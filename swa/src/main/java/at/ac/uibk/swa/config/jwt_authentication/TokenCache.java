@@ -0,0 +1,229 @@
+package at.ac.uibk.swa.config.jwt_authentication;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded Cache for verified Tokens so that not every authenticated Request has to query the Database.
+ * <br/>
+ * The Cache maps a Username and Token to the {@link PersonPrincipal} it belongs to.
+ * Entries expire together with their Token (but never later than {@code swa.token.cache.max-age}),
+ * and if the Cache is full, the least recently used Entry is evicted.
+ * <br/>
+ * Because Tokens only change on Login and Logout, the Entries of a Person have to be evicted explicitly
+ * whenever its Token, Permissions or Username change (see {@link #evict(UUID)}).
+ * A Principal that was read from the Database while its Person was evicted must not be cached afterwards, so every
+ * Eviction starts a new Generation and only Principals read within the current Generation of their Person are cached
+ * (see {@link #getGeneration()}).
+ * <br/>
+ * The Counters of the Cache are published as Metrics ({@code swa.token.cache.*}).
+ *
+ * @see JwtTokenAuthenticationProvider
+ */
+@Component
+public class TokenCache implements MeterBinder {
+
+    private record Key(String username, UUID token) { }
+
+    private record Entry(PersonPrincipal principal, LocalDateTime expiresAt) { }
+
+    /**
+     * Snapshot of the Counters of the Cache.
+     *
+     * @param hits The number of Lookups that were answered by the Cache.
+     * @param misses The number of Lookups that had to go to the Database.
+     * @param evictions The number of Entries that were removed because they expired, because the Cache was full or
+     *                  because they were evicted explicitly.
+     * @param size The current number of Entries.
+     */
+    public record Statistics(long hits, long misses, long evictions, int size) { }
+
+    private final int maxSize;
+    private final Duration maxAge;
+    private final Duration tokenExpirationDuration;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    private long generation = 0;
+    // NOTE: The Generation in which each Person was evicted last (only the most recent ones are remembered).
+    private final LinkedHashMap<UUID, Long> evictedInGeneration;
+    // NOTE: All Persons that are no longer remembered count as evicted in this Generation.
+    private long forgottenGeneration = 0;
+
+    public TokenCache(
+            @Value("${swa.token.cache.max-size:10000}") int maxSize,
+            @Value("${swa.token.cache.max-age:5m}") Duration maxAge,
+            @Value("${swa.token.expiration-duration:1h}") Duration tokenExpirationDuration
+    ) {
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        this.tokenExpirationDuration = tokenExpirationDuration;
+        // NOTE: Iterating in access order turns the LinkedHashMap into an LRU-Cache.
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > TokenCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.evictedInGeneration = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                if (size() > Math.max(1, TokenCache.this.maxSize)) {
+                    forgottenGeneration = Math.max(forgottenGeneration, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the current Generation of the Cache.
+     * It must be read before a Principal is read from the Database, so that {@link #put(JwtToken, PersonPrincipal, long)}
+     * can detect whether the Person was evicted in the meantime.
+     *
+     * @return The current Generation.
+     */
+    public synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Gets the Principal that was cached for the given Token.
+     *
+     * @param token The Token sent with the Request.
+     * @return The cached Principal (if it was cached and did not expire yet), otherwise nothing.
+     */
+    public synchronized Optional<PersonPrincipal> get(JwtToken token) {
+        Key key = new Key(token.getUsername(), token.getToken());
+        Entry entry = this.entries.get(key);
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+
+        if (!entry.expiresAt().isAfter(LocalDateTime.now())) {
+            this.entries.remove(key);
+            evictions++;
+            misses++;
+            return Optional.empty();
+        }
+
+        hits++;
+        return Optional.of(entry.principal());
+    }
+
+    /**
+     * Caches the Principal that was verified for the given Token, unless its Person was evicted after the
+     * Principal was read (because then it might already be outdated).
+     *
+     * @param token The Token sent with the Request.
+     * @param principal The Principal that belongs to the Token.
+     * @param generation The Generation that was read before the Principal was read (see {@link #getGeneration()}).
+     */
+    public synchronized void put(JwtToken token, PersonPrincipal principal, long generation) {
+        if (this.maxSize <= 0 || principal.getTokenCreationDate() == null)
+            return;
+
+        long lastEviction = Optional.ofNullable(this.evictedInGeneration.get(principal.getId()))
+                .orElse(this.forgottenGeneration);
+        if (lastEviction > generation)
+            return;
+
+        LocalDateTime tokenExpiresAt = (LocalDateTime) this.tokenExpirationDuration.addTo(principal.getTokenCreationDate());
+        LocalDateTime maxExpiresAt = (LocalDateTime) this.maxAge.addTo(LocalDateTime.now());
+        LocalDateTime expiresAt = tokenExpiresAt.isBefore(maxExpiresAt) ? tokenExpiresAt : maxExpiresAt;
+
+        this.entries.put(new Key(token.getUsername(), token.getToken()), new Entry(principal, expiresAt));
+    }
+
+    /**
+     * Evicts all cached Tokens of the given Person.
+     * Within a Transaction, they are evicted again once it has completed, because the Person might have been read
+     * (and cached) again before the Changes were committed.
+     *
+     * @param personId The ID of the Person whose Tokens should be evicted.
+     */
+    public void evict(UUID personId) {
+        if (personId == null)
+            return;
+
+        evictNow(personId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(personId);
+                }
+            });
+        }
+    }
+
+    private synchronized void evictNow(UUID personId) {
+        this.generation++;
+        this.evictedInGeneration.remove(personId);
+        this.evictedInGeneration.put(personId, this.generation);
+
+        int sizeBefore = this.entries.size();
+        this.entries.values().removeIf(entry -> personId.equals(entry.principal().getId()));
+        evictions += sizeBefore - this.entries.size();
+    }
+
+    /**
+     * Evicts all cached Tokens.
+     */
+    public synchronized void clear() {
+        evictions += this.entries.size();
+        this.entries.clear();
+        this.generation++;
+        this.evictedInGeneration.clear();
+        this.forgottenGeneration = this.generation;
+    }
+
+    /**
+     * Gets the current Counters of the Cache.
+     *
+     * @return A Snapshot of the Counters.
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions, this.entries.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("swa.token.cache.lookups", this, cache -> cache.getStatistics().hits())
+                .description("The number of Lookups of verified Tokens")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("swa.token.cache.lookups", this, cache -> cache.getStatistics().misses())
+                .description("The number of Lookups of verified Tokens")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("swa.token.cache.evictions", this, cache -> cache.getStatistics().evictions())
+                .description("The number of Entries that were removed from the Cache")
+                .register(registry);
+        Gauge.builder("swa.token.cache.size", this, cache -> cache.getStatistics().size())
+                .description("The current number of Entries")
+                .register(registry);
+    }
+}
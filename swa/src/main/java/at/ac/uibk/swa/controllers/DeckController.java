@@ -1,5 +1,6 @@
 package at.ac.uibk.swa.controllers;
 
+import at.ac.uibk.swa.config.jwt_authentication.AuthContext;
 import at.ac.uibk.swa.models.Card;
 import at.ac.uibk.swa.models.Deck;
 import at.ac.uibk.swa.models.Permission;
@@ -8,15 +9,33 @@ import at.ac.uibk.swa.models.annotations.ApiRestController;
 import at.ac.uibk.swa.models.rest_responses.*;
 import at.ac.uibk.swa.service.AdminDeckService;
 import at.ac.uibk.swa.service.CardService;
-import at.ac.uibk.swa.service.MailService;
+import at.ac.uibk.swa.service.DeckExportService;
+import at.ac.uibk.swa.service.DeckImportService;
 import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.service.deck_service.CardFileReader;
+import at.ac.uibk.swa.service.deck_service.DeckImportResult;
+import at.ac.uibk.swa.service.deck_service.DeckPage;
+import at.ac.uibk.swa.service.deck_service.ExportFormat;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controller handling {@link Deck} related Information (e.g. creating, updating, deleting {@link Deck}s)
@@ -34,8 +53,12 @@ public class DeckController {
     @Autowired
     private CardService cardService;
     @Autowired
-    private MailService mailService;
+    private DeckImportService deckImportService;
+    @Autowired
+    private DeckExportService deckExportService;
 
+    @Value("${swa.deck.max-bulk-subscriptions:1000}")
+    private int maxBulkSubscriptions;
 
     private static final String DECK_LOAD_ERROR_MESSAGE = "Unable to get decks.";
 
@@ -60,6 +83,34 @@ public class DeckController {
         return sb.toString();
     }
 
+    /**
+     * Creates the Response for the given Decks containing the Learning Statistics of the current User.
+     *
+     * @param decks The Decks to include in the Response.
+     * @return A UserDeckListResponse, or an error if the current User could not be loaded.
+     */
+    private RestResponse toUserDeckListResponse(List<Deck> decks) {
+        return AuthContext.getCurrentPersonId()
+                .<RestResponse>map(personId -> new UserDeckListResponse(decks, userDeckService.getDeckStatistics(decks, personId)))
+                .orElseGet(() -> MessageResponse.builder()
+                        .error()
+                        .message(DECK_LOAD_ERROR_MESSAGE)
+                        .build());
+    }
+
+    /**
+     * Wraps the given Response for Endpoints that otherwise stream their Body.
+     *
+     * @param response The Response to send.
+     * @return A ResponseEntity writing the Response as JSON.
+     */
+    private static ResponseEntity<StreamingResponseBody> toStreamingEntity(RestResponse response) {
+        byte[] json = response.toResponse().getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(response.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(output -> output.write(json));
+    }
+
     /**
      * Creates a new Deck with all the given Cards.
      *
@@ -79,6 +130,115 @@ public class DeckController {
                 .message(generateMessage(deck.getName(), "created successfully")).build();
     }
 
+    /**
+     * Imports the Cards of an uploaded CSV- or TSV-File (front, back and optionally flipped per Line).
+     * The Cards are added to the given Deck (which must be owned by the current User) or to a new Deck
+     * with the given name. The File is streamed, so its size does not matter.
+     *
+     * @param file        The File containing the Cards.
+     * @param deckId      The Deck to add the Cards to (a new Deck is created if not given).
+     * @param name        The name of the new Deck (defaults to the name of the File).
+     * @param description The description of the new Deck.
+     * @param format      Either csv or tsv (derived from the name of the File if not given).
+     * @return A DeckImportResponse containing the number of imported Cards and the invalid Lines.
+     */
+    @PostMapping(value = "/import-deck", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public RestResponse importDeck(
+            @RequestParam(name = "file") final MultipartFile file,
+            @RequestParam(name = "deckId", required = false) final UUID deckId,
+            @RequestParam(name = "name", required = false) final String name,
+            @RequestParam(name = "description", required = false) final String description,
+            @RequestParam(name = "format", required = false) final String format
+    ) {
+        String fileName = file.getOriginalFilename();
+        char delimiter = CardFileReader.delimiterOf(format, fileName);
+        String deckName = Optional.ofNullable(name)
+                .or(() -> Optional.ofNullable(fileName).map(f -> f.contains(".") ? f.substring(0, f.lastIndexOf('.')) : f))
+                .filter(n -> !n.isBlank())
+                .orElse("Imported Deck");
+
+        Optional<DeckImportResult> maybeResult;
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            maybeResult = deckId != null
+                    ? deckImportService.importIntoDeck(deckId, reader, delimiter)
+                    : deckImportService.importIntoNewDeck(new Deck(deckName, Optional.ofNullable(description).orElse("")), reader, delimiter);
+        } catch (IOException e) {
+            return MessageResponse.builder()
+                    .error()
+                    .message("Unable to read the uploaded file.")
+                    .build();
+        }
+
+        return maybeResult.<RestResponse>map(DeckImportResponse::new)
+                .orElseGet(() -> MessageResponse.builder()
+                        .error()
+                        .message(deckId != null
+                                ? "Cards could not be imported into " + userDeckService.getDeckNameIfPresent(deckId) + "."
+                                : generateMessage(deckName, "could not be created"))
+                        .build());
+    }
+
+    /**
+     * Exports the Cards of the given Deck (and optionally the Learning Progresses of the current User).
+     * The Cards are streamed from the Database to the Client, so the size of the Deck does not matter.
+     * The Export is compressed if the Client accepts gzip.
+     *
+     * @param deckId         The Deck to export.
+     * @param format         Either jsonl (default) or csv.
+     * @param withProgress   if true, the Learning Progresses of the current User are exported as well.
+     * @param acceptEncoding The Encodings accepted by the Client.
+     * @return The streamed Export or a MessageResponse if the Deck cannot be exported.
+     */
+    @GetMapping("/export-deck")
+    public ResponseEntity<StreamingResponseBody> exportDeck(
+            @RequestParam(name = "deckId") final UUID deckId,
+            @RequestParam(name = "format", defaultValue = "jsonl") final String format,
+            @RequestParam(name = "with-progress", defaultValue = "false") final boolean withProgress,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding
+    ) {
+        Optional<ExportFormat> maybeFormat = ExportFormat.fromExtension(format);
+        if (maybeFormat.isEmpty()) {
+            return toStreamingEntity(MessageResponse.builder()
+                    .error()
+                    .statusCode(HttpStatus.BAD_REQUEST)
+                    .message("Unknown export format " + format + ".")
+                    .build());
+        }
+        Optional<DeckExportService.DeckExport> maybeExport = deckExportService.prepareExport(deckId, withProgress);
+        if (maybeExport.isEmpty()) {
+            return toStreamingEntity(MessageResponse.builder()
+                    .error()
+                    .statusCode(HttpStatus.NOT_FOUND)
+                    .message(DECK_LOAD_ERROR_MESSAGE)
+                    .build());
+        }
+        ExportFormat exportFormat = maybeFormat.get();
+        DeckExportService.DeckExport export = maybeExport.get();
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutput = new GZIPOutputStream(output);
+                deckExportService.write(export, exportFormat, gzipOutput);
+                gzipOutput.finish();
+            } else {
+                deckExportService.write(export, exportFormat, output);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(export.deckName() + "." + exportFormat.getExtension(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     /**
      * Updates the given Deck and - if specified - cards of that Deck.
      * The Deck must be owned by the current User.
@@ -193,6 +353,86 @@ public class DeckController {
                 .build();
     }
 
+    /**
+     * Checks the IDs given to a bulk (un-)subscription.
+     *
+     * @param deckIds The IDs of the Decks.
+     * @return An Error-Message if no IDs or more than {@code swa.deck.max-bulk-subscriptions} IDs are given.
+     */
+    private Optional<RestResponse> checkBulkSubscription(List<UUID> deckIds) {
+        if (deckIds == null || deckIds.isEmpty()) {
+            return Optional.of(MessageResponse.builder()
+                    .error()
+                    .statusCode(HttpStatus.BAD_REQUEST)
+                    .message("No Decks given")
+                    .build());
+        }
+        if (deckIds.size() > maxBulkSubscriptions) {
+            return Optional.of(MessageResponse.builder()
+                    .error()
+                    .statusCode(HttpStatus.BAD_REQUEST)
+                    .message(String.format("At most %d Decks can be given at once", maxBulkSubscriptions))
+                    .build());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Subscribes the current User to all given Decks at once (e.g. to all Decks of a Course).
+     * Decks that are not available for subscription or already subscribed are skipped.
+     *
+     * @param deckIds The IDs of the Decks to subscribe to (at most {@code swa.deck.max-bulk-subscriptions}).
+     * @return A Message containing the number of new Subscriptions.
+     */
+    @PostMapping("/subscribe-decks")
+    public RestResponse subscribeDecks(
+            @RequestBody(required = false) final List<UUID> deckIds
+    ) {
+        Optional<RestResponse> maybeError = checkBulkSubscription(deckIds);
+        if (maybeError.isPresent()) {
+            return maybeError.get();
+        }
+        Optional<Integer> maybeSubscribed = userDeckService.subscribeAll(deckIds);
+        if (maybeSubscribed.isPresent()) {
+            return MessageResponse.builder()
+                    .ok()
+                    .message(String.format("Subscribed to %d of %d Decks", maybeSubscribed.get(), deckIds.size()))
+                    .build();
+        }
+        return MessageResponse.builder()
+                .error()
+                .message("Decks not subscribed")
+                .build();
+    }
+
+    /**
+     * Unsubscribes the current User from all given Decks at once.
+     * Decks that are not subscribed are skipped.
+     *
+     * @param deckIds The IDs of the Decks to unsubscribe from (at most {@code swa.deck.max-bulk-subscriptions}).
+     * @return A Message containing the number of removed Subscriptions.
+     */
+    @PostMapping("/unsubscribe-decks")
+    public RestResponse unsubscribeDecks(
+            @RequestBody(required = false) final List<UUID> deckIds
+    ) {
+        Optional<RestResponse> maybeError = checkBulkSubscription(deckIds);
+        if (maybeError.isPresent()) {
+            return maybeError.get();
+        }
+        Optional<Integer> maybeUnsubscribed = userDeckService.unsubscribeAll(deckIds);
+        if (maybeUnsubscribed.isPresent()) {
+            return MessageResponse.builder()
+                    .ok()
+                    .message(String.format("Unsubscribed from %d of %d Decks", maybeUnsubscribed.get(), deckIds.size()))
+                    .build();
+        }
+        return MessageResponse.builder()
+                .error()
+                .message("Decks not unsubscribed")
+                .build();
+    }
+
     /**
      * Blocks the given Deck.
      * Only Admins can block Decks.
@@ -206,15 +446,10 @@ public class DeckController {
             @RequestParam(name = "deckId") final UUID deckId
     ) {
         if (adminDeckService.block(deckId)) {
-            Optional<Deck> maybeDeck = userDeckService.findById(deckId);
-            if (maybeDeck.isPresent()) {
-                Deck deck = maybeDeck.get();
-                mailService.notifyBlockedDeck(deck);
-                return MessageResponse.builder()
-                        .ok()
-                        .message(generateMessage(userDeckService.getDeckNameIfPresent(deckId), "blocked"))
-                        .build();
-            }
+            return MessageResponse.builder()
+                    .ok()
+                    .message(generateMessage(userDeckService.getDeckNameIfPresent(deckId), "blocked"))
+                    .build();
         }
         return MessageResponse.builder()
                 .error()
@@ -235,15 +470,10 @@ public class DeckController {
             @RequestParam(name = "deckId") final UUID deckId
     ) {
         if (adminDeckService.unblock(deckId)) {
-            Optional<Deck> maybeDeck = userDeckService.findById(deckId);
-            if (maybeDeck.isPresent()) {
-                Deck deck = maybeDeck.get();
-                mailService.notifyUnblockedDeck(deck);
-                return MessageResponse.builder()
-                        .ok()
-                        .message(generateMessage(userDeckService.getDeckNameIfPresent(deckId), "unblocked"))
-                        .build();
-            }
+            return MessageResponse.builder()
+                    .ok()
+                    .message(generateMessage(userDeckService.getDeckNameIfPresent(deckId), "unblocked"))
+                    .build();
         }
         return MessageResponse.builder()
                 .error()
@@ -282,7 +512,7 @@ public class DeckController {
     public RestResponse getUserDecks() {
         Optional<List<Deck>> maybeDecks = userDeckService.getAllViewableDecks();
         if (maybeDecks.isPresent()) {
-            return new UserDeckListResponse(maybeDecks.get());
+            return toUserDeckListResponse(maybeDecks.get());
         }
         return MessageResponse.builder()
                 .error()
@@ -302,7 +532,7 @@ public class DeckController {
     ) {
         Optional<List<Deck>> maybeDecks = userDeckService.getDecksOfGivenPerson(personId);
         if (maybeDecks.isPresent()) {
-            return new UserDeckListResponse(maybeDecks.get());
+            return toUserDeckListResponse(maybeDecks.get());
         }
         return MessageResponse.builder()
                 .error()
@@ -319,7 +549,7 @@ public class DeckController {
     public RestResponse getSubscribedDecks() {
         Optional<List<Deck>> maybeDecks = userDeckService.getAllSubscribedDecks();
         if (maybeDecks.isPresent()) {
-            return new UserDeckListResponse(maybeDecks.get());
+            return toUserDeckListResponse(maybeDecks.get());
         }
         return MessageResponse.builder()
                 .error()
@@ -336,7 +566,7 @@ public class DeckController {
     public RestResponse getCreatedDecks() {
         Optional<List<Deck>> maybeDecks = userDeckService.getAllOwnedDecks();
         if (maybeDecks.isPresent()) {
-            return new UserDeckListResponse(maybeDecks.get());
+            return toUserDeckListResponse(maybeDecks.get());
         }
         return MessageResponse.builder()
                 .error()
@@ -349,35 +579,52 @@ public class DeckController {
      * Get all Decks that are available for subscription
      * Does not include decks to which the requesting user has already subscribed
      *
-     * @return A List of Decks.
+     * @param cursor The Cursor of the previous Page (if not given, the first Page is returned).
+     * @param limit The maximum number of Decks to return (capped to {@link DeckPage#MAX_PAGE_SIZE}).
+     * @return A Page of Decks with the Cursor of the next Page.
      */
     @GetMapping("/get-published-decks")
-    public RestResponse getPublishedDecks() {
-        return new DeckListResponse(userDeckService.findAllAvailableDecks());
+    public RestResponse getPublishedDecks(
+            @RequestParam(name = "cursor", required = false) final UUID cursor,
+            @RequestParam(name = "limit", required = false) final Integer limit
+    ) {
+        return new DeckListResponse(userDeckService.findAvailableDecks(cursor, limit));
     }
 
     /**
-     * Gets all Decks.
+     * Gets all Decks that are not deleted.
      *
-     * @return A List of Decks.
+     * @param cursor The Cursor of the previous Page (if not given, the first Page is returned).
+     * @param limit The maximum number of Decks to return (capped to {@link DeckPage#MAX_PAGE_SIZE}).
+     * @return A Page of Decks with the Cursor of the next Page.
      */
     @AnyPermission(Permission.ADMIN)
     @GetMapping("/get-all-decks")
-    public RestResponse getAllDecks() {
-        return new DeckListResponse(adminDeckService.findAll());
+    public RestResponse getAllDecks(
+            @RequestParam(name = "cursor", required = false) final UUID cursor,
+            @RequestParam(name = "limit", required = false) final Integer limit
+    ) {
+        return new DeckListResponse(adminDeckService.findAll(cursor, limit));
     }
 
     /**
      * Gets the Cards from the given Deck which should be learned.
      * A Card should be learned if it's nextLearn-Date is before {@link LocalDateTime#now()}
      *
+     * Cards that have never been learned come first.
+     *
+     * @param deckId The ID of the Deck to learn.
+     * @param limit The maximum number of Cards to return (if not given, all due Cards are returned).
      * @return A List of Cards that should be learned sorted by nextLearn-Date.
      */
     @GetMapping("/get-all-cards-to-learn")
     public RestResponse getAllCardsToLearn(
-            @RequestParam(name = "deckId") final UUID deckId
+            @RequestParam(name = "deckId") final UUID deckId,
+            @RequestParam(name = "limit", required = false) final Integer limit
     ) {
-        Optional<List<Card>> maybeCards = cardService.getAllCardsToLearn(deckId);
+        Optional<List<Card>> maybeCards = (limit != null && limit > 0) ?
+                cardService.getCardsToLearn(deckId, limit) :
+                cardService.getAllCardsToLearn(deckId);
         if (maybeCards.isPresent()) {
             List<Card> cards = maybeCards.get();
             return new ListResponse<>(cards);
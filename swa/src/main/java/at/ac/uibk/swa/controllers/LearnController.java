@@ -2,13 +2,19 @@ package at.ac.uibk.swa.controllers;
 
 import at.ac.uibk.swa.models.Card;
 import at.ac.uibk.swa.models.annotations.ApiRestController;
+import at.ac.uibk.swa.models.rest_responses.ListResponse;
 import at.ac.uibk.swa.models.rest_responses.MessageResponse;
 import at.ac.uibk.swa.models.rest_responses.RestResponse;
 import at.ac.uibk.swa.service.CardService;
+import at.ac.uibk.swa.service.card_service.Review;
+import at.ac.uibk.swa.service.card_service.ReviewResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -22,6 +28,9 @@ public class LearnController {
     @Autowired
     private CardService cardService;
 
+    @Value("${swa.learn.max-batch-size:1000}")
+    private int maxBatchSize;
+
     @PostMapping("/learn")
     @ResponseStatus(HttpStatus.OK)
     public RestResponse learn(
@@ -34,4 +43,30 @@ public class LearnController {
         }
         return new MessageResponse(false, "Not learned");
     }
+
+    /**
+     * Learns multiple Cards at once (e.g. when replaying Reviews that were made offline).
+     * All Reviews are applied in one Transaction, so at most {@code swa.learn.max-batch-size} Reviews are accepted
+     * per Request (larger Batches have to be split by the Client).
+     *
+     * @param reviews The Reviews to apply in the given order.
+     * @return A List containing the Result of every Review.
+     */
+    @PostMapping("/learn-batch")
+    @ResponseStatus(HttpStatus.OK)
+    public RestResponse learnBatch(
+            @RequestBody(required = false) final List<Review> reviews
+    ) {
+        if (reviews == null) {
+            return new MessageResponse(false, "No Reviews given");
+        }
+        if (reviews.size() > maxBatchSize) {
+            return new MessageResponse(false, String.format("At most %d Reviews can be learned at once", maxBatchSize));
+        }
+        Optional<List<ReviewResult>> maybeResults = cardService.learnAll(reviews);
+        if (maybeResults.isPresent()) {
+            return new ListResponse<>(maybeResults.get());
+        }
+        return new MessageResponse(false, "Not learned");
+    }
 }
@@ -1,5 +1,6 @@
 package at.ac.uibk.swa.controllers;
 
+import at.ac.uibk.swa.config.jwt_authentication.SignedTokenCodec;
 import at.ac.uibk.swa.models.Person;
 import at.ac.uibk.swa.models.annotations.ApiRestController;
 import at.ac.uibk.swa.models.rest_responses.AuthFailedResponse;
@@ -32,6 +33,9 @@ public class LoginController {
     @Autowired
     private PersonService personService;
 
+    @Autowired
+    private SignedTokenCodec signedTokenCodec;
+
     /**
      * Endpoint for the Front-End to request an Authentication Token.
      *
@@ -57,6 +61,7 @@ public class LoginController {
         return LoginResponse.builder()
                 .ok()
                 .person(maybePerson.get())
+                .signedToken(signedTokenCodec.sign(maybePerson.get()).orElse(null))
                 .toEntity();
     }
 
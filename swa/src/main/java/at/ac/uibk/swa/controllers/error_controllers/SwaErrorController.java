@@ -1,6 +1,7 @@
 package at.ac.uibk.swa.controllers.error_controllers;
 
 import at.ac.uibk.swa.models.annotations.ApiRestController;
+import at.ac.uibk.swa.models.annotations.aspects.RetryOnConflictAspect;
 import at.ac.uibk.swa.models.exceptions.TokenExpiredException;
 import at.ac.uibk.swa.models.rest_responses.MessageResponse;
 import at.ac.uibk.swa.models.rest_responses.RedirectResponse;
@@ -122,6 +123,25 @@ public class SwaErrorController implements ErrorController {
         }
     }
 
+    /**
+     * Handles Conflicts that remained after all Retries (see {@link RetryOnConflictAspect}).
+     */
+    public RestResponseEntity handleConflictError(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Exception conflict
+    ) {
+        if (endpointMatcherUtil.isApiRoute(request)) {
+            return MessageResponse.builder()
+                    .success(false)
+                    .message("The Data was changed concurrently, please try again!")
+                    .statusCode(HttpStatus.CONFLICT)
+                    .toEntity();
+        } else {
+            return generateRedirectFromException(409, conflict).toEntity();
+        }
+    }
+
     @ResponseBody
     @RequestMapping(ERROR_ENDPOINT)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -156,6 +176,8 @@ public class SwaErrorController implements ErrorController {
             }
         } else if (exception instanceof AccessDeniedException accessDeniedException) {
             responseEntity = handleAuthorizationError(request, response, accessDeniedException);
+        } else if (RetryOnConflictAspect.isConflict(exception)) {
+            responseEntity = handleConflictError(request, response, exception);
         } else {
             responseEntity = handleError(request, response, exception);
         }
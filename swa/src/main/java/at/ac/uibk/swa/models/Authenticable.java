@@ -35,7 +35,7 @@ public abstract class Authenticable implements UserDetails, CredentialsContainer
 
     //region Constructors
     protected Authenticable(String username, String password, UUID token, Set<GrantedAuthority> permissions) {
-        this(null, username, password, false, token, LocalDateTime.now(), permissions);
+        this(null, username, password, false, token, LocalDateTime.now(), permissions, Permission.toMask(permissions));
     }
 
     protected Authenticable(String username, String password, Set<GrantedAuthority> permissions) {
@@ -52,7 +52,6 @@ public abstract class Authenticable implements UserDetails, CredentialsContainer
     // NOTE: Classes that extend this should create a Getter with @JsonInclude to rename the ID.
     @JsonIgnore
     @Setter(AccessLevel.PRIVATE)
-    @JdbcTypeCode(SqlTypes.NVARCHAR)
     @Column(name = "auth_id", nullable = false)
     @GeneratedValue(strategy=GenerationType.AUTO)
     private UUID id;
@@ -79,7 +78,6 @@ public abstract class Authenticable implements UserDetails, CredentialsContainer
     private boolean passwordHashed = true;
 
     @Setter(AccessLevel.NONE)
-    @JdbcTypeCode(SqlTypes.NVARCHAR)
     @Column(name = "token", nullable = true, unique = true)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private UUID token;
@@ -95,13 +93,29 @@ public abstract class Authenticable implements UserDetails, CredentialsContainer
     @Column(name = "name", nullable = false)
     @Enumerated(EnumType.STRING)
     @ElementCollection(targetClass = Permission.class, fetch = FetchType.EAGER)
-    @CollectionTable(name = "permission", joinColumns = @JoinColumn(name = "auth_id"))
+    @CollectionTable(name = "permission", joinColumns = @JoinColumn(name = "auth_id"),
+            indexes = @Index(name = "idx_permission_auth", columnList = "auth_id"))
     @Fetch(FetchMode.SELECT)
     private Set<GrantedAuthority> permissions = Permission.defaultAuthorities();
 
+    // NOTE: The Permissions are duplicated as a Bitmask so that the Authentication can load them
+    //       together with the rest of the Principal in a single Row (see PersonPrincipal).
+    @JsonIgnore
+    @Builder.Default
+    @Setter(AccessLevel.NONE)
+    @Column(name = "permission_mask", nullable = false)
+    private int permissionMask = Permission.toMask(Permission.defaultAuthorities());
+
     public void setPermissions(Set<Permission> permissions) {
         // SAFETY: Permission implements GrantedAuthority
         this.permissions = (Set) permissions;
+        this.permissionMask = Permission.toMask(permissions);
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void updatePermissionMask() {
+        this.permissionMask = Permission.toMask(this.permissions);
     }
     //endregion
 
@@ -1,12 +1,14 @@
 package at.ac.uibk.swa.models;
 
+import at.ac.uibk.swa.config.SecondLevelCacheConfig;
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -23,16 +25,28 @@ import java.util.function.UnaryOperator;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "card")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.CARD_REGION)
+@Table(name = "card", indexes = {
+        @Index(name = "idx_card_deck_card", columnList = "deck_id, card_id")
+})
 public class Card implements Serializable {
 
     public Card(String frontText, String backText, boolean isFlipped) {
-        this(null, frontText, backText, isFlipped, null, new HashMap<>());
+        this(null, frontText, backText, isFlipped, null, new HashMap<>(), 0);
+    }
+
+    /**
+     * Constructor used by projection Queries that only select the Content of a Card.
+     *
+     * @implNote The created Card is not managed and neither has a Deck nor any LearningProgresses set.
+     */
+    public Card(UUID cardId, String frontText, String backText, boolean isFlipped) {
+        this(cardId, frontText, backText, isFlipped, null, new HashMap<>(), 0);
     }
 
     @Id
     @Setter(AccessLevel.PRIVATE)
-    @JdbcTypeCode(SqlTypes.NVARCHAR)
     @Column(name = "card_id", nullable = false)
     @GeneratedValue(strategy=GenerationType.AUTO)
     @JsonProperty(access = JsonProperty.Access.READ_WRITE)
@@ -63,17 +77,28 @@ public class Card implements Serializable {
     // NOTE: This JsonIgnore is ok, because this is a Map which we don't want to override in any case.
     @JsonIgnore
     @Setter(AccessLevel.PRIVATE)
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.REMOVE)
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.REMOVE)
     @Builder.Default
     @JoinTable(
             name = "card_progress_mapping",
             joinColumns = {@JoinColumn(name = "card_id", referencedColumnName = "card_id")},
-            inverseJoinColumns = {@JoinColumn(name = "progress_id", referencedColumnName = "progress_id")}
+            inverseJoinColumns = {@JoinColumn(name = "progress_id", referencedColumnName = "progress_id")},
+            indexes = {@Index(name = "idx_card_progress_mapping_person_card_progress", columnList = "person_id, card_id, progress_id")}
     )
     @MapKeyJoinColumn(name = "person_id")
-    @Fetch(FetchMode.SELECT)
     private Map<Person, LearningProgress> learningProgresses = new HashMap<>();
 
+    /**
+     * Incremented whenever the Card or its Mapping of Learning Progresses changes (e.g. when a Person learns it for
+     * the first Time), so an Edit by the Creator and a concurrent first Review cannot overwrite each other.
+     */
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Setter(AccessLevel.PRIVATE)
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @JsonIgnore
     public Optional<LearningProgress> getLearningProgress(Person person) {
         return Optional.ofNullable(this.learningProgresses.getOrDefault(person, null));
@@ -83,28 +108,25 @@ public class Card implements Serializable {
      * Updates the LearningProgress associated with the given Person in the Card.
      * If no LearningProgress is found, a new one is created.
      *
-     * @implNote The ID of the LearningProgress is preserved.
+     * @implNote An existing LearningProgress is updated in place (preserving its ID), so only its own Row changes and
+     *           the Mapping of the Card does not have to be rewritten.
      * @param person person for which the learning progress should be updated
      * @param func A Function to compute the new LearningProgress.
      * @return The new LearningProgress
      */
     public LearningProgress updateLearningProgress(Person person, UnaryOperator<LearningProgress> func) {
-        return learningProgresses.compute(person, (p, lp) -> {
-            // If the User has not learned this card, create an empty LearningProgress.
-            if (lp == null)
-                return func.apply(new LearningProgress());
-
-            // Preserve the ID of the LearningProgress.
-            UUID oldId = lp.getLearningProgressId();
-
-            // If the card has already been learned, pass in the old Learning Progress.
-            LearningProgress newLp = func.apply(lp);
-
-            // Set the old ID
-            newLp.setLearningProgressId(oldId);
-
-            return newLp;
-        });
+        LearningProgress learningProgress = learningProgresses.get(person);
+
+        // If the User has not learned this card, create an empty LearningProgress.
+        if (learningProgress == null) {
+            LearningProgress newLearningProgress = func.apply(new LearningProgress());
+            learningProgresses.put(person, newLearningProgress);
+            return newLearningProgress;
+        }
+
+        // If the card has already been learned, pass in the old Learning Progress.
+        learningProgress.update(func.apply(learningProgress));
+        return learningProgress;
     }
 
     @Override
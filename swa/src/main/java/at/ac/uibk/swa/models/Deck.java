@@ -1,11 +1,16 @@
 package at.ac.uibk.swa.models;
 
+import at.ac.uibk.swa.config.SecondLevelCacheConfig;
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.OptimisticLock;
 import org.hibernate.type.SqlTypes;
 
 import java.io.Serializable;
@@ -19,16 +24,30 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
-@Table(name = "deck")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.DECK_REGION)
+@Table(name = "deck", indexes = {
+        @Index(name = "idx_deck_creator_deleted", columnList = "creator_id, is_deleted"),
+        @Index(name = "idx_deck_catalog", columnList = "is_published, is_blocked, is_deleted, deck_id"),
+        @Index(name = "idx_deck_not_deleted", columnList = "is_deleted, deck_id")
+})
+@NamedEntityGraph(
+        name = Deck.GRAPH_CARDS,
+        attributeNodes = {@NamedAttributeNode("creator"), @NamedAttributeNode("cards")}
+)
 public class Deck implements Serializable {
 
+    /**
+     * Fetches the Creator and the Cards of a Deck (e.g. for listing Decks with their Number of Cards).
+     */
+    public static final String GRAPH_CARDS = "Deck.cards";
+
     public Deck(String name, String description) {
-        this(null, name, description, false, false, false, null, new ArrayList<>(), new ArrayList<>());
+        this(null, name, description, false, false, false, null, new ArrayList<>(), new ArrayList<>(), 0, 0, 0);
     }
 
     @Id
     @Setter(AccessLevel.PRIVATE)
-    @JdbcTypeCode(SqlTypes.NVARCHAR)
     @Column(name = "deck_id", nullable = false)
     @GeneratedValue(strategy=GenerationType.AUTO)
     @JsonProperty(access = JsonProperty.Access.READ_WRITE)
@@ -72,18 +91,69 @@ public class Deck implements Serializable {
     @OneToMany(
             mappedBy = "deck",
             orphanRemoval = true,
-            fetch=FetchType.EAGER
+            fetch = FetchType.LAZY
     )
     private List<Card> cards = new ArrayList<>();
 
     @JsonIgnore
     @Builder.Default
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "person_saved_deck",
             joinColumns = @JoinColumn(name = "deck_id", referencedColumnName = "deck_id"),
-            inverseJoinColumns = @JoinColumn(name = "person_id", referencedColumnName = "person_id"))
+            inverseJoinColumns = @JoinColumn(name = "person_id", referencedColumnName = "person_id"),
+            uniqueConstraints = @UniqueConstraint(
+                    name = "uk_person_saved_deck_person_deck",
+                    columnNames = {"person_id", "deck_id"}
+            ),
+            indexes = @Index(name = "idx_person_saved_deck_deck_person", columnList = "deck_id, person_id"))
+    // NOTE: Subscriptions are not Part of the Deck's Content, so they must not conflict with Updates of the Deck.
+    @OptimisticLock(excluded = true)
     private List<Person> subscribedPersons = new ArrayList<>();
 
+    /**
+     * The number of Cards of the Deck, so Lists of Decks do not have to count them.
+     *
+     * @implNote The Counter is only written when the Deck is created, afterwards it is changed by single
+     *           Statements (see {@link at.ac.uibk.swa.repositories.DeckRepository#addCards(UUID, long)}), so a
+     *           concurrent Update of the Deck cannot overwrite it. Drifts are fixed by the
+     *           {@link at.ac.uibk.swa.service.deck_service.DeckCounterReconciler}. These Statements only evict the
+     *           changed Decks from the Second-Level Cache
+     *           (see {@link at.ac.uibk.swa.config.SecondLevelCacheConfig#DECK_COUNTER_SPACE}).
+     */
+    @ColumnDefault("0")
+    @Setter(AccessLevel.PRIVATE)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "card_count", nullable = false, updatable = false)
+    private long cardCount;
+
+    /**
+     * The number of Persons that have subscribed to the Deck (including its Creator), e.g. to sort by Popularity.
+     * Maintained like {@link #cardCount} (see {@link at.ac.uibk.swa.repositories.SubscriptionRepository}).
+     */
+    @ColumnDefault("0")
+    @Setter(AccessLevel.PRIVATE)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "subscriber_count", nullable = false, updatable = false)
+    private long subscriberCount;
+
+    /**
+     * The Version for optimistic Locking: an Update based on an outdated Deck (e.g. an Edit of the Creator while an
+     * Admin blocks the Deck) fails instead of silently reverting the other Change.
+     */
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Setter(AccessLevel.PRIVATE)
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @PrePersist
+    private void initCounters() {
+        // NOTE: The Cards and Subscriptions of a new Deck are inserted together with it.
+        this.cardCount = this.cards == null ? 0 : this.cards.size();
+        this.subscriberCount = this.subscribedPersons == null ? 0 : this.subscribedPersons.size();
+    }
+
     @JsonIgnore
     public boolean isCreator(Person person) {
         return this.creator.equals(person);
@@ -1,8 +1,10 @@
 package at.ac.uibk.swa.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -16,7 +18,9 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "learning_progress")
+@Table(name = "learning_progress", indexes = {
+        @Index(name = "idx_learning_progress_next_learn", columnList = "next_learn")
+})
 public class LearningProgress implements Serializable {
 
     /**
@@ -35,12 +39,12 @@ public class LearningProgress implements Serializable {
 
         // NOTE: Using the same reference to the LocalDateTime is safe, because LocalDateTime is immutable.
         this.nextLearn = lp.nextLearn;
+        this.version = lp.version;
     }
 
     @Id
     @Setter(AccessLevel.PACKAGE)
     @Column(name = "progress_id", nullable = false)
-    @JdbcTypeCode(SqlTypes.NVARCHAR)
     @GeneratedValue(strategy=GenerationType.AUTO)
     @JsonProperty(access = JsonProperty.Access.READ_WRITE)
     private UUID learningProgressId;
@@ -69,6 +73,19 @@ public class LearningProgress implements Serializable {
     @Column(name = "next_learn", nullable = false, columnDefinition = "TIMESTAMP")
     private LocalDateTime nextLearn = LocalDateTime.now();
 
+    /**
+     * The Version for optimistic Locking, so two concurrent Reviews of the same Card (e.g. in two Tabs) are detected.
+     *
+     * @see at.ac.uibk.swa.models.annotations.RetryOnConflict
+     */
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Builder.Default
+    @Setter(AccessLevel.PRIVATE)
+    @Column(name = "version", nullable = false)
+    private long version = 0;
+
     public void incrementRepetitions() {
         this.repetitions++;
     }
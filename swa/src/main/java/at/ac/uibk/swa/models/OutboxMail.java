@@ -0,0 +1,126 @@
+package at.ac.uibk.swa.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A Mail that has been queued for Delivery, but might not have been sent yet.
+ * <br/>
+ * Mails are written to the Outbox in the Transaction that causes them (e.g. blocking a Deck) and are sent
+ * asynchronously, so the Request never waits for the Mail-Server. Every Mail has at most
+ * {@code swa.mail.outbox.chunk-size} Recipients, who are sent the Mail as BCC.
+ *
+ * @see at.ac.uibk.swa.service.mail_service.MailOutboxDispatcher
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class OutboxMail implements Serializable {
+
+    private static final String RECIPIENT_SEPARATOR = ",";
+
+    public enum Status {
+        /** The Mail has not been sent yet (or will be retried at {@link #nextAttemptAt}). */
+        PENDING,
+        /** The Mail has been accepted by the Mail-Server. */
+        SENT,
+        /** The Mail could not be sent and will not be retried. */
+        FAILED
+    }
+
+    @Id
+    @Column(name = "mail_id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID mailId;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "text", nullable = false)
+    private String text;
+
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "recipients", nullable = false)
+    @Getter(AccessLevel.NONE)
+    private String recipients;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    @JdbcTypeCode(SqlTypes.INTEGER)
+    private int attempts = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "TIMESTAMP")
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false, columnDefinition = "TIMESTAMP")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "sent_at", columnDefinition = "TIMESTAMP")
+    private LocalDateTime sentAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * Creates a new Mail that is due immediately.
+     *
+     * @param subject The Subject of the Mail.
+     * @param text The Content of the Mail.
+     * @param recipients The Email-Addresses of the Recipients (must not contain a comma).
+     * @param now The Time the Mail was queued.
+     * @return The new (not yet saved) Mail.
+     */
+    public static OutboxMail of(String subject, String text, List<String> recipients, LocalDateTime now) {
+        return OutboxMail.builder()
+                .subject(subject)
+                .text(text)
+                .recipients(String.join(RECIPIENT_SEPARATOR, recipients))
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    public String[] getRecipients() {
+        return this.recipients.isEmpty() ? new String[0] : this.recipients.split(RECIPIENT_SEPARATOR);
+    }
+
+    public int getNumberOfRecipients() {
+        return getRecipients().length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (this == o) || ((o instanceof OutboxMail m) &&
+                (this.mailId != null) &&
+                (this.mailId.equals(m.mailId)));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.mailId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OutboxMail[%s, %s, %d recipients, %s]", mailId, subject, getNumberOfRecipients(), status);
+    }
+}
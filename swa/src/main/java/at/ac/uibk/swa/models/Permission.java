@@ -2,8 +2,16 @@ package at.ac.uibk.swa.models;
 
 import org.springframework.security.core.GrantedAuthority;
 
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Set;
 
+/**
+ * The Permissions a User can have.
+ *
+ * @implNote The Ordinals are used as Bit-Positions in Permission-Masks (see {@link #toMask(Collection)}),
+ *           so new Permissions must only be appended and never reordered.
+ */
 public enum Permission implements GrantedAuthority {
     USER,
     ADMIN;
@@ -34,6 +42,42 @@ public enum Permission implements GrantedAuthority {
         return (Set) ALL_PERMISSIONS;
     }
 
+    /**
+     * Encodes the given Permissions as a Bitmask where each Permission sets the Bit at its Ordinal.
+     *
+     * @param permissions The Permissions to encode (Authorities that are no Permissions are ignored).
+     * @return The Permission-Mask.
+     */
+    public static int toMask(Collection<? extends GrantedAuthority> permissions) {
+        int mask = 0;
+        if (permissions != null) {
+            for (GrantedAuthority authority : permissions) {
+                if (authority instanceof Permission permission)
+                    mask |= permission.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Decodes a Permission-Mask created by {@link #toMask(Collection)}.
+     *
+     * @param mask The Permission-Mask.
+     * @return The Permissions whose Bits are set in the Mask.
+     */
+    public static Set<Permission> fromMask(int mask) {
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (Permission permission : values()) {
+            if ((mask & permission.bit()) != 0)
+                permissions.add(permission);
+        }
+        return permissions;
+    }
+
+    private int bit() {
+        return 1 << this.ordinal();
+    }
+
     @Override
     public String getAuthority() {
         return this.toString();
@@ -20,9 +20,11 @@ import java.util.UUID;
 @Setter
 @Entity
 @SuperBuilder
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
-@Table(name = "person")
+@Table(name = "person", indexes = {
+        @Index(name = "idx_person_username_token", columnList = "username, token, person_id, permission_mask, token_creation_date")
+})
 // NOTE: This changes the name of the "id"-Column inherited from Authenticable to "person_id"
 @AttributeOverride(name = "id", column = @Column(name = "person_id"))
 public class Person extends Authenticable implements Serializable {
@@ -46,12 +48,12 @@ public class Person extends Authenticable implements Serializable {
 
     @Builder.Default
     @Setter(AccessLevel.PRIVATE)
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "creator")
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "creator")
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private List<Deck> createdDecks = new ArrayList<>();
 
     @Builder.Default
-    @ManyToMany(fetch = FetchType.EAGER, mappedBy = "subscribedPersons")
+    @ManyToMany(fetch = FetchType.LAZY, mappedBy = "subscribedPersons")
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private List<Deck> savedDecks = new ArrayList<>();
 
@@ -0,0 +1,95 @@
+package at.ac.uibk.swa.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable Record of a single Review of a {@link Card} by a {@link Person}.
+ * <br/>
+ * Every Review is only ever inserted, so the Log contains the full learning History.
+ * The {@link LearningProgress} of a Card is a Projection of its Log, which is maintained incrementally and can be
+ * rebuilt from the Log (e.g. if the Learning-Algorithm changes).
+ *
+ * @see at.ac.uibk.swa.service.CardService#rebuildLearningProgress(UUID)
+ */
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Table(name = "review_log", indexes = {
+        @Index(name = "idx_review_log_card_person", columnList = "card_id, person_id, reviewed_at")
+})
+public class ReviewLog implements Serializable {
+
+    @Id
+    @Column(name = "review_id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID reviewId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "person_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Person person;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "card_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Card card;
+
+    @Column(name = "grade", nullable = false, updatable = false)
+    @JdbcTypeCode(SqlTypes.INTEGER)
+    private int grade;
+
+    @Column(name = "reviewed_at", nullable = false, updatable = false, columnDefinition = "TIMESTAMP")
+    private LocalDateTime reviewedAt;
+
+    @Column(name = "learning_interval", nullable = false, updatable = false)
+    @JdbcTypeCode(SqlTypes.INTEGER)
+    private int interval;
+
+    @Column(name = "e_factor", nullable = false, updatable = false)
+    @JdbcTypeCode(SqlTypes.DOUBLE)
+    private double eFactor;
+
+    /**
+     * Creates the Log-Entry for a Review.
+     *
+     * @param person The Person that reviewed the Card.
+     * @param card The reviewed Card.
+     * @param grade The difficulty that the Person gave.
+     * @param reviewedAt The time of the Review.
+     * @param result The LearningProgress resulting from the Review.
+     * @return The new (not yet saved) Log-Entry.
+     */
+    public static ReviewLog of(Person person, Card card, int grade, LocalDateTime reviewedAt, LearningProgress result) {
+        return ReviewLog.builder()
+                .person(person)
+                .card(card)
+                .grade(grade)
+                .reviewedAt(reviewedAt)
+                .interval(result.getInterval())
+                .eFactor(result.getEFactor())
+                .build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (this == o) || ((o instanceof ReviewLog r) &&
+                (this.reviewId != null) &&
+                (this.reviewId.equals(r.reviewId)));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.reviewId.hashCode();
+    }
+}
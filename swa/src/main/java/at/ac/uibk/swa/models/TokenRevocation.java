@@ -0,0 +1,34 @@
+package at.ac.uibk.swa.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Revocation of all signed Tokens of a Person that were issued before a given Date.
+ * <br/>
+ * Only the newest Revocation per Person is stored, so the Table never has more Rows than there are Persons
+ * (and Rows older than the Token-Expiration-Duration can be deleted).
+ *
+ * @see at.ac.uibk.swa.service.TokenRevocationService
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "token_revocation", indexes = {
+        @Index(name = "idx_token_revocation_revoked_at", columnList = "revoked_at")
+})
+public class TokenRevocation implements Serializable {
+
+    @Id
+    @Column(name = "person_id", nullable = false)
+    private UUID personId;
+
+    @Column(name = "revoked_at", nullable = false, columnDefinition = "TIMESTAMP")
+    private LocalDateTime revokedAt;
+}
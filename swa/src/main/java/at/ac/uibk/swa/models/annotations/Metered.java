@@ -0,0 +1,19 @@
+package at.ac.uibk.swa.models.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Records the Duration and Outcome of every Call of the annotated Method in a Micrometer-Timer.
+ *
+ * @see at.ac.uibk.swa.models.annotations.aspects.MeteredAspect
+ */
+@Inherited
+@Documented
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Metered {
+    /**
+     * @return The Name of the Timer (e.g. "swa.card.learn").
+     */
+    String value();
+}
@@ -0,0 +1,21 @@
+package at.ac.uibk.swa.models.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Retries the annotated (transactional) Method if it failed because another Transaction changed the same
+ * Entities concurrently (optimistic Locking, see the {@code version}-Columns).
+ * <br/>
+ * Every Attempt runs in its own Transaction, so the Method is called again with the current State of the Database.
+ * Between the Attempts the Thread waits for a randomized, exponentially growing Backoff
+ * ({@code swa.retry.*}). If the Method is called within an existing Transaction, it is not retried,
+ * because only the outermost Transaction can be repeated.
+ *
+ * @see at.ac.uibk.swa.models.annotations.aspects.RetryOnConflictAspect
+ */
+@Inherited
+@Documented
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -1,6 +1,5 @@
 package at.ac.uibk.swa.models.annotations.aspects;
 
-import at.ac.uibk.swa.models.Authenticable;
 import at.ac.uibk.swa.models.Permission;
 import at.ac.uibk.swa.models.annotations.AllPermission;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,9 +11,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -37,17 +38,17 @@ public class AllPermissionAspect {
 
 
         // Try to get the currently logged-in user
-        Optional<Set<GrantedAuthority>> maybeUserPermissions =
+        Optional<Collection<? extends GrantedAuthority>> maybeUserPermissions =
                 Optional.ofNullable((UsernamePasswordAuthenticationToken) request.getUserPrincipal())
-                        .map(token -> token.getPrincipal() instanceof Authenticable a ? a : null)
-                        .map(Authenticable::getPermissions);
+                        .map(token -> token.getPrincipal() instanceof UserDetails u ? u : null)
+                        .map(UserDetails::getAuthorities);
 
         // If no user is logged in => No Permissions => Fail
         if (maybeUserPermissions.isEmpty())
             throw new AccessDeniedException("");
 
         // Get the logged-in user's Permissions and check if they meet the requirements
-        Set<GrantedAuthority> userPermissions = maybeUserPermissions.get();
+        Collection<? extends GrantedAuthority> userPermissions = maybeUserPermissions.get();
         for (Permission permission : requiredPermission) {
             // Fail if any Permission is missing
             if (!userPermissions.contains(permission)) {
@@ -0,0 +1,107 @@
+package at.ac.uibk.swa.models.annotations.aspects;
+
+import at.ac.uibk.swa.models.annotations.Metered;
+import at.ac.uibk.swa.models.rest_responses.RestResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Records the Duration of every Endpoint of an {@link at.ac.uibk.swa.models.annotations.ApiRestController}
+ * (as "swa.api.requests") and of every Method annotated with {@link Metered}.
+ * <br/>
+ * The Timers are tagged with the Class, the Method and the Outcome of the Call, but never with the User,
+ * so the Number of Time-Series stays bounded.
+ * <br/>
+ * The Timers wrap the Retries of {@link RetryOnConflictAspect}, so they measure the whole Call.
+ *
+ * @see Outcome
+ */
+@Aspect
+@Component
+@Order(RetryOnConflictAspect.ORDER - 1)
+public class MeteredAspect {
+
+    public static final String API_REQUESTS_TIMER = "swa.api.requests";
+
+    /**
+     * The Outcome of a Call.
+     */
+    public enum Outcome {
+        /** The Call returned a successful Result. */
+        SUCCESS,
+        /** The Call returned normally, but reported a Failure (e.g. false, an empty Optional or an Error-Response). */
+        FAILURE,
+        /** The Call threw an Exception. */
+        ERROR;
+
+        /**
+         * Derives the Outcome from the Result of a Call.
+         *
+         * @param result The returned Value.
+         * @return {@link #FAILURE} if the Result reports a Failure, otherwise {@link #SUCCESS}.
+         */
+        public static Outcome of(Object result) {
+            boolean success;
+            if (result instanceof Boolean b) {
+                success = b;
+            } else if (result instanceof Optional<?> o) {
+                success = o.isPresent();
+            } else if (result instanceof RestResponse r) {
+                success = r.isSuccess();
+            } else if (result instanceof ResponseEntity<?> e) {
+                success = e.getBody() instanceof RestResponse r ? r.isSuccess() : e.getStatusCode().is2xxSuccessful();
+            } else {
+                success = true;
+            }
+            return success ? SUCCESS : FAILURE;
+        }
+
+        public String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("@within(at.ac.uibk.swa.models.annotations.ApiRestController) && execution(public * *(..))")
+    public Object timeEndpoint(ProceedingJoinPoint jp) throws Throwable {
+        return time(API_REQUESTS_TIMER, jp);
+    }
+
+    @Around("@annotation(metered)")
+    public Object timeMethod(ProceedingJoinPoint jp, Metered metered) throws Throwable {
+        return time(metered.value(), jp);
+    }
+
+    private Object time(String name, ProceedingJoinPoint jp) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Outcome outcome = Outcome.ERROR;
+        String exception = "none";
+        try {
+            Object result = jp.proceed();
+            outcome = Outcome.of(result);
+            return result;
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(meterRegistry.timer(name, Tags.of(
+                    "class", jp.getSignature().getDeclaringType().getSimpleName(),
+                    "method", jp.getSignature().getName(),
+                    "outcome", outcome.tag(),
+                    "exception", exception
+            )));
+        }
+    }
+}
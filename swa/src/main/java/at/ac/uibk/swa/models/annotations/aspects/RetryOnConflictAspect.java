@@ -0,0 +1,130 @@
+package at.ac.uibk.swa.models.annotations.aspects;
+
+import at.ac.uibk.swa.models.annotations.RetryOnConflict;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Repeats the Methods annotated with {@link RetryOnConflict} when they fail because of a Conflict.
+ * <br/>
+ * The Aspect must wrap the Transaction of the Method (so every Attempt gets a new one), therefore it is ordered
+ * before the Transaction-Interceptor (which has the lowest Precedence). The Timers of {@link MeteredAspect}
+ * include all Attempts.
+ * <br/>
+ * Every Conflict is counted as "swa.conflicts", tagged with the Method and whether it was retried or the
+ * Attempts were exhausted (the Conflict is rethrown then).
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(RetryOnConflictAspect.ORDER)
+public class RetryOnConflictAspect {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+    public static final String CONFLICTS_COUNTER = "swa.conflicts";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public RetryOnConflictAspect(
+            MeterRegistry meterRegistry,
+            @Value("${swa.retry.max-attempts:3}") int maxAttempts,
+            @Value("${swa.retry.initial-backoff:PT0.01S}") Duration initialBackoff,
+            @Value("${swa.retry.max-backoff:PT0.2S}") Duration maxBackoff
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint jp, RetryOnConflict retryOnConflict) throws Throwable {
+        // NOTE: Within an existing Transaction the Conflict must be handled by whoever started it.
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            return jp.proceed();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return jp.proceed();
+            } catch (Throwable t) {
+                if (!isConflict(t))
+                    throw t;
+                if (attempt >= this.maxAttempts) {
+                    count(jp, "exhausted");
+                    log.warn("Conflict in {} after {} attempts, giving up", jp.getSignature().toShortString(), attempt);
+                    throw t;
+                }
+                count(jp, "retried");
+                log.debug("Conflict in {}, retrying: {}", jp.getSignature().toShortString(), t.getMessage());
+                if (!sleep(backoff(attempt)))
+                    throw t;
+            }
+        }
+    }
+
+    /**
+     * Checks whether an Exception was caused by a concurrent Change of the same Entities.
+     *
+     * @param t The thrown Exception.
+     * @return true if the Exception or one of its Causes is an optimistic Locking Failure.
+     */
+    public static boolean isConflict(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the Delay before the next Attempt.
+     * The Delay is drawn uniformly up to the exponential Backoff, so conflicting Requests do not retry in Lockstep.
+     *
+     * @param attempt The number of failed Attempts so far (at least 1).
+     * @return A random Delay of at most {@code swa.retry.initial-backoff} doubled for every further Attempt
+     *         (and at most {@code swa.retry.max-backoff}).
+     */
+    Duration backoff(int attempt) {
+        long nanos = this.initialBackoff.toNanos() << Math.min(attempt - 1, 20);
+        nanos = Math.min(nanos, this.maxBackoff.toNanos());
+        return Duration.ofNanos(nanos <= 0 ? 0 : ThreadLocalRandom.current().nextLong(nanos + 1));
+    }
+
+    private static boolean sleep(Duration backoff) {
+        try {
+            Thread.sleep(backoff.toMillis(), backoff.toNanosPart() % 1_000_000);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void count(ProceedingJoinPoint jp, String result) {
+        meterRegistry.counter(CONFLICTS_COUNTER, Tags.of(
+                "class", jp.getSignature().getDeclaringType().getSimpleName(),
+                "method", jp.getSignature().getName(),
+                "result", result
+        )).increment();
+    }
+}
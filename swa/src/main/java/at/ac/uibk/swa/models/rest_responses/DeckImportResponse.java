@@ -0,0 +1,36 @@
+package at.ac.uibk.swa.models.rest_responses;
+
+import at.ac.uibk.swa.service.deck_service.DeckImportResult;
+import at.ac.uibk.swa.service.deck_service.DeckImportResult.LineError;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@SuperBuilder
+public class DeckImportResponse extends RestResponse implements Serializable {
+
+    @Override
+    @JsonInclude
+    public String getType() { return "DeckImport"; }
+
+    private UUID deckId;
+    private long importedCards;
+    private long failedLines;
+    /**
+     * The Errors of the first invalid Lines (there might be more, see failedLines).
+     */
+    private List<LineError> errors;
+
+    public DeckImportResponse(DeckImportResult result) {
+        super(true);
+        this.deckId = result.deckId();
+        this.importedCards = result.importedCards();
+        this.failedLines = result.failedLines();
+        this.errors = result.errors();
+    }
+}
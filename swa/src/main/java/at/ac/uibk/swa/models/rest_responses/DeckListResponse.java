@@ -1,13 +1,14 @@
 package at.ac.uibk.swa.models.rest_responses;
 
 import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.service.deck_service.DeckPage;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
 
 import java.io.Serializable;
-import java.util.List;
+import java.util.UUID;
 
 @Getter
 @SuperBuilder
@@ -17,8 +18,16 @@ public class DeckListResponse extends ListResponse<DeckListResponse.DeckInfo> im
     @JsonInclude
     public String getType() { return "DeckList"; }
 
-    public DeckListResponse(List<Deck> decks) {
-        super(decks.stream().map(DeckInfo::new).toList());
+    /**
+     * The Cursor to pass to get the next Page of Decks.
+     * If this is missing, there are no more Decks.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID nextCursor;
+
+    public DeckListResponse(DeckPage page) {
+        super(page.decks().stream().map(DeckInfo::new).toList());
+        this.nextCursor = page.nextCursor();
     }
 
     @Getter
@@ -26,11 +35,11 @@ public class DeckListResponse extends ListResponse<DeckListResponse.DeckInfo> im
 
         @JsonUnwrapped
         private Deck deck;
-        private int numCards;
+        private long numCards;
 
         public DeckInfo(Deck deck) {
             this.deck = deck;
-            this.numCards = this.deck.getCards().size();
+            this.numCards = deck.getCardCount();
         }
     }
-}
\ No newline at end of file
+}
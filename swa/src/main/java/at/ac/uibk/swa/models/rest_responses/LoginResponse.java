@@ -27,6 +27,12 @@ public class LoginResponse extends TokenResponse implements Serializable {
     private UUID personId;
     private Set<GrantedAuthority> permissions;
 
+    /**
+     * Signed Token for the stateless Authentication (only set if stateless Tokens are enabled).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String signedToken;
+
     public LoginResponse(Authenticable authenticable) {
         super(true, authenticable.getToken());
         this.personId = authenticable.getId();
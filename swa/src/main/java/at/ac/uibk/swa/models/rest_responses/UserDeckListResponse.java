@@ -1,21 +1,16 @@
 package at.ac.uibk.swa.models.rest_responses;
 
-import at.ac.uibk.swa.config.jwt_authentication.AuthContext;
 import at.ac.uibk.swa.models.Deck;
-import at.ac.uibk.swa.models.LearningProgress;
-import at.ac.uibk.swa.models.Person;
-import at.ac.uibk.swa.util.DoubleCounter;
-import at.ac.uibk.swa.util.DoublePredicateCountingCollector;
+import at.ac.uibk.swa.repositories.DeckRepository.DeckStatistics;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
 
-import javax.security.auth.login.CredentialException;
 import java.io.Serializable;
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.UUID;
 
 @Getter
 @SuperBuilder
@@ -24,41 +19,26 @@ public class UserDeckListResponse extends ListResponse<UserDeckListResponse.User
     @JsonInclude
     public String getType() { return "UserDeckList"; }
 
-    public UserDeckListResponse(List<Deck> decks) {
-        this(decks, AuthContext.getCurrentPerson().orElseThrow(() -> new NullPointerException("Could not find Person")));
-
-    }
-
-    public UserDeckListResponse(List<Deck> decks, Person person) {
-        super(decks.stream().map(deck -> new UserDeckInfo(deck, person)).toList());
+    public UserDeckListResponse(List<Deck> decks, Map<UUID, DeckStatistics> statistics) {
+        super(decks.stream().map(deck -> new UserDeckInfo(deck, statistics.get(deck.getDeckId()))).toList());
     }
 
     @Getter
     public static class UserDeckInfo implements Serializable {
         @JsonUnwrapped
         private Deck deck;
-        private int numCards;
+        private long numCards;
         private long numCardsToRepeat;
         private long numNotLearnedCards;
 
-        public UserDeckInfo(Deck deck) throws CredentialException {
-            this(deck, AuthContext.getCurrentPerson().orElseThrow((CredentialException::new)));
-        }
-
-        public UserDeckInfo(Deck deck, Person person) {
+        public UserDeckInfo(Deck deck, DeckStatistics statistics) {
             this.deck = deck;
-            this.numCards = this.deck.getCards().size();
-
-            LocalDateTime now = LocalDateTime.now();
-            DoubleCounter counter = deck.getCards().stream()
-                    .map(card -> card.getLearningProgress(person))
-                    .collect(new DoublePredicateCountingCollector<Optional<LearningProgress>>(
-                            Optional::isEmpty,
-                            lp -> lp.map(learningProgress -> learningProgress.getNextLearn().isBefore(now)).orElse(false)
-                    ));
-
-            this.numCardsToRepeat = counter.getMatchesFirst();
-            this.numNotLearnedCards = counter.getMatchesSecond();
+            // NOTE: A Deck without Statistics has been deleted in the meantime.
+            if (statistics != null) {
+                this.numCards = statistics.getNumCards();
+                this.numCardsToRepeat = statistics.getNumCardsToRepeat();
+                this.numNotLearnedCards = statistics.getNumNotLearnedCards();
+            }
         }
     }
-}
\ No newline at end of file
+}
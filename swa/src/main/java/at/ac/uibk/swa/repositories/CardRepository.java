@@ -1,12 +1,180 @@
 package at.ac.uibk.swa.repositories;
 
 import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.LearningProgress;
+import at.ac.uibk.swa.service.deck_service.ExportedCard;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface CardRepository extends CrudRepository<Card, UUID> {
     @Override
     List<Card> findAll();
+
+    /**
+     * Finds the Cards of a Deck that are due for learning for the given Person.
+     * A Card is due if the Person has never learned it or if its nextLearn-Date is not after the given Date.
+     * Cards that were never learned come first, the others are ordered from the oldest to the newest nextLearn-Date.
+     *
+     * @implNote Only the Content of the Cards is selected, so the returned Cards are neither managed
+     *           nor do they contain their Deck or LearningProgresses.
+     * @param deckId The ID of the Deck to get the due Cards from.
+     * @param personId The ID of the Person that wants to learn.
+     * @param now The Date against which the nextLearn-Dates are compared.
+     * @param pageable Limits the number of returned Cards (use {@link Pageable#unpaged()} for all Cards).
+     * @return The due Cards in the order they should be learned.
+     */
+    @Query("""
+            select new at.ac.uibk.swa.models.Card(c.cardId, c.frontText, c.backText, c.isFlipped)
+            from Card c
+            left join c.learningProgresses lp on key(lp).id = :personId
+            where c.deck.deckId = :deckId and (lp.learningProgressId is null or lp.nextLearn <= :now)
+            order by case when lp.learningProgressId is null then 0 else 1 end, lp.nextLearn, c.cardId""")
+    List<Card> findDueCards(
+            @Param("deckId") UUID deckId,
+            @Param("personId") UUID personId,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+
+    /**
+     * Finds the LearningProgress of a single Card for the given Person.
+     *
+     * @implNote Only the LearningProgress of this Person is loaded, not the whole Mapping of the Card.
+     * @param cardId The ID of the Card.
+     * @param personId The ID of the Person.
+     * @return The managed LearningProgress (if the Person has already learned the Card), otherwise nothing.
+     */
+    @Query("select lp from Card c join c.learningProgresses lp on key(lp).id = :personId where c.cardId = :cardId")
+    Optional<LearningProgress> findLearningProgress(@Param("cardId") UUID cardId, @Param("personId") UUID personId);
+
+    /**
+     * Links a new LearningProgress of the given Person to a Card without loading the Mapping of the Card.
+     *
+     * @implNote The Join-Table is not an Entity, so a native Query is needed. The LearningProgress must have been
+     *           written beforehand and the Mapping of an already loaded Card is not updated.
+     * @param cardId The ID of the Card.
+     * @param personId The ID of the Person.
+     * @param learningProgressId The ID of the new LearningProgress.
+     * @return The number of added Links.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "card_progress_mapping"))
+    @Query(value = """
+            insert into card_progress_mapping (card_id, person_id, progress_id)
+            values (:cardId, :personId, :learningProgressId)""", nativeQuery = true)
+    int addLearningProgressLink(
+            @Param("cardId") UUID cardId,
+            @Param("personId") UUID personId,
+            @Param("learningProgressId") UUID learningProgressId
+    );
+
+    /**
+     * Finds all Cards of a Deck.
+     *
+     * @param deckId The ID of the Deck.
+     * @return The managed Cards of the Deck (without their LearningProgresses).
+     */
+    @Query("select c from Card c where c.deck.deckId = :deckId")
+    List<Card> findAllByDeckId(@Param("deckId") UUID deckId);
+
+    /**
+     * Finds the IDs of all LearningProgresses of the given Cards.
+     *
+     * @param cardIds The IDs of the Cards.
+     * @return The IDs of the LearningProgresses of all Persons for these Cards.
+     */
+    @Query("select lp.learningProgressId from Card c join c.learningProgresses lp where c.cardId in :cardIds")
+    List<UUID> findLearningProgressIds(@Param("cardIds") Collection<UUID> cardIds);
+
+    /**
+     * Removes the Links between the given Cards and their LearningProgresses.
+     *
+     * @implNote The Join-Table is not an Entity, so a native Query is needed. The IDs are bound like the
+     *           Columns store them (see {@code hibernate.type.preferred_uuid_jdbc_type}).
+     * @param cardIds The IDs of the Cards.
+     * @return The number of removed Links.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "card_progress_mapping"))
+    @Query(value = "delete from card_progress_mapping where card_id in (:cardIds)", nativeQuery = true)
+    int deleteLearningProgressLinks(@Param("cardIds") Collection<UUID> cardIds);
+
+    /**
+     * Deletes the given Cards with a single Statement.
+     *
+     * @implNote This bypasses the Persistence-Context, so the LearningProgresses of the Cards must be deleted
+     *           beforehand and the deleted Cards must not be used afterwards.
+     * @param cardIds The IDs of the Cards.
+     * @return The number of deleted Cards.
+     */
+    @Modifying
+    @Query("delete from Card c where c.cardId in :cardIds")
+    int deleteAllByCardIdIn(@Param("cardIds") Collection<UUID> cardIds);
+
+    /**
+     * Streams the Cards of a Deck for exporting them (ordered by their ID).
+     *
+     * @implNote The Stream must be consumed inside a Transaction and closed afterwards. Only the Content of the Cards
+     *           is selected, so nothing is added to the Persistence-Context and the Memory needed stays constant.
+     * @param deckId The ID of the Deck to export.
+     * @param personId The ID of the Person whose Learning Progresses should be included (null for none).
+     * @return The Cards of the Deck.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new at.ac.uibk.swa.service.deck_service.ExportedCard(
+                c.cardId, c.frontText, c.backText, c.isFlipped, lp.interval, lp.eFactor, lp.repetitions, lp.nextLearn
+            )
+            from Card c
+            left join c.learningProgresses lp on key(lp).id = :personId
+            where c.deck.deckId = :deckId
+            order by c.cardId""")
+    Stream<ExportedCard> streamExportedCards(@Param("deckId") UUID deckId, @Param("personId") UUID personId);
+
+    /**
+     * Finds the Decks and the nextLearn-Dates of the given Cards for one Person (e.g. to correct Statistics by
+     * Learning Progresses that have not been written yet).
+     *
+     * @param cardIds The IDs of the Cards.
+     * @param deckIds The IDs of the Decks the Cards must belong to.
+     * @param personId The ID of the learning Person.
+     * @return The Learning State of every given Card that belongs to one of the Decks.
+     */
+    @Query("""
+            select c.cardId as cardId, c.deck.deckId as deckId, lp.nextLearn as nextLearn
+            from Card c
+            left join c.learningProgresses lp on key(lp).id = :personId
+            where c.cardId in :cardIds and c.deck.deckId in :deckIds""")
+    List<CardLearningState> findLearningStates(
+            @Param("cardIds") Collection<UUID> cardIds,
+            @Param("deckIds") Collection<UUID> deckIds,
+            @Param("personId") UUID personId
+    );
+
+    /**
+     * Projection containing the Learning State of a {@link Card} for a single Person.
+     */
+    interface CardLearningState {
+        UUID getCardId();
+
+        UUID getDeckId();
+
+        /**
+         * @return The nextLearn-Date of the Card or null if the Person has never learned it.
+         */
+        LocalDateTime getNextLearn();
+    }
 }
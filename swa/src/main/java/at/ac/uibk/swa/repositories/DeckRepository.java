@@ -1,12 +1,245 @@
 package at.ac.uibk.swa.repositories;
 
+import at.ac.uibk.swa.config.SecondLevelCacheConfig;
 import at.ac.uibk.swa.models.Deck;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface DeckRepository extends CrudRepository<Deck, UUID> {
     @Override
+    @EntityGraph(Deck.GRAPH_CARDS)
     List<Deck> findAll();
+
+    /**
+     * Finds a Deck together with its Cards.
+     *
+     * @param deckId The ID of the Deck.
+     * @return The Deck with its Cards (if found), otherwise nothing.
+     */
+    @EntityGraph(Deck.GRAPH_CARDS)
+    @Query("select d from Deck d where d.deckId = :deckId")
+    Optional<Deck> findWithCardsById(@Param("deckId") UUID deckId);
+
+    /**
+     * Finds the Name of a Deck without loading the Deck itself.
+     *
+     * @param deckId The ID of the Deck.
+     * @return The Name of the Deck (if found), otherwise nothing.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("select d.name from Deck d where d.deckId = :deckId")
+    Optional<String> findNameById(@Param("deckId") UUID deckId);
+
+    /**
+     * Finds the Email-Addresses of the Subscribers of a Deck without loading the Persons themselves.
+     *
+     * @param deckId The ID of the Deck.
+     * @return The Email-Addresses of all Persons subscribed to the Deck.
+     */
+    @Query("select p.email from Deck d join d.subscribedPersons p where d.deckId = :deckId")
+    List<String> findSubscriberEmails(@Param("deckId") UUID deckId);
+
+    /**
+     * Finds a Page of the Decks that are not deleted (admin list).
+     * The Decks are ordered by their ID, so the next Page starts after the last ID of the previous Page.
+     *
+     * @param after The ID of the last Deck of the previous Page (the smallest UUID for the first Page).
+     * @param pageable Limits the number of returned Decks.
+     * @return The Decks that are not deleted after the given ID.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            select d from Deck d join fetch d.creator
+            where d.isDeleted = false and d.deckId > :after
+            order by d.deckId""")
+    List<Deck> findNotDeletedAfter(@Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Finds a Page of the Decks that are available for subscription.
+     * The Decks are ordered by their ID, so the next Page starts after the last ID of the previous Page.
+     *
+     * @param after The ID of the last Deck of the previous Page (the smallest UUID for the first Page).
+     * @param pageable Limits the number of returned Decks.
+     * @return The published Decks that are neither blocked nor deleted after the given ID.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            select d from Deck d join fetch d.creator
+            where d.isPublished = true and d.isBlocked = false and d.isDeleted = false
+            and d.deckId > :after
+            order by d.deckId""")
+    List<Deck> findAvailableAfter(@Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Finds a Page of the Decks that are available for subscription and that the given Person has not
+     * subscribed to yet.
+     * The Decks are ordered by their ID, so the next Page starts after the last ID of the previous Page.
+     *
+     * @param personId The ID of the Person.
+     * @param after The ID of the last Deck of the previous Page (the smallest UUID for the first Page).
+     * @param pageable Limits the number of returned Decks.
+     * @return The published Decks that are neither blocked nor deleted and not subscribed by the Person
+     *         after the given ID.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            select d from Deck d join fetch d.creator
+            where d.isPublished = true and d.isBlocked = false and d.isDeleted = false
+            and not exists (select p from d.subscribedPersons p where p.id = :personId)
+            and d.deckId > :after
+            order by d.deckId""")
+    List<Deck> findAvailableForSubscriberAfter(
+            @Param("personId") UUID personId,
+            @Param("after") UUID after,
+            Pageable pageable
+    );
+
+    /**
+     * Finds all Decks created by the given Person that are not deleted (deck list).
+     *
+     * @param personId The ID of the Creator.
+     * @return The Decks created by the Person.
+     */
+    @Query("select d from Deck d where d.creator.id = :personId and d.isDeleted = false")
+    List<Deck> findAllNotDeletedByCreator(@Param("personId") UUID personId);
+
+    /**
+     * Finds all Decks the given Person has subscribed to together with their Creators (deck list).
+     *
+     * @param personId The ID of the Subscriber.
+     * @return The Decks subscribed by the Person.
+     */
+    @Query("select d from Deck d join fetch d.creator join d.subscribedPersons p where p.id = :personId")
+    List<Deck> findAllBySubscriber(@Param("personId") UUID personId);
+
+    /**
+     * Counts the Cards of the given Decks and how many of them the given Person still has to learn.
+     * All Decks are aggregated in a single Query, so neither the Cards nor their Learning Progresses are loaded.
+     *
+     * @param deckIds The IDs of the Decks.
+     * @param personId The ID of the learning Person.
+     * @param now The Date against which the nextLearn-Dates are compared.
+     * @return The Counters of every given Deck that exists.
+     */
+    @Query("""
+            select d.deckId as deckId, count(c) as numCards,
+            coalesce(sum(case when lp.learningProgressId is not null and lp.nextLearn <= :now then 1 else 0 end), 0)
+                as numCardsToRepeat,
+            coalesce(sum(case when c.cardId is not null and lp.learningProgressId is null then 1 else 0 end), 0)
+                as numNotLearnedCards
+            from Deck d
+            left join d.cards c
+            left join c.learningProgresses lp on key(lp).id = :personId
+            where d.deckId in :deckIds
+            group by d.deckId""")
+    List<DeckStatistics> findStatistics(
+            @Param("deckIds") Collection<UUID> deckIds,
+            @Param("personId") UUID personId,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Finds the Flags of a Deck that decide who can access its Cards without loading the Deck itself.
+     *
+     * @param deckId The ID of the Deck.
+     * @return The Access-Flags of the Deck (if found), otherwise nothing.
+     */
+    @Query("""
+            select d.isDeleted as deleted, d.isBlocked as blocked, d.isPublished as published, d.creator.id as creatorId
+            from Deck d where d.deckId = :deckId""")
+    Optional<DeckAccess> findAccessById(@Param("deckId") UUID deckId);
+
+    /**
+     * Adds the given number of Cards to the Counter of a Deck with a single Statement.
+     *
+     * @implNote The Statement does not change the Version of the Deck, so it never conflicts with Updates of the Deck.
+     *           It neither flushes the Persistence-Context (so the Deck must already have been written) nor evicts
+     *           the Deck from the Second-Level Cache (see {@link SecondLevelCacheConfig#DECK_COUNTER_SPACE}).
+     * @param deckId The ID of the Deck.
+     * @param delta The number of created (positive) or deleted (negative) Cards.
+     * @return 1 if the Counter was changed, 0 if the Deck does not exist.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = SecondLevelCacheConfig.DECK_COUNTER_SPACE))
+    @Query(value = "update deck set card_count = card_count + :delta where deck_id = :deckId", nativeQuery = true)
+    int addCards(@Param("deckId") UUID deckId, @Param("delta") long delta);
+
+    /**
+     * Finds the IDs of a Page of all Decks (e.g. to process all Decks in Chunks).
+     * The IDs are ordered, so the next Page starts after the last ID of the previous Page.
+     *
+     * @param after The last ID of the previous Page (the smallest UUID for the first Page).
+     * @param pageable Limits the number of returned IDs.
+     * @return The IDs of the Decks after the given ID.
+     */
+    @Query("select d.deckId from Deck d where d.deckId > :after order by d.deckId")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Recounts the Cards of the given Decks and fixes the Counters that differ.
+     *
+     * @param deckIds The IDs of the Decks.
+     * @return The number of fixed Counters.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = SecondLevelCacheConfig.DECK_COUNTER_SPACE))
+    @Query(value = """
+            update deck set card_count = (select count(*) from card c where c.deck_id = deck.deck_id)
+            where deck_id in (:deckIds)
+            and card_count <> (select count(*) from card c where c.deck_id = deck.deck_id)""", nativeQuery = true)
+    int reconcileCardCounts(@Param("deckIds") Collection<UUID> deckIds);
+
+    /**
+     * Recounts the Subscribers of the given Decks and fixes the Counters that differ.
+     *
+     * @param deckIds The IDs of the Decks.
+     * @return The number of fixed Counters.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = SecondLevelCacheConfig.DECK_COUNTER_SPACE))
+    @Query(value = """
+            update deck set subscriber_count = (select count(*) from person_saved_deck s where s.deck_id = deck.deck_id)
+            where deck_id in (:deckIds)
+            and subscriber_count <> (select count(*) from person_saved_deck s where s.deck_id = deck.deck_id)""",
+            nativeQuery = true)
+    int reconcileSubscriberCounts(@Param("deckIds") Collection<UUID> deckIds);
+
+    /**
+     * Projection containing only the Flags of a {@link Deck} that are needed for access checks.
+     */
+    interface DeckAccess {
+        boolean isDeleted();
+
+        boolean isBlocked();
+
+        boolean isPublished();
+
+        UUID getCreatorId();
+    }
+
+    /**
+     * Projection containing the Learning Statistics of a {@link Deck} for a single Person.
+     */
+    interface DeckStatistics {
+        UUID getDeckId();
+
+        long getNumCards();
+
+        long getNumCardsToRepeat();
+
+        long getNumNotLearnedCards();
+    }
 }
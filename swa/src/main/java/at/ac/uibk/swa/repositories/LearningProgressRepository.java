@@ -1,9 +1,23 @@
 package at.ac.uibk.swa.repositories;
 
 import at.ac.uibk.swa.models.LearningProgress;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface LearningProgressRepository  extends CrudRepository<LearningProgress, UUID> {
+    /**
+     * Deletes the given LearningProgresses with a single Statement.
+     *
+     * @implNote The Links from the Cards to the LearningProgresses must be removed beforehand.
+     * @param learningProgressIds The IDs of the LearningProgresses.
+     * @return The number of deleted LearningProgresses.
+     */
+    @Modifying
+    @Query("delete from LearningProgress lp where lp.learningProgressId in :learningProgressIds")
+    int deleteAllByLearningProgressIdIn(@Param("learningProgressIds") Collection<UUID> learningProgressIds);
 }
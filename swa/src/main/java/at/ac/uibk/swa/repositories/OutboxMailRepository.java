@@ -0,0 +1,83 @@
+package at.ac.uibk.swa.repositories;
+
+import at.ac.uibk.swa.models.OutboxMail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxMailRepository extends CrudRepository<OutboxMail, UUID> {
+
+    /**
+     * Finds the Mails with the given Status that are due, the oldest first.
+     *
+     * @param status The Status of the Mails.
+     * @param now The current Time.
+     * @param pageable Limits the number of returned Mails.
+     * @return The Mails whose next Attempt is not after the given Time.
+     */
+    @Query("""
+            select m from OutboxMail m
+            where m.status = :status and m.nextAttemptAt <= :now
+            order by m.nextAttemptAt, m.mailId""")
+    List<OutboxMail> findDueByStatus(
+            @Param("status") OutboxMail.Status status,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+
+    /**
+     * Finds the pending Mails that are due, the oldest first.
+     *
+     * @param now The current Time.
+     * @param pageable Limits the number of returned Mails.
+     * @return The pending Mails whose next Attempt is not after the given Time.
+     */
+    default List<OutboxMail> findDue(LocalDateTime now, Pageable pageable) {
+        return findDueByStatus(OutboxMail.Status.PENDING, now, pageable);
+    }
+
+    /**
+     * Moves the next Attempt of a Mail with the given Status and next Attempt to the given Time.
+     *
+     * @param mailId The ID of the Mail.
+     * @param status The expected Status of the Mail.
+     * @param nextAttemptAt The expected next Attempt of the Mail.
+     * @param leaseUntil The new next Attempt of the Mail.
+     * @return 1 if the Mail was changed, otherwise 0.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update OutboxMail m set m.nextAttemptAt = :leaseUntil
+            where m.mailId = :mailId and m.status = :status
+            and m.nextAttemptAt = :nextAttemptAt""")
+    int moveNextAttempt(
+            @Param("mailId") UUID mailId,
+            @Param("status") OutboxMail.Status status,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+
+    /**
+     * Claims a pending Mail by moving its next Attempt to the End of the Lease.
+     * Only one Dispatcher can claim a Mail, because the Claim fails if the next Attempt has already been moved.
+     * If the Dispatcher dies while sending, the Mail is due again once the Lease has expired.
+     *
+     * @param mailId The ID of the Mail.
+     * @param nextAttemptAt The next Attempt of the Mail when it was found.
+     * @param leaseUntil The End of the Lease.
+     * @return 1 if the Mail was claimed, otherwise 0.
+     */
+    default int claim(UUID mailId, LocalDateTime nextAttemptAt, LocalDateTime leaseUntil) {
+        return moveNextAttempt(mailId, OutboxMail.Status.PENDING, nextAttemptAt, leaseUntil);
+    }
+
+    long countByStatus(OutboxMail.Status status);
+}
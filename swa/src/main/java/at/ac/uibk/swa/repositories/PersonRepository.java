@@ -1,5 +1,6 @@
 package at.ac.uibk.swa.repositories;
 
+import at.ac.uibk.swa.config.jwt_authentication.PersonPrincipal;
 import at.ac.uibk.swa.models.Deck;
 import at.ac.uibk.swa.models.Person;
 import org.springframework.data.jpa.repository.Modifying;
@@ -21,6 +22,18 @@ public interface PersonRepository extends CrudRepository<Person, UUID> {
 
     Optional<Person> findByUsernameAndToken(String username, UUID token);
 
+    /**
+     * Finds the Principal of the Person with the given Username and Token without loading the Person itself.
+     *
+     * @param username The Username of the Person.
+     * @param token The current Token of the Person.
+     * @return The Principal of the Person (if found), otherwise nothing.
+     */
+    @Query("""
+            select new at.ac.uibk.swa.config.jwt_authentication.PersonPrincipal(p.id, p.username, p.permissionMask, p.tokenCreationDate)
+            from Person p where p.username = :username and p.token = :token""")
+    Optional<PersonPrincipal> findPrincipalByUsernameAndToken(@Param("username") String username, @Param("token") UUID token);
+
     Optional<Person> findByUsername(String username);
 
     @Transactional
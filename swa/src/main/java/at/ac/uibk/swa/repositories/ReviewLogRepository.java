@@ -0,0 +1,25 @@
+package at.ac.uibk.swa.repositories;
+
+import at.ac.uibk.swa.models.ReviewLog;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ReviewLogRepository extends CrudRepository<ReviewLog, UUID> {
+
+    /**
+     * Finds all Reviews of a Card by a Person in the order they were made.
+     *
+     * @param cardId The ID of the reviewed Card.
+     * @param personId The ID of the Person that reviewed the Card.
+     * @return The Reviews from the oldest to the newest.
+     */
+    @Query("""
+            select r from ReviewLog r
+            where r.card.cardId = :cardId and r.person.id = :personId
+            order by r.reviewedAt, r.reviewId""")
+    List<ReviewLog> findAllByCardAndPerson(@Param("cardId") UUID cardId, @Param("personId") UUID personId);
+}
@@ -0,0 +1,139 @@
+package at.ac.uibk.swa.repositories;
+
+import at.ac.uibk.swa.config.SecondLevelCacheConfig;
+import at.ac.uibk.swa.models.Deck;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Queries the Subscriptions ({@code person_saved_deck}) directly, so neither the Decks nor the Persons
+ * (and their Lists of Subscriptions) have to be loaded to check or change a Membership.
+ * <br/>
+ * Every (Person, Deck)-Pair can only be stored once (see {@code uk_person_saved_deck_person_deck}).
+ * Changes of the Subscriptions must be counted in {@link Deck#getSubscriberCount()} in the same Transaction.
+ *
+ * @implNote The Statements bypass the Persistence-Context, so {@link Deck#getSubscribedPersons()} and
+ *           {@link at.ac.uibk.swa.models.Person#getSavedDecks()} of already loaded Entities are not updated.
+ */
+public interface SubscriptionRepository extends Repository<Deck, UUID> {
+
+    /**
+     * Checks whether the given Person has subscribed to the given Deck.
+     *
+     * @param deckId The ID of the Deck.
+     * @param personId The ID of the Person.
+     * @return 1 if the Person has subscribed to the Deck, 0 otherwise.
+     */
+    @Query(value = """
+            select case when exists (
+                select 1 from person_saved_deck where person_id = :personId and deck_id = :deckId
+            ) then 1 else 0 end""", nativeQuery = true)
+    int existsSubscription(@Param("deckId") UUID deckId, @Param("personId") UUID personId);
+
+    /**
+     * Checks whether the given Person has subscribed to the given Deck with a single Lookup in the unique Index.
+     *
+     * @param deckId The ID of the Deck.
+     * @param personId The ID of the Person.
+     * @return true if the Person has subscribed to the Deck, false otherwise.
+     */
+    default boolean isSubscribed(UUID deckId, UUID personId) {
+        return existsSubscription(deckId, personId) > 0;
+    }
+
+    /**
+     * Locks the given Decks until the Transaction ends, so concurrent Changes of their Subscriptions (and Counters)
+     * are serialized.
+     *
+     * @implNote The Statements after the Lock start once it has been granted, so they see the Subscriptions committed
+     *           by the Transaction that held it before. A Statement that waits for the Lock itself would still
+     *           evaluate its Conditions against the Subscriptions from before the Wait.
+     * @param deckIds The IDs of the Decks (must not be empty).
+     * @return One Row per existing Deck.
+     */
+    @Query(value = "select 1 from deck where deck_id in (:deckIds) for update", nativeQuery = true)
+    List<Number> lockDecks(@Param("deckIds") Collection<UUID> deckIds);
+
+    /**
+     * Increments the Subscriber-Counters of the Decks that {@link #subscribeAll(UUID, Collection)} subscribes to.
+     *
+     * @implNote This must be executed right before {@link #subscribeAll(UUID, Collection)} in the same Transaction,
+     *           after the Decks have been locked with {@link #lockDecks(Collection)}, so both Statements see the
+     *           same Subscriptions.
+     * @param personId The ID of the Person.
+     * @param deckIds The IDs of the Decks (must not be empty).
+     * @return The number of incremented Counters.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = SecondLevelCacheConfig.DECK_COUNTER_SPACE))
+    @Query(value = """
+            update deck set subscriber_count = subscriber_count + 1
+            where deck_id in (:deckIds)
+            and is_published = true and is_blocked = false and is_deleted = false
+            and exists (select 1 from person p where p.person_id = :personId)
+            and not exists (
+                select 1 from person_saved_deck s where s.person_id = :personId and s.deck_id = deck.deck_id
+            )""", nativeQuery = true)
+    int incrementSubscriberCounts(@Param("personId") UUID personId, @Param("deckIds") Collection<UUID> deckIds);
+
+    /**
+     * Subscribes the given Person to all given Decks that are available for subscription (published, neither
+     * blocked nor deleted) and not subscribed yet with a single Statement.
+     *
+     * @param personId The ID of the Person.
+     * @param deckIds The IDs of the Decks (must not be empty).
+     * @return The number of new Subscriptions.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "person_saved_deck"))
+    @Query(value = """
+            insert into person_saved_deck (deck_id, person_id)
+            select d.deck_id, p.person_id from deck d join person p on p.person_id = :personId
+            where d.deck_id in (:deckIds)
+            and d.is_published = true and d.is_blocked = false and d.is_deleted = false
+            and not exists (
+                select 1 from person_saved_deck s where s.person_id = p.person_id and s.deck_id = d.deck_id
+            )""", nativeQuery = true)
+    int subscribeAll(@Param("personId") UUID personId, @Param("deckIds") Collection<UUID> deckIds);
+
+    /**
+     * Decrements the Subscriber-Counters of the Decks that {@link #unsubscribeAll(UUID, Collection)} unsubscribes from.
+     *
+     * @implNote This must be executed right before {@link #unsubscribeAll(UUID, Collection)} in the same Transaction
+     *           (see {@link #incrementSubscriberCounts(UUID, Collection)}).
+     * @param personId The ID of the Person.
+     * @param deckIds The IDs of the Decks (must not be empty).
+     * @return The number of decremented Counters.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = SecondLevelCacheConfig.DECK_COUNTER_SPACE))
+    @Query(value = """
+            update deck set subscriber_count = subscriber_count - 1
+            where deck_id in (:deckIds)
+            and exists (
+                select 1 from person_saved_deck s where s.person_id = :personId and s.deck_id = deck.deck_id
+            )""", nativeQuery = true)
+    int decrementSubscriberCounts(@Param("personId") UUID personId, @Param("deckIds") Collection<UUID> deckIds);
+
+    /**
+     * Removes the Subscriptions of the given Person to the given Decks with a single Statement.
+     *
+     * @param personId The ID of the Person.
+     * @param deckIds The IDs of the Decks (must not be empty).
+     * @return The number of removed Subscriptions.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "person_saved_deck"))
+    @Query(value = "delete from person_saved_deck where person_id = :personId and deck_id in (:deckIds)",
+            nativeQuery = true)
+    int unsubscribeAll(@Param("personId") UUID personId, @Param("deckIds") Collection<UUID> deckIds);
+}
@@ -0,0 +1,24 @@
+package at.ac.uibk.swa.repositories;
+
+import at.ac.uibk.swa.models.TokenRevocation;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface TokenRevocationRepository extends CrudRepository<TokenRevocation, UUID> {
+    @Override
+    List<TokenRevocation> findAll();
+
+    List<TokenRevocation> findAllByRevokedAtAfter(LocalDateTime revokedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocation r where r.revokedAt < :revokedAt")
+    int deleteAllRevokedBefore(@Param("revokedAt") LocalDateTime revokedAt);
+}
@@ -3,13 +3,14 @@ package at.ac.uibk.swa.service;
 import at.ac.uibk.swa.models.Deck;
 import at.ac.uibk.swa.repositories.DeckRepository;
 import at.ac.uibk.swa.repositories.PersonRepository;
+import at.ac.uibk.swa.service.deck_service.DeckPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.function.Predicate;
 
 @Service("adminDeckService")
 public class AdminDeckService {
@@ -17,6 +18,8 @@ public class AdminDeckService {
     DeckRepository deckRepository;
     @Autowired
     PersonRepository personRepository;
+    @Autowired
+    MailService mailService;
 
     /**
      * Finds a deck within the repository by its id
@@ -30,15 +33,17 @@ public class AdminDeckService {
     }
 
     /**
-     * Finds all decks within the repository, except deleted decks
+     * Finds a page of all decks within the repository, except deleted decks
      * NOTE: Only call this method within admin API routes
      *
-     * @return list of all found decks
+     * @param cursor cursor of the previous page (null for the first page)
+     * @param limit maximum number of decks on the page (capped to {@link DeckPage#MAX_PAGE_SIZE})
+     * @return page of found decks
      */
-    public List<Deck> findAll() {
-        return deckRepository.findAll().stream()
-                .filter(Predicate.not(Deck::isDeleted))
-                .toList();
+    public DeckPage findAll(UUID cursor, Integer limit) {
+        int pageSize = DeckPage.pageSize(limit);
+        List<Deck> decks = deckRepository.findNotDeletedAfter(DeckPage.after(cursor), DeckPage.request(pageSize));
+        return DeckPage.of(decks, pageSize);
     }
 
     /**
@@ -56,13 +61,15 @@ public class AdminDeckService {
     }
 
     /**
-     * Blocks a deck in the repository
+     * Blocks a deck in the repository and notifies its subscribers
      * Already blocked deck cannot be blocked again
+     * The notification is queued in the same transaction, so it is sent if and only if the deck has been blocked
      * NOTE: Only call this method within admin API routes
      *
      * @param deckId if of the deck to be blocked
      * @return true if deck has been blocked, false otherwise
      */
+    @Transactional
     public boolean block(UUID deckId) {
         Optional<Deck> maybeDeck = findById(deckId);
         if (maybeDeck.isPresent()) {
@@ -70,7 +77,9 @@ public class AdminDeckService {
             if (deck != null && deck.getDeckId() != null) {
                 if (deck.isBlocked()) return false;
                 deck.setBlocked(true);
-                return save(deck) != null;
+                if (save(deck) == null) return false;
+                mailService.notifyBlockedDeck(deck);
+                return true;
             } else {
                 return false;
             }
@@ -80,13 +89,15 @@ public class AdminDeckService {
     }
 
     /**
-     * Unblocks a deck in the repository
+     * Unblocks a deck in the repository and notifies its subscribers
      * Already unblocked deck cannot be unblocked again
+     * The notification is queued in the same transaction (see {@link #block(UUID)})
      * NOTE: Only call this method within admin API routes
      *
      * @param deckId id of the deck to unblock
      * @return true if deck has been unblocked, false otherwise
      */
+    @Transactional
     public boolean unblock(UUID deckId) {
         Optional<Deck> maybeDeck = findById(deckId);
         if (maybeDeck.isPresent()) {
@@ -94,7 +105,9 @@ public class AdminDeckService {
             if (deck != null && deck.getDeckId() != null) {
                 if (!deck.isBlocked()) return false;
                 deck.setBlocked(false);
-                return save(deck) != null;
+                if (save(deck) == null) return false;
+                mailService.notifyUnblockedDeck(deck);
+                return true;
             } else {
                 return false;
             }
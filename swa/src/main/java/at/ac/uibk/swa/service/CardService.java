@@ -1,29 +1,58 @@
 package at.ac.uibk.swa.service;
 
+import at.ac.uibk.swa.config.SecondLevelCacheEvictor;
 import at.ac.uibk.swa.config.jwt_authentication.AuthContext;
 import at.ac.uibk.swa.models.*;
+import at.ac.uibk.swa.models.annotations.Metered;
+import at.ac.uibk.swa.models.annotations.RetryOnConflict;
 import at.ac.uibk.swa.repositories.CardRepository;
 import at.ac.uibk.swa.repositories.DeckRepository;
 import at.ac.uibk.swa.repositories.LearningProgressRepository;
+import at.ac.uibk.swa.repositories.ReviewLogRepository;
+import at.ac.uibk.swa.repositories.SubscriptionRepository;
+import at.ac.uibk.swa.service.card_service.LearningProgressBuffer;
+import at.ac.uibk.swa.service.card_service.LearningProgressWriter;
+import at.ac.uibk.swa.service.card_service.LearningProgressWriter.NewLearningProgress;
+import at.ac.uibk.swa.service.card_service.Review;
+import at.ac.uibk.swa.service.card_service.ReviewResult;
 import at.ac.uibk.swa.service.card_service.learning_algorithm.LearningAlgorithm;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Service("cardService")
 public class CardService {
     @Autowired
     private CardRepository cardRepository;
     @Autowired
-    private UserDeckService userDeckService;
+    private PersonService personService;
     @Autowired
     private DeckRepository deckRepository;
     @Autowired
     private LearningProgressRepository learningProgressRepository;
+    @Autowired
+    private ReviewLogRepository reviewLogRepository;
+    @Autowired
+    private LearningProgressBuffer learningProgressBuffer;
+    @Autowired
+    private LearningProgressWriter learningProgressWriter;
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private SecondLevelCacheEvictor secondLevelCacheEvictor;
 
     /**
      * Gets all existing cards for a specific deck and the currently logged in user
@@ -36,19 +65,13 @@ public class CardService {
      * @return a list of all the cards in the given deck the specific user can access or nothing if deck does not exist
      */
     public Optional<List<Card>> getAllCards(UUID deckId) {
-        Optional<Deck> maybeDeck = userDeckService.findById(deckId);
+        Optional<Deck> maybeDeck = deckRepository.findWithCardsById(deckId);
         if (maybeDeck.isPresent()) {
             Deck deck = maybeDeck.get();
-            if (deck.isDeleted() ||
-                    (deck.isBlocked() &&
-                            AuthContext.missingPermission(Permission.ADMIN) &&
-                            !deck.getCreator().equals(AuthContext.getCurrentPerson().orElse(null))
-                    ) ||
-                    (!deck.isPublished() &&
-                            AuthContext.missingPermission(Permission.ADMIN) &&
-                            !deck.getCreator().equals(AuthContext.getCurrentPerson().orElse(null))
-                    )
-            ) {
+            boolean isCreator = AuthContext.getCurrentPersonId()
+                    .map(personId -> personId.equals(deck.getCreator().getPersonId()))
+                    .orElse(false);
+            if (!canReadCards(deck.isDeleted(), deck.isBlocked(), deck.isPublished(), isCreator)) {
                 return Optional.of(new ArrayList<>());
             } else {
                 return Optional.of(deck.getCards());
@@ -58,6 +81,28 @@ public class CardService {
         }
     }
 
+    /**
+     * Checks whether the currently logged in user may read the cards of a deck with the given state
+     *  - !isPublished: only ADMIN and creator may read cards
+     *  - isBlocked:    only ADMIN and creator may read cards
+     *  - isDeleted:    no one may read cards
+     *
+     * @param isDeleted whether the deck is deleted
+     * @param isBlocked whether the deck is blocked
+     * @param isPublished whether the deck is published
+     * @param isCreator whether the logged in user created the deck
+     * @return true if the cards may be read, false otherwise
+     */
+    static boolean canReadCards(boolean isDeleted, boolean isBlocked, boolean isPublished, boolean isCreator) {
+        if (isDeleted) {
+            return false;
+        }
+        if ((isBlocked || !isPublished) && !isCreator) {
+            return !AuthContext.missingPermission(Permission.ADMIN);
+        }
+        return true;
+    }
+
     /**
      * Gets all cards that should be learnt from a specific deck from the repository for the logged in user
      * User must have subscribed to deck
@@ -66,46 +111,106 @@ public class CardService {
      * @return A List of cards that are supposed to be learned or nothing if either user does not exist or user has
      * not subscribed to deck
      */
+    @Metered("swa.card.cards-to-learn")
     public Optional<List<Card>> getAllCardsToLearn(UUID deckId) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
+        return getCardsToLearn(deckId, Pageable.unpaged());
+    }
+
+    /**
+     * Gets the cards that should be learnt next from a specific deck for the logged in user
+     * User must have subscribed to deck
+     *
+     * @param deckId The ID of the Deck from which to get the cards to learn.
+     * @param limit The maximum number of cards to return.
+     * @return A List of at most limit cards that are supposed to be learned or nothing if either user does not exist
+     * or user has not subscribed to deck
+     */
+    @Metered("swa.card.cards-to-learn")
+    public Optional<List<Card>> getCardsToLearn(UUID deckId, int limit) {
+        return getCardsToLearn(deckId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Gets the cards that should be learnt from a specific deck for the logged in user.
+     * The filtering, ordering and limiting of the cards is done by the database, so only the due cards are loaded.
+     * Learning progresses that are still buffered are applied on top of them (without writing them first).
+     *
+     * @param deckId The ID of the Deck from which to get the cards to learn.
+     * @param pageable The number of cards to return.
+     * @return A List of cards that are supposed to be learned or nothing if either user does not exist or user has
+     * not subscribed to deck
+     */
+    private Optional<List<Card>> getCardsToLearn(UUID deckId, Pageable pageable) {
+        Optional<UUID> maybePersonId = AuthContext.getCurrentPersonId();
         // nobody logged in
-        if (maybePerson.isEmpty()) {
+        if (maybePersonId.isEmpty()) {
             return Optional.empty();
         }
-        Person person = maybePerson.get();
+        UUID personId = maybePersonId.get();
+
+        Map<UUID, LearningProgress> bufferedLearningProgresses = learningProgressBuffer.getAll(personId);
+        if (bufferedLearningProgresses.isEmpty()) {
+            return findCardsToLearn(deckId, personId, pageable);
+        }
 
+        // every buffered card might no longer be due, so that many more cards are loaded
+        Pageable extendedPageable = pageable.isUnpaged() ? pageable : PageRequest.of(0,
+                (int) pageable.getOffset() + pageable.getPageSize() + bufferedLearningProgresses.size());
+        LocalDateTime now = LocalDateTime.now();
+        return findCardsToLearn(deckId, personId, extendedPageable).map(dueCards -> {
+            List<Card> cardsToLearn = new ArrayList<>(dueCards.stream()
+                    .filter(card -> !bufferedLearningProgresses.containsKey(card.getCardId()))
+                    .toList());
+            // buffered cards that are still due have been learnt most recently, so they come last
+            dueCards.stream()
+                    .filter(card -> bufferedLearningProgresses.containsKey(card.getCardId()))
+                    .filter(card -> !bufferedLearningProgresses.get(card.getCardId()).getNextLearn().isAfter(now))
+                    .sorted(Comparator.comparing(card -> bufferedLearningProgresses.get(card.getCardId()).getNextLearn()))
+                    .forEach(cardsToLearn::add);
+            if (pageable.isUnpaged()) {
+                return cardsToLearn;
+            }
+            int fromIndex = (int) Math.min(pageable.getOffset(), cardsToLearn.size());
+            int toIndex = Math.min(fromIndex + pageable.getPageSize(), cardsToLearn.size());
+            return new ArrayList<>(cardsToLearn.subList(fromIndex, toIndex));
+        });
+    }
+
+    /**
+     * Loads the cards that should be learnt from a specific deck for the given person from the database.
+     *
+     * @param deckId The ID of the Deck from which to get the cards to learn.
+     * @param personId The ID of the Person that wants to learn.
+     * @param pageable The number of cards to return.
+     * @return A List of cards that are supposed to be learned or nothing if the person has not subscribed to deck
+     */
+    private Optional<List<Card>> findCardsToLearn(UUID deckId, UUID personId, Pageable pageable) {
         // logged in person does not have requested deck in saved decks
-        if (person.getSavedDecks().stream().noneMatch(d -> d.getDeckId().equals(deckId))) {
+        if (!subscriptionRepository.isSubscribed(deckId, personId)) {
             return Optional.empty();
         }
 
-        return getAllCards(deckId).map(cards -> cards.stream()
-                .filter(c -> {
-                    // cards that have already been learnt and are due for learning now
-                    if (c.getLearningProgress(person).isPresent()) {
-                        return c.getLearningProgress(person).get().getNextLearn().isBefore(LocalDateTime.now());
-                    }
-                    // cards that have never been learnt
-                    else {
-                        return true;
-                    }
-                })
-                .sorted(
-                        // order cards from oldest nextLearnDate to newest
-                        Comparator.comparing(c -> {
-                            if (c.getLearningProgress(person).isPresent()) {
-                                return c.getLearningProgress(person).get().getNextLearn();
-                            }
-                            // cards without learningProgress (= never learnt) are assumed to be due right now
-                            else {
-                                return LocalDateTime.now();
-                            }
-                        })
-                )
-                .toList()
-        )
-        // return an empty list if no cards are found
-        .or(() -> Optional.of(new ArrayList<>()));
+        // return an empty list if the deck does not exist or its cards cannot be read
+        if (!canReadCards(deckId, personId)) {
+            return Optional.of(new ArrayList<>());
+        }
+
+        // cards that have never been learnt come first, then the ones with the oldest nextLearnDate
+        return Optional.of(cardRepository.findDueCards(deckId, personId, LocalDateTime.now(), pageable));
+    }
+
+    /**
+     * Checks whether the given person may read the cards of a specific deck (without loading the deck).
+     *
+     * @param deckId The ID of the Deck.
+     * @param personId The ID of the Person.
+     * @return true if the deck exists and its cards can be read by the person, false otherwise
+     */
+    private boolean canReadCards(UUID deckId, UUID personId) {
+        return deckRepository.findAccessById(deckId)
+                .map(access -> canReadCards(access.isDeleted(), access.isBlocked(), access.isPublished(),
+                        access.getCreatorId().equals(personId)))
+                .orElse(false);
     }
 
     /**
@@ -124,57 +229,271 @@ public class CardService {
      * @param cardId The ID of the card to get the Learning Progress from.
      * @return The Learning Progress associated with the giv
      */
+    @Transactional
     public Optional<LearningProgress> getLearningProgress(UUID cardId) {
         Optional<Card> maybeCard = cardRepository.findById(cardId);
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
+        Optional<Person> maybePerson = personService.getCurrentPerson();
         if (maybeCard.isPresent() && maybePerson.isPresent()) {
             Person person = maybePerson.get();
-            return maybeCard.get().getLearningProgress(person);
+            // learning progresses that are still buffered are newer than the ones in the database
+            return learningProgressBuffer.get(person.getPersonId(), cardId)
+                    .or(() -> cardRepository.findLearningProgress(cardId, person.getPersonId()));
         } else {
             return Optional.empty();
         }
     }
 
+    /**
+     * A card that is due for learning together with the current learning progress of the learning person.
+     *
+     * @param card The due card.
+     * @param learningProgress The current learning progress (buffered or managed) or nothing if it was never learnt.
+     */
+    private record DueCard(Card card, Optional<LearningProgress> learningProgress) { }
+
     /**
      * Give feedback on the learning of a specific card for the currently logged-in user.
      * User must have card due for learning
+     * If the write-behind buffer is enabled, the new learning progress is only buffered and written later.
      *
+     * @implNote The buffer might have to wait for space, so the card is only checked within a (read-only)
+     *           transaction and the new learning progress is buffered after it has ended.
      * @param cardId The ID of the card to learn.
      * @param difficulty The difficulty that the user gave.
      * @return true if the card was learnt, false otherwise.
      */
+    @RetryOnConflict
+    @Metered("swa.card.learn")
     public boolean learn(UUID cardId, int difficulty) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
-        if (maybePerson.isPresent()) {
-            Person person = maybePerson.get();
-            Optional<Card> maybeCard = findById(cardId);
-            if (maybeCard.isPresent()) {
-                Card card = maybeCard.get();
-                Optional<List<Card>> maybeCardsToLearn = getAllCardsToLearn(card.getDeck().getDeckId());
-                if (maybeCardsToLearn.isPresent() && maybeCardsToLearn.get().contains(card)) {
-                    LearningProgress newLearningProgress = card.updateLearningProgress(
-                            person,
-                            learningProgress -> LearningAlgorithm.getUpdatedLearningProgress(learningProgress , difficulty)
-                    );
-                    try {
-                        learningProgressRepository.save(newLearningProgress);
-                        return save(card) != null;
-                    } catch (Exception e) {
-                        // learning progress not saved
-                        return false;
-                    }
-                } else {
-                    // card not due for learning
-                    return false;
-                }
-            } else {
-                // card does not exist
+        Optional<Person> maybePerson = personService.getCurrentPerson();
+        if (maybePerson.isEmpty()) {
+            // user not logged in
+            return false;
+        }
+        Person person = maybePerson.get();
+        LocalDateTime reviewedAt = LocalDateTime.now();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        if (learningProgressBuffer.isEnabled()) {
+            transactionTemplate.setReadOnly(true);
+            Optional<DueCard> maybeDueCard = transactionTemplate.execute(status -> findDueCard(person, cardId, reviewedAt));
+            if (maybeDueCard == null || maybeDueCard.isEmpty()) {
+                // card does not exist or is not due for learning
                 return false;
             }
+            // only buffer the new learning progress, it will be written by the next flush
+            DueCard dueCard = maybeDueCard.get();
+            LearningProgress newLearningProgress = LearningAlgorithm.getUpdatedLearningProgress(
+                    dueCard.learningProgress().orElseGet(LearningProgress::new),
+                    difficulty,
+                    reviewedAt
+            );
+            ReviewLog reviewLog = ReviewLog.of(person, dueCard.card(), difficulty, reviewedAt, newLearningProgress);
+            return learningProgressBuffer.offer(person, dueCard.card(), newLearningProgress, reviewLog);
+        }
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Optional<DueCard> maybeDueCard = findDueCard(person, cardId, reviewedAt);
+            // failures roll the transaction back, conflicts (e.g. the card was learnt concurrently) are retried
+            maybeDueCard.ifPresent(dueCard -> saveReview(person, dueCard, difficulty, reviewedAt));
+            return maybeDueCard.isPresent();
+        }));
+    }
+
+    /**
+     * Checks whether a card is due for learning for the given person.
+     * Only the learning progress of this person is loaded (buffered ones are newer than the ones in the database).
+     *
+     * @param person The learning person.
+     * @param cardId The ID of the card to learn.
+     * @param reviewedAt The time of the review.
+     * @return The due card or nothing if it does not exist, cannot be learnt by the person or is not due.
+     */
+    private Optional<DueCard> findDueCard(Person person, UUID cardId, LocalDateTime reviewedAt) {
+        UUID personId = person.getPersonId();
+        Optional<Card> maybeCard = findById(cardId);
+        if (maybeCard.isEmpty()) {
+            // card does not exist
+            return Optional.empty();
+        }
+        Card card = maybeCard.get();
+        UUID deckId = card.getDeck().getDeckId();
+        if (!subscriptionRepository.isSubscribed(deckId, personId) || !canReadCards(deckId, personId)) {
+            // deck not subscribed or its cards cannot be read
+            return Optional.empty();
+        }
+
+        Optional<LearningProgress> learningProgress = learningProgressBuffer.get(personId, cardId)
+                .or(() -> cardRepository.findLearningProgress(cardId, personId));
+        if (learningProgress.map(lp -> lp.getNextLearn().isAfter(reviewedAt)).orElse(false)) {
+            // card not due for learning
+            return Optional.empty();
+        }
+        return Optional.of(new DueCard(card, learningProgress));
+    }
+
+    /**
+     * Saves the review of a due card and the resulting learning progress.
+     * Must be called within the transaction in which the card was found to be due.
+     *
+     * @param person The learning person.
+     * @param dueCard The due card with the managed learning progress of the person.
+     * @param difficulty The difficulty that the user gave.
+     * @param reviewedAt The time of the review.
+     */
+    private void saveReview(Person person, DueCard dueCard, int difficulty, LocalDateTime reviewedAt) {
+        Card card = dueCard.card();
+        LearningProgress newLearningProgress;
+        if (dueCard.learningProgress().isPresent()) {
+            // an existing learning progress is updated in place, so the card does not change
+            newLearningProgress = dueCard.learningProgress().get();
+            newLearningProgress.update(LearningAlgorithm.getUpdatedLearningProgress(newLearningProgress, difficulty, reviewedAt));
+            learningProgressWriter.saveAll(List.of(newLearningProgress), List.of());
         } else {
+            // the first review links a new learning progress to the card
+            newLearningProgress = LearningAlgorithm.getUpdatedLearningProgress(new LearningProgress(), difficulty, reviewedAt);
+            learningProgressWriter.saveAll(List.of(), List.of(
+                    new NewLearningProgress(card, person.getPersonId(), newLearningProgress)
+            ));
+        }
+        reviewLogRepository.save(ReviewLog.of(person, card, difficulty, reviewedAt, newLearningProgress));
+    }
+
+    /**
+     * Give feedback on the learning of multiple cards for the currently logged-in user (e.g. reviews made offline).
+     * The reviews are applied in the given order and validated against one snapshot of the due cards per deck,
+     * which is updated as the reviews are applied (so a card that was learnt well cannot be learnt twice).
+     * Every review is recorded in the review log and all resulting Learning Progresses are saved within one
+     * transaction.
+     *
+     * @param reviews The reviews to apply.
+     * @return The result of every review (in the given order) or nothing if no user is logged in or no reviews are given.
+     */
+    @Transactional
+    @RetryOnConflict
+    public Optional<List<ReviewResult>> learnAll(List<Review> reviews) {
+        Optional<Person> maybePerson = personService.getCurrentPerson();
+        if (maybePerson.isEmpty() || reviews == null) {
             // user not logged in
-            return false;
+            return Optional.empty();
+        }
+        Person person = maybePerson.get();
+        LocalDateTime now = LocalDateTime.now();
+        learningProgressBuffer.flush(person.getPersonId());
+
+        Set<UUID> cardIds = reviews.stream()
+                .filter(Objects::nonNull)
+                .map(Review::cardId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Card> cards = new HashMap<>();
+        cardRepository.findAllById(cardIds).forEach(card -> cards.put(card.getCardId(), card));
+
+        // one snapshot of the due cards for every deck that is part of the batch
+        Map<UUID, Set<UUID>> dueCardIds = new HashMap<>();
+        for (Card card : cards.values()) {
+            dueCardIds.computeIfAbsent(card.getDeck().getDeckId(), deckId -> getAllCardsToLearn(deckId)
+                    .map(dueCards -> dueCards.stream().map(Card::getCardId).collect(Collectors.toSet()))
+                    .orElseGet(HashSet::new)
+            );
+        }
+
+        List<ReviewResult> results = new ArrayList<>(reviews.size());
+        // the current learning progress of every reviewed card (reviews of the same card are applied on top)
+        Map<UUID, LearningProgress> learningProgresses = new HashMap<>();
+        List<LearningProgress> updated = new ArrayList<>();
+        List<NewLearningProgress> created = new ArrayList<>();
+        List<ReviewLog> reviewLogs = new ArrayList<>();
+        for (Review review : reviews) {
+            Card card = review == null ? null : cards.get(review.cardId());
+            if (card == null) {
+                results.add(ReviewResult.notLearned(review, "Card not found"));
+                continue;
+            }
+            Set<UUID> due = dueCardIds.get(card.getDeck().getDeckId());
+            if (!due.contains(card.getCardId())) {
+                results.add(ReviewResult.notLearned(review, "Card not due for learning"));
+                continue;
+            }
+            LocalDateTime reviewedAt = Optional.ofNullable(review.reviewedAt()).orElse(now);
+            if (reviewedAt.isAfter(now)) {
+                results.add(ReviewResult.notLearned(review, "Review lies in the future"));
+                continue;
+            }
+
+            // only the learning progress of this person is loaded, not the whole mapping of the card
+            LearningProgress newLearningProgress = learningProgresses.computeIfAbsent(card.getCardId(), cardId -> {
+                Optional<LearningProgress> current = cardRepository.findLearningProgress(cardId, person.getPersonId());
+                if (current.isPresent()) {
+                    updated.add(current.get());
+                    return current.get();
+                }
+                // a card that was never learnt is due since the start of the batch
+                LearningProgress learningProgress = new LearningProgress();
+                learningProgress.setNextLearn(now);
+                created.add(new NewLearningProgress(card, person.getPersonId(), learningProgress));
+                return learningProgress;
+            });
+            newLearningProgress.update(
+                    LearningAlgorithm.getUpdatedLearningProgress(newLearningProgress, review.grade(), reviewedAt)
+            );
+            reviewLogs.add(ReviewLog.of(person, card, review.grade(), reviewedAt, newLearningProgress));
+            // a card that was learnt well is not due anymore, so it cannot be learnt again within the same batch
+            if (newLearningProgress.getNextLearn().isAfter(now)) {
+                due.remove(card.getCardId());
+            }
+            results.add(ReviewResult.learned(review));
+        }
+
+        if (learningProgresses.isEmpty()) {
+            return Optional.of(results);
         }
+        // failures roll the transaction back, conflicts (e.g. a card was learnt concurrently) are retried
+        reviewLogRepository.saveAll(reviewLogs);
+        learningProgressWriter.saveAll(updated, created);
+        return Optional.of(results);
+    }
+
+    /**
+     * Rebuilds the Learning Progress of the currently logged-in user for a specific card by replaying all of its
+     * reviews from the review log (e.g. after the learning algorithm has changed).
+     *
+     * @param cardId The ID of the card whose learning progress should be rebuilt.
+     * @return The rebuilt learning progress or nothing if no user is logged in, the card does not exist or the card
+     * has never been learnt.
+     */
+    @Transactional
+    public Optional<LearningProgress> rebuildLearningProgress(UUID cardId) {
+        Optional<Person> maybePerson = personService.getCurrentPerson();
+        maybePerson.ifPresent(person -> learningProgressBuffer.flush(person.getPersonId()));
+        Optional<Card> maybeCard = findById(cardId);
+        if (maybePerson.isEmpty() || maybeCard.isEmpty()) {
+            // user not logged in or card does not exist
+            return Optional.empty();
+        }
+        Person person = maybePerson.get();
+        Card card = maybeCard.get();
+
+        List<ReviewLog> reviewLogs = reviewLogRepository.findAllByCardAndPerson(cardId, person.getPersonId());
+        if (reviewLogs.isEmpty()) {
+            // card has never been learnt
+            return Optional.empty();
+        }
+
+        LearningProgress replayed = new LearningProgress();
+        for (ReviewLog reviewLog : reviewLogs) {
+            replayed = LearningAlgorithm.getUpdatedLearningProgress(replayed, reviewLog.getGrade(), reviewLog.getReviewedAt());
+        }
+
+        boolean isFirstReview = card.getLearningProgress(person).isEmpty();
+        LearningProgress rebuilt = replayed;
+        LearningProgress learningProgress = card.updateLearningProgress(person, current -> rebuilt);
+        // failures roll the transaction back instead of leaving it rollback-only
+        learningProgress = learningProgressRepository.save(learningProgress);
+        if (isFirstReview) {
+            cardRepository.save(card);
+        }
+        return Optional.of(learningProgress);
     }
 
     /**
@@ -191,7 +510,16 @@ public class CardService {
             Deck deck = getDeckIfWriteAccess(deckId).orElse(null);
             if (deck != null) {
                 card.setDeck(deck);
-                return save(card) != null;
+                if (save(card) == null) {
+                    return false;
+                }
+                if (deckRepository.addCards(deck.getDeckId(), 1) != 1) {
+                    // the card must not be created without being counted
+                    TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                    return false;
+                }
+                secondLevelCacheEvictor.evictDecks(List.of(deck.getDeckId()));
+                return true;
             } else {
                 // logged-in user has not created the given deck or deck is blocked/deleted - therefore no write access
                 return false;
@@ -211,6 +539,9 @@ public class CardService {
     private Card save(Card card) {
         try {
             return cardRepository.save(card);
+        } catch (OptimisticLockingFailureException e) {
+            // conflicts are retried by the caller
+            throw e;
         } catch (Exception e) {
             return null;
         }
@@ -226,6 +557,8 @@ public class CardService {
      * @param isFlipped card flipped or not flipped
      * @return true if card has been updated, false otherwise
      */
+    @Transactional
+    @RetryOnConflict
     public boolean update(UUID cardId, String frontText, String backText, boolean isFlipped) {
         Optional<Card> maybeCard = findById(cardId);
         if (maybeCard.isPresent()) {
@@ -252,20 +585,26 @@ public class CardService {
      * @param cardId id of the card to be deleted
      * @return true if card has been updated, false otherwise
      */
+    @Transactional
     public boolean delete(UUID cardId) {
         Optional<Card> maybeCard = findById(cardId);
         if (maybeCard.isPresent()) {
             Card card = maybeCard.get();
             Deck deck = getDeckIfWriteAccess(card.getDeck().getDeckId()).orElse(null);
             if (deck != null) {
-                deck.getCards().remove(card);
-                try {
-                    deckRepository.save(deck);
-                    cardRepository.delete(card);
-                    return true;
-                } catch (Exception e) {
-                    return false;
+                // the card is deleted directly, so neither the cards of the deck nor the learning progresses of
+                // all persons that have learnt the card are loaded
+                List<UUID> cardIds = List.of(card.getCardId());
+                List<UUID> learningProgressIds = cardRepository.findLearningProgressIds(cardIds);
+                cardRepository.deleteLearningProgressLinks(cardIds);
+                if (!learningProgressIds.isEmpty()) {
+                    learningProgressRepository.deleteAllByLearningProgressIdIn(learningProgressIds);
                 }
+                cardRepository.deleteAllByCardIdIn(cardIds);
+                // failures roll the transaction back instead of leaving it rollback-only
+                deckRepository.addCards(deck.getDeckId(), -1);
+                secondLevelCacheEvictor.evictDecks(List.of(deck.getDeckId()));
+                return true;
             } else {
                 // no write access to given deck
                 return false;
@@ -283,14 +622,13 @@ public class CardService {
      * @return the deck if write access, otherwise nothing
      */
     private Optional<Deck> getDeckIfWriteAccess(UUID deckId) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
+        Optional<Person> maybePerson = personService.getCurrentPerson();
         if (maybePerson.isPresent()) {
             Person person = maybePerson.get();
-            return person.getCreatedDecks().stream()
+            return deckRepository.findById(deckId)
                     .filter(Predicate.not(Deck::isDeleted))
                     .filter(Predicate.not(Deck::isBlocked))
-                    .filter(d -> d.getDeckId().equals(deckId))
-                    .findFirst();
+                    .filter(d -> d.isCreator(person));
         } else {
             // no user authenticated
             return Optional.empty();
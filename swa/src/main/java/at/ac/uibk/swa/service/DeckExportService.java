@@ -0,0 +1,176 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.config.jwt_authentication.AuthContext;
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.LearningProgress;
+import at.ac.uibk.swa.repositories.CardRepository;
+import at.ac.uibk.swa.repositories.DeckRepository;
+import at.ac.uibk.swa.service.card_service.LearningProgressBuffer;
+import at.ac.uibk.swa.service.deck_service.ExportFormat;
+import at.ac.uibk.swa.service.deck_service.ExportedCard;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Exports the Cards of a Deck (and optionally the Learning Progresses of the logged in user) as a Stream.
+ * The Cards are read with a forward-only Cursor and written directly to the Output, so neither the Cards nor the
+ * exported Document are ever kept in Memory completely.
+ */
+@Service("deckExportService")
+public class DeckExportService {
+
+    private static final String CSV_HEADER = "front,back,flipped";
+    private static final String CSV_PROGRESS_HEADER = ",interval,e_factor,repetitions,next_learn";
+
+    /**
+     * An Export that has been checked and can be written.
+     *
+     * @param deckId The ID of the Deck to export.
+     * @param deckName The Name of the Deck (e.g. for the File-Name).
+     * @param personId The ID of the Person whose Learning Progresses are exported (null if they are not exported).
+     */
+    public record DeckExport(UUID deckId, String deckName, UUID personId) {
+    }
+
+    private final DeckRepository deckRepository;
+    private final CardRepository cardRepository;
+    private final LearningProgressBuffer learningProgressBuffer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public DeckExportService(
+            DeckRepository deckRepository,
+            CardRepository cardRepository,
+            LearningProgressBuffer learningProgressBuffer,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.deckRepository = deckRepository;
+        this.cardRepository = cardRepository;
+        this.learningProgressBuffer = learningProgressBuffer;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Checks whether the logged in user may export the cards of the given deck
+     * The same rules as for reading the cards of a deck apply
+     *
+     * @param deckId                  id of the deck to export
+     * @param withLearningProgresses  true if the learning progresses of the logged in user should be exported as well
+     * @return the export if the cards may be read, otherwise nothing
+     */
+    public Optional<DeckExport> prepareExport(UUID deckId, boolean withLearningProgresses) {
+        Optional<UUID> maybePersonId = AuthContext.getCurrentPersonId();
+        if (deckId == null || (withLearningProgresses && maybePersonId.isEmpty())) {
+            return Optional.empty();
+        }
+        Optional<Deck> maybeDeck = deckRepository.findById(deckId);
+        if (maybeDeck.isEmpty()) {
+            return Optional.empty();
+        }
+        Deck deck = maybeDeck.get();
+        boolean isCreator = maybePersonId.map(personId -> personId.equals(deck.getCreator().getPersonId())).orElse(false);
+        if (!CardService.canReadCards(deck.isDeleted(), deck.isBlocked(), deck.isPublished(), isCreator)) {
+            return Optional.empty();
+        }
+
+        UUID personId = null;
+        if (withLearningProgresses) {
+            personId = maybePersonId.get();
+        }
+        return Optional.of(new DeckExport(deck.getDeckId(), deck.getName(), personId));
+    }
+
+    /**
+     * Writes the cards of the given export
+     * This may be called outside the request (e.g. by a {@code StreamingResponseBody}), because the
+     * logged in user has already been checked by {@link #prepareExport(UUID, boolean)}
+     *
+     * @param export the export to write
+     * @param format the format to write the cards in
+     * @param output the stream to write to (it is not closed, but everything is flushed)
+     * @throws IOException if the cards cannot be written
+     */
+    public void write(DeckExport export, ExportFormat format, OutputStream output) throws IOException {
+        // the learning progresses are read from the database, so buffered ones are applied on top of them
+        Map<UUID, LearningProgress> bufferedLearningProgresses = export.personId() == null
+                ? Map.of()
+                : learningProgressBuffer.getAll(export.personId());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ExportedCard> cards = cardRepository.streamExportedCards(export.deckId(), export.personId())
+                        .map(card -> card.withLearningProgress(bufferedLearningProgresses.get(card.cardId())))) {
+                    switch (format) {
+                        case JSONL -> writeJsonLines(cards.iterator(), output);
+                        case CSV -> writeCsv(cards.iterator(), export.personId() != null, output);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeJsonLines(Iterator<ExportedCard> cards, OutputStream output) throws IOException {
+        // NOTE: The Generator only buffers a few Kilobytes before writing them to the Output.
+        JsonGenerator generator = objectMapper.createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        while (cards.hasNext()) {
+            generator.writeObject(cards.next());
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    private static void writeCsv(Iterator<ExportedCard> cards, boolean withLearningProgresses, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(withLearningProgresses ? CSV_HEADER + CSV_PROGRESS_HEADER : CSV_HEADER);
+        writer.write('\n');
+        while (cards.hasNext()) {
+            ExportedCard card = cards.next();
+            writer.write(csvField(card.frontText()));
+            writer.write(',');
+            writer.write(csvField(card.backText()));
+            writer.write(',');
+            writer.write(Boolean.toString(card.flipped()));
+            if (withLearningProgresses) {
+                writer.write(',');
+                writer.write(csvField(card.interval()));
+                writer.write(',');
+                writer.write(csvField(card.eFactor()));
+                writer.write(',');
+                writer.write(csvField(card.repetitions()));
+                writer.write(',');
+                writer.write(csvField(card.nextLearn()));
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String field = value.toString();
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,153 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.config.SecondLevelCacheEvictor;
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.CardRepository;
+import at.ac.uibk.swa.repositories.DeckRepository;
+import at.ac.uibk.swa.service.deck_service.CardFileReader;
+import at.ac.uibk.swa.service.deck_service.DeckImportResult;
+import at.ac.uibk.swa.service.deck_service.DeckImportResult.LineError;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Imports Cards from CSV- or TSV-Files into the Decks of the logged in user.
+ * The Files are read record by record and the Cards are written in fixed-size batches, after which the
+ * persistence context is cleared, so the memory needed does not depend on the size of the file.
+ */
+@Slf4j
+@Service("deckImportService")
+public class DeckImportService {
+    @Autowired
+    DeckRepository deckRepository;
+    @Autowired
+    CardRepository cardRepository;
+    @Autowired
+    PersonService personService;
+    @Autowired
+    UserDeckService userDeckService;
+    @Autowired
+    SecondLevelCacheEvictor secondLevelCacheEvictor;
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${swa.import.batch-size:500}")
+    int batchSize;
+    @Value("${swa.import.max-field-length:10000}")
+    int maxFieldLength;
+    @Value("${swa.import.max-reported-errors:100}")
+    int maxReportedErrors;
+
+    /**
+     * Imports the cards of the given file into a new deck owned by the logged in user
+     *
+     * @param deck      deck to be created (without cards)
+     * @param file      reader of the file
+     * @param delimiter delimiter of the fields of the file (see {@link CardFileReader#delimiterOf(String, String)})
+     * @return result of the import if the deck could be created, otherwise nothing
+     * @throws IOException if the file cannot be read (nothing is imported then)
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public Optional<DeckImportResult> importIntoNewDeck(Deck deck, Reader file, char delimiter) throws IOException {
+        if (deck == null || !userDeckService.create(deck)) {
+            return Optional.empty();
+        }
+        return Optional.of(importCards(deck.getDeckId(), file, delimiter));
+    }
+
+    /**
+     * Imports the cards of the given file into one of the owned decks of the logged in user
+     * Deleted and blocked decks cannot be imported into
+     *
+     * @param deckId    id of the deck to add the cards to
+     * @param file      reader of the file
+     * @param delimiter delimiter of the fields of the file (see {@link CardFileReader#delimiterOf(String, String)})
+     * @return result of the import if the deck could be found, otherwise nothing
+     * @throws IOException if the file cannot be read (nothing is imported then)
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public Optional<DeckImportResult> importIntoDeck(UUID deckId, Reader file, char delimiter) throws IOException {
+        Optional<Person> maybePerson = personService.getCurrentPerson();
+        if (maybePerson.isEmpty() || deckId == null) {
+            return Optional.empty();
+        }
+        Person person = maybePerson.get();
+        Optional<Deck> maybeDeck = deckRepository.findById(deckId)
+                .filter(d -> d.isCreator(person))
+                .filter(d -> !d.isBlocked() && !d.isDeleted());
+        if (maybeDeck.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(importCards(deckId, file, delimiter));
+    }
+
+    private DeckImportResult importCards(UUID deckId, Reader file, char delimiter) throws IOException {
+        long importedCards = 0;
+        long failedLines = 0;
+        List<LineError> errors = new ArrayList<>();
+        List<Card> batch = new ArrayList<>(batchSize);
+
+        try (CardFileReader reader = new CardFileReader(file, delimiter, maxFieldLength)) {
+            Optional<CardFileReader.Line> maybeLine;
+            while ((maybeLine = reader.next()).isPresent()) {
+                CardFileReader.Line line = maybeLine.get();
+                if (line.card().isEmpty()) {
+                    failedLines++;
+                    if (errors.size() < maxReportedErrors) {
+                        errors.add(new LineError(line.lineNumber(), line.error()));
+                    }
+                    continue;
+                }
+
+                batch.add(line.card().get());
+                if (batch.size() >= batchSize) {
+                    importedCards += writeBatch(deckId, batch);
+                    log.debug("Imported {} Cards into Deck {}", importedCards, deckId);
+                }
+            }
+        }
+        importedCards += writeBatch(deckId, batch);
+        log.debug("Imported {} Cards into Deck {} ({} invalid Lines)", importedCards, deckId, failedLines);
+        return new DeckImportResult(deckId, importedCards, failedLines, errors);
+    }
+
+    /**
+     * Writes the given cards and removes them (and everything else) from the persistence context
+     *
+     * @param deckId id of the deck to add the cards to
+     * @param batch  cards to be written (the list is cleared afterwards)
+     * @return number of written cards
+     */
+    private int writeBatch(UUID deckId, List<Card> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // NOTE: Clearing the persistence context detaches the deck, so only a reference to it is used.
+        Deck deck = entityManager.getReference(Deck.class, deckId);
+        batch.forEach(card -> card.setDeck(deck));
+        cardRepository.saveAll(batch);
+        // NOTE: The counter update does not flush the persistence context, but the (possibly new) deck must be written.
+        entityManager.flush();
+        deckRepository.addCards(deckId, batch.size());
+        secondLevelCacheEvictor.evictDecks(List.of(deckId));
+        entityManager.clear();
+
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+}
@@ -1,63 +1,95 @@
 package at.ac.uibk.swa.service;
 
 import at.ac.uibk.swa.models.Deck;
-import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.OutboxMail;
+import at.ac.uibk.swa.repositories.DeckRepository;
+import at.ac.uibk.swa.repositories.OutboxMailRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.MailSendException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Queues Mails in the Outbox, from where they are sent asynchronously.
+ *
+ * @see at.ac.uibk.swa.service.mail_service.MailOutboxDispatcher
+ */
 @Slf4j
 @Service("mailService")
 public class MailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private OutboxMailRepository outboxMailRepository;
+    @Autowired
+    private DeckRepository deckRepository;
+
+    @Value("${swa.mail.outbox.chunk-size:50}")
+    private int chunkSize;
 
     /**
-     * Notifies all subscribers and the creator of a deck per email if the deck is blocked by admin.
-     * @param deck
+     * Notifies all subscribers of a deck per email if the deck is blocked by admin.
+     * @param deck the blocked deck
      */
+    @Transactional
     public void notifyBlockedDeck(Deck deck) {
-        String[] recipients = deck.getSubscribedPersons().stream().map(Person::getEmail).toArray(String[]::new);
         sendMessage(String.format("Dear User, %nDeck \"%s\" does not comply with our policies and has been blocked!",
                 deck.getName()),
                 "Deck blocked",
-                recipients);
+                getSubscriberEmails(deck));
     }
 
     /**
-     * Notifies all subscribers and the creator of a deck per email if the deck is unblocked by admin.
-     * @param deck
+     * Notifies all subscribers of a deck per email if the deck is unblocked by admin.
+     * @param deck the unblocked deck
      */
+    @Transactional
     public void notifyUnblockedDeck(Deck deck) {
-        String[] recipients = deck.getSubscribedPersons().stream().map(Person::getEmail).toArray(String[]::new);
         sendMessage(String.format("Dear User, %nDeck \"%s\" complies with our policies and has been unblocked!",
                 deck.getName()),
                 "Deck unblocked",
-                recipients);
+                getSubscriberEmails(deck));
+    }
+
+    private String[] getSubscriberEmails(Deck deck) {
+        return deckRepository.findSubscriberEmails(deck.getDeckId()).toArray(String[]::new);
     }
 
     /**
-     * Sends an email to one or several people through the address "simpson-lisa@gmx.at".
+     * Queues an email to one or several people, which is sent through the address "simpson-lisa@gmx.at".
      * Recipients cannot see whether other people received the message too or who they would be
+     * <br/>
+     * The recipients are split into mails of at most {@code swa.mail.outbox.chunk-size} recipients each,
+     * so the mail server never has to accept a single mail with thousands of recipients.
+     *
      * @param text the content of the mail as String
      * @param subject the subject of the mail as String
      * @param recipients String array of email addresses of everyone who should receive the message
      */
+    @Transactional
     public void sendMessage(String text, String subject, String[] recipients) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("simpson-lisa@gmx.at");
-        message.setBcc(recipients);
-        message.setSubject(subject);
-        message.setText(text);
-
-        try {
-            mailSender.send(message);
-        } catch (MailSendException e) {
-            log.warn("Unable to send all mails - user email probably not validated");
+        List<String> distinctRecipients = Arrays.stream(recipients)
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(recipient -> !recipient.isEmpty())
+                .distinct()
+                .toList();
+        if (distinctRecipients.isEmpty())
+            return;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMail> mails = new ArrayList<>();
+        for (int i = 0; i < distinctRecipients.size(); i += chunkSize) {
+            List<String> chunk = distinctRecipients.subList(i, Math.min(i + chunkSize, distinctRecipients.size()));
+            mails.add(OutboxMail.of(subject, text, chunk, now));
         }
+        outboxMailRepository.saveAll(mails);
+        log.debug("Queued mail \"{}\" for {} recipients in {} mails", subject, distinctRecipients.size(), mails.size());
     }
-}
\ No newline at end of file
+}
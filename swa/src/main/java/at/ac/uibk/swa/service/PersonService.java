@@ -2,13 +2,18 @@ package at.ac.uibk.swa.service;
 
 import at.ac.uibk.swa.config.jwt_authentication.AuthContext;
 import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.config.jwt_authentication.PersonPrincipal;
+import at.ac.uibk.swa.config.jwt_authentication.TokenCache;
 import at.ac.uibk.swa.models.Permission;
 import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.annotations.Metered;
 import at.ac.uibk.swa.repositories.PersonRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +30,12 @@ public class PersonService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     /**
      * Gets a list of all persons in the repository
      *
@@ -42,6 +53,7 @@ public class PersonService {
      * @param password password of the person to be logged in
      * @return person if successfully logged in, nothing otherwise
      */
+    @Metered("swa.person.login")
     public Optional<Person> login(String username, String password) {
         Optional<Person> maybePerson = personRepository.findByUsername(username);
         if(maybePerson.isEmpty())
@@ -54,6 +66,7 @@ public class PersonService {
         person.setToken(UUID.randomUUID());
         try {
             if (updateToken(person)) {
+                tokenCache.evict(person.getPersonId());
                 return Optional.of(person);
             }
         } catch (Exception e) {
@@ -73,10 +86,18 @@ public class PersonService {
         if (maybePerson.isPresent()) {
             Person person = maybePerson.get();
             person.setToken(null);
-            return updateToken(person);
-        } else {
-            return false;
+            boolean loggedOut = updateToken(person);
+            tokenCache.evict(person.getPersonId());
+            return tokenRevocationService.revoke(person.getPersonId()) && loggedOut;
         }
+
+        return AuthContext.getCurrentPersonId()
+                .map(personId -> {
+                    boolean loggedOut = personRepository.updateToken(personId, null, null) == 1;
+                    tokenCache.evict(personId);
+                    return tokenRevocationService.revoke(personId) && loggedOut;
+                })
+                .orElse(false);
     }
     //endregion
 
@@ -101,14 +122,41 @@ public class PersonService {
         return personRepository.findByUsernameAndToken(username, token);
     }
 
+    /**
+     * Find the Principal of a person via its current token and username.
+     *
+     * @param token jwt token of the person to be found
+     * @return principal of the person if found, otherwise nothing
+     */
+    public Optional<PersonPrincipal> findPrincipalByUsernameAndToken(JwtToken token) {
+        return personRepository.findPrincipalByUsernameAndToken(token.getUsername(), token.getToken());
+    }
+
+    /**
+     * Gets the person that is currently logged-in.
+     * The Person is always loaded from the Database, so within a Transaction its lazy Collections can be loaded.
+     *
+     * @return the currently logged-in person if found, otherwise nothing
+     */
+    public Optional<Person> getCurrentPerson() {
+        return AuthContext.getCurrentPersonId().flatMap(personRepository::findById);
+    }
+
     /**
      * Find a person with its id
+     * The created and saved decks of the person are loaded as well.
      *
      * @param id id of the person to be found
      * @return person if found, otherwise nothing
      */
+    @Transactional
     public Optional<Person> findById(UUID id) {
-        return personRepository.findById(id);
+        Optional<Person> maybePerson = personRepository.findById(id);
+        maybePerson.ifPresent(person -> {
+            Hibernate.initialize(person.getCreatedDecks());
+            Hibernate.initialize(person.getSavedDecks());
+        });
+        return maybePerson;
     }
     //endregion
 
@@ -137,7 +185,10 @@ public class PersonService {
         try {
             if (!person.isPasswordHashed())
                 person.hashPassword(passwordEncoder);
-            return personRepository.save(person);
+            Person savedPerson = personRepository.save(person);
+            // NOTE: The Permissions or the Username might have changed, so cached Tokens are not valid anymore.
+            tokenCache.evict(savedPerson.getPersonId());
+            return savedPerson;
         } catch (Exception e) {
             return null;
         }
@@ -164,7 +215,8 @@ public class PersonService {
             if (permissions != null) person.setPermissions(permissions);
             if (password    != null) person.setPassword(password);
 
-            return save(person) != null;
+            // NOTE: Signed Tokens contain the Username and Permissions, so they have to be reissued.
+            return save(person) != null && tokenRevocationService.revoke(person.getPersonId());
         }
 
         return false;
@@ -199,12 +251,13 @@ public class PersonService {
      * @param personId The ID of the Person to delete.
      * @return true if the person was deleted, false otherwise.
      */
+    @Transactional
     public boolean delete(UUID personId) {
         Optional<Person> maybePerson = personRepository.findById(personId);
         if (maybePerson.isPresent()) {
             Person person = maybePerson.get();
             person.delete();
-            return this.save(person) != null;
+            return this.save(person) != null && tokenRevocationService.revoke(person.getPersonId());
         } else {
             return false;
         }
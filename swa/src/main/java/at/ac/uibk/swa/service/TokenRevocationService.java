@@ -0,0 +1,106 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.config.jwt_authentication.PersonPrincipal;
+import at.ac.uibk.swa.models.TokenRevocation;
+import at.ac.uibk.swa.repositories.TokenRevocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of revoked signed Tokens.
+ * <br/>
+ * Signed Tokens can not be deleted, so instead every Person has a Revocation-Date before which all of its Tokens
+ * are invalid. The Revocation-Dates are stored in the Database (so all Nodes know about them) and mirrored in memory,
+ * so checking a Token does not need a Database-Query. The Mirror is synchronized periodically
+ * ({@code swa.token.stateless.revocation-sync-interval}).
+ *
+ * @see at.ac.uibk.swa.config.jwt_authentication.SignedTokenCodec
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Value("${swa.token.stateless.enabled:false}")
+    private boolean enabled;
+
+    @Value("${swa.token.expiration-duration:1h}")
+    private Duration tokenExpirationDuration;
+
+    private volatile Map<UUID, LocalDateTime> revocations = new ConcurrentHashMap<>();
+
+    /**
+     * Revokes all signed Tokens of the given Person that were issued until now.
+     *
+     * @param personId The ID of the Person whose Tokens should be revoked.
+     * @return true if the Tokens were revoked (or stateless Tokens are disabled), false otherwise.
+     */
+    public boolean revoke(UUID personId) {
+        if (!enabled || personId == null)
+            return true;
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        this.revocations.merge(personId, now, TokenRevocationService::latest);
+        try {
+            tokenRevocationRepository.save(new TokenRevocation(personId, now));
+            return true;
+        } catch (Exception e) {
+            log.warn("Database Error while revoking Tokens of Person {}", personId);
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the Token of the given Principal has been revoked.
+     *
+     * @param principal The Principal decoded from a signed Token.
+     * @return true if the Token has been revoked, false otherwise.
+     */
+    public boolean isRevoked(PersonPrincipal principal) {
+        LocalDateTime revokedAt = this.revocations.get(principal.getId());
+        return revokedAt != null && !principal.getTokenCreationDate().isAfter(revokedAt);
+    }
+
+    /**
+     * Reloads the Revocations from the Database so that Revocations of other Nodes are known.
+     * Revocations that are older than the Token-Expiration-Duration are deleted, because all Tokens
+     * issued before them have expired anyway.
+     */
+    @Scheduled(fixedDelayString = "${swa.token.stateless.revocation-sync-interval:PT10S}")
+    public void synchronize() {
+        if (!enabled)
+            return;
+
+        LocalDateTime oldestRelevant = LocalDateTime.now().minus(tokenExpirationDuration);
+        try {
+            tokenRevocationRepository.deleteAllRevokedBefore(oldestRelevant);
+            Map<UUID, LocalDateTime> loaded = new ConcurrentHashMap<>();
+            for (TokenRevocation revocation : tokenRevocationRepository.findAllByRevokedAtAfter(oldestRelevant)) {
+                loaded.put(revocation.getPersonId(), revocation.getRevokedAt());
+            }
+            // NOTE: Keep local Revocations that were made while loading.
+            this.revocations.forEach((personId, revokedAt) -> {
+                if (revokedAt.isAfter(oldestRelevant))
+                    loaded.merge(personId, revokedAt, TokenRevocationService::latest);
+            });
+            this.revocations = loaded;
+        } catch (Exception e) {
+            log.warn("Database Error while synchronizing Token Revocations");
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
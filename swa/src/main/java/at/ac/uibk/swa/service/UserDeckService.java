@@ -1,20 +1,43 @@
 package at.ac.uibk.swa.service;
 
+import at.ac.uibk.swa.config.SecondLevelCacheEvictor;
 import at.ac.uibk.swa.config.jwt_authentication.AuthContext;
 import at.ac.uibk.swa.models.Card;
 import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.LearningProgress;
 import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.annotations.Metered;
+import at.ac.uibk.swa.models.annotations.RetryOnConflict;
 import at.ac.uibk.swa.repositories.CardRepository;
+import at.ac.uibk.swa.repositories.CardRepository.CardLearningState;
 import at.ac.uibk.swa.repositories.DeckRepository;
+import at.ac.uibk.swa.repositories.DeckRepository.DeckStatistics;
+import at.ac.uibk.swa.repositories.LearningProgressRepository;
+import at.ac.uibk.swa.repositories.SubscriptionRepository;
+import at.ac.uibk.swa.service.card_service.LearningProgressBuffer;
+import at.ac.uibk.swa.service.deck_service.DeckPage;
+import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service("userDeckService")
 public class UserDeckService {
@@ -24,6 +47,16 @@ public class UserDeckService {
     PersonService personService;
     @Autowired
     CardRepository cardRepository;
+    @Autowired
+    LearningProgressRepository learningProgressRepository;
+    @Autowired
+    LearningProgressBuffer learningProgressBuffer;
+    @Autowired
+    SubscriptionRepository subscriptionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    SecondLevelCacheEvictor secondLevelCacheEvictor;
 
     private static final String DECK_UNPUBLISHED_INFO = "Deck has been unpublished";
     private static final String DECK_BLOCKED_INFO = "Deck has been blocked";
@@ -40,18 +73,19 @@ public class UserDeckService {
     }
 
     /**
-     * Finds all decks in the repository that are public and available for subscription (not deleted/blocked/already subscribed)
+     * Finds a page of the decks in the repository that are public and available for subscription
+     * (not deleted/blocked/already subscribed)
      *
-     * @return list of all available decks
+     * @param cursor cursor of the previous page (null for the first page)
+     * @param limit maximum number of decks on the page (capped to {@link DeckPage#MAX_PAGE_SIZE})
+     * @return page of available decks
      */
-    public List<Deck> findAllAvailableDecks() {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
-        return deckRepository.findAll().stream()
-                .filter(Predicate.not(Deck::isDeleted))
-                .filter(Predicate.not(Deck::isBlocked))
-                .filter(Deck::isPublished)
-                .filter(d -> maybePerson.isEmpty() || !maybePerson.get().getSavedDecks().contains(d))
-                .toList();
+    public DeckPage findAvailableDecks(UUID cursor, Integer limit) {
+        int pageSize = DeckPage.pageSize(limit);
+        List<Deck> decks = AuthContext.getCurrentPersonId()
+                .map(personId -> deckRepository.findAvailableForSubscriberAfter(personId, DeckPage.after(cursor), DeckPage.request(pageSize)))
+                .orElseGet(() -> deckRepository.findAvailableAfter(DeckPage.after(cursor), DeckPage.request(pageSize)));
+        return DeckPage.of(decks, pageSize);
     }
 
     /**
@@ -61,13 +95,15 @@ public class UserDeckService {
      * - isBlocked: info, that deck has been blocked
      * - !isPublished: info, that deck has been unpublished, if not creator
      *
+     * @implNote The transaction is read-only, so the altered descriptions are never written to the database.
      * @return a list of all decks to which that person has subscribed or nothing if nobody is logged in
      */
+    @Transactional(readOnly = true)
     public Optional<List<Deck>> getAllViewableDecks() {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
+        Optional<Person> maybePerson = personService.getCurrentPerson();
         if (maybePerson.isPresent()) {
             Person person = maybePerson.get();
-            return Optional.of(person.getSavedDecks().stream()
+            return Optional.of(deckRepository.findAllBySubscriber(person.getPersonId()).stream()
                     .map(d -> {
                         if (!d.getCreator().equals(person) && !d.isPublished()) {
                             d.setDescription(DECK_UNPUBLISHED_INFO);
@@ -92,21 +128,76 @@ public class UserDeckService {
         }
     }
 
+    /**
+     * Gets the number of cards, cards to repeat and not learned cards of the given decks for a person
+     * with a single query
+     *
+     * @param decks decks to get the statistics for
+     * @param personId id of the learning person
+     * @return the statistics of each deck by its id
+     */
+    public Map<UUID, DeckStatistics> getDeckStatistics(List<Deck> decks, UUID personId) {
+        if (decks.isEmpty()) {
+            return Map.of();
+        }
+        List<UUID> deckIds = decks.stream().map(Deck::getDeckId).toList();
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, DeckStatistics> statistics = deckRepository.findStatistics(deckIds, personId, now).stream()
+                .collect(Collectors.toMap(DeckStatistics::getDeckId, Function.identity()));
+
+        // the statistics are computed from the database, so learning progresses that are still buffered are applied
+        Map<UUID, LearningProgress> bufferedLearningProgresses = learningProgressBuffer.getAll(personId);
+        if (bufferedLearningProgresses.isEmpty()) {
+            return statistics;
+        }
+        Map<UUID, BufferedDeckStatistics> bufferedStatistics = new HashMap<>();
+        for (CardLearningState state : cardRepository.findLearningStates(bufferedLearningProgresses.keySet(), deckIds, personId)) {
+            DeckStatistics deckStatistics = statistics.get(state.getDeckId());
+            if (deckStatistics == null) {
+                continue;
+            }
+            BufferedDeckStatistics buffered = bufferedStatistics.computeIfAbsent(state.getDeckId(),
+                    deckId -> new BufferedDeckStatistics(deckStatistics));
+            boolean wasLearned = state.getNextLearn() != null;
+            if (wasLearned && !state.getNextLearn().isAfter(now)) {
+                buffered.numCardsToRepeat--;
+            }
+            if (!wasLearned) {
+                buffered.numNotLearnedCards--;
+            }
+            if (!bufferedLearningProgresses.get(state.getCardId()).getNextLearn().isAfter(now)) {
+                buffered.numCardsToRepeat++;
+            }
+        }
+        statistics.putAll(bufferedStatistics);
+        return statistics;
+    }
+
+    /**
+     * Statistics of a Deck with the Learning Progresses that have not been written yet applied.
+     */
+    @Getter
+    private static class BufferedDeckStatistics implements DeckStatistics {
+        private final UUID deckId;
+        private final long numCards;
+        private long numCardsToRepeat;
+        private long numNotLearnedCards;
+
+        private BufferedDeckStatistics(DeckStatistics statistics) {
+            this.deckId = statistics.getDeckId();
+            this.numCards = statistics.getNumCards();
+            this.numCardsToRepeat = statistics.getNumCardsToRepeat();
+            this.numNotLearnedCards = statistics.getNumNotLearnedCards();
+        }
+    }
+
     /**
      * Gets all decks owned by the logged in user from the repository
      *
      * @return list of owned decks or nothing if nobody is logged in
      */
     public Optional<List<Deck>> getAllOwnedDecks() {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
-        if (maybePerson.isPresent()) {
-            Person person = maybePerson.get();
-            return Optional.of(person.getCreatedDecks().stream()
-                    .filter(Predicate.not(Deck::isDeleted))
-                    .toList());
-        } else {
-            return Optional.empty();
-        }
+        return AuthContext.getCurrentPersonId().map(deckRepository::findAllNotDeletedByCreator);
     }
 
     /**
@@ -119,10 +210,12 @@ public class UserDeckService {
      * @return a list of all decks to which that person has subscribed to (but did not create) or nothing if nobody is logged in
      */
     public Optional<List<Deck>> getAllSubscribedDecks() {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
-        if (maybePerson.isPresent()) {
-            Person person = maybePerson.get();
-            return getAllViewableDecks().map(decks -> decks.stream().filter(Predicate.not(d -> d.isCreator(person))).toList());
+        Optional<UUID> maybePersonId = AuthContext.getCurrentPersonId();
+        if (maybePersonId.isPresent()) {
+            UUID personId = maybePersonId.get();
+            return getAllViewableDecks().map(decks -> decks.stream()
+                    .filter(d -> !d.getCreator().getPersonId().equals(personId))
+                    .toList());
         }
         return Optional.empty();
     }
@@ -136,9 +229,7 @@ public class UserDeckService {
     public Optional<List<Deck>> getDecksOfGivenPerson(UUID personId) {
         Optional<Person> maybeUser = personService.findById(personId);
         if (maybeUser.isPresent()) {
-            Person person = maybeUser.get();
-            return Optional.of(person.getCreatedDecks().stream()
-                    .filter(Predicate.not(Deck::isDeleted))
+            return Optional.of(deckRepository.findAllNotDeletedByCreator(personId).stream()
                     .map(d -> {
                         if (d.isBlocked()) {
                             d.setDescription(DECK_BLOCKED_INFO);
@@ -160,10 +251,8 @@ public class UserDeckService {
     public Deck save(Deck deck) {
         try {
             Deck savedDeck = deckRepository.save(deck);
-            for (Card card : deck.getCards()) {
-                card.setDeck(savedDeck);
-                cardRepository.save(card);
-            }
+            deck.getCards().forEach(card -> card.setDeck(savedDeck));
+            cardRepository.saveAll(deck.getCards());
             return savedDeck;
         } catch (Exception e) {
             return null;
@@ -178,7 +267,7 @@ public class UserDeckService {
      */
     @Transactional
     public boolean create(Deck deck) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
+        Optional<Person> maybePerson = personService.getCurrentPerson();
         if (deck != null && deck.getDeckId() == null && maybePerson.isPresent()) {
             Person person = maybePerson.get();
             deck.setCreator(person);
@@ -205,15 +294,18 @@ public class UserDeckService {
      * @return true if the deck was updated, false otherwise
      */
     @Transactional
+    @RetryOnConflict
+    @Metered("swa.deck.update")
     public boolean update(Deck deck, boolean updateCards) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
+        Optional<Person> maybePerson = personService.getCurrentPerson();
         // nobody logged in
         if (maybePerson.isEmpty()) {
             return false;
         }
 
         Person person = maybePerson.get();
-        Deck savedDeck = person.getCreatedDecks().stream().filter(d -> d.getDeckId().equals(deck.getDeckId())).findFirst().orElse(null);
+        // NOTE: The Cards are not loaded with the Deck, they are synchronized in bulk if desired
+        Deck savedDeck = findCreatedDeck(deckRepository.findById(deck.getDeckId()), person).orElse(null);
         // deck with given id not found in created decks of logged in person
         if (savedDeck == null) {
             return false;
@@ -235,27 +327,74 @@ public class UserDeckService {
 
         // updating of cards desired
         // CAUTION: learning progresses are never passed with updated deck info - therefore do not overwrite
-        if (updateCards) {
-            List<Card> cardsToUpdate = savedDeck.getCards().stream()
-                    .filter(c -> deck.getCards().contains(c))
-                    .map(c -> c.updateAllExceptLearningProgresses(deck.getCards().get(deck.getCards().indexOf(c))))
-                    .toList();
-            List<Card> cardsToDelete = savedDeck.getCards().stream()
-                    .filter(c -> !deck.getCards().contains(c))
-                    .toList();
-            List<Card> cardsToCreate = deck.getCards().stream()
-                    .filter(c -> c.getCardId() == null)
-                    .toList();
-            savedDeck.setCards(Stream.concat(cardsToUpdate.stream(), cardsToCreate.stream()).toList());
-            for (Card card : cardsToDelete) {
-                try {
-                    cardRepository.delete(card);
-                } catch (Exception e) {
-                    return false;
+        if (updateCards && !updateCards(savedDeck, deck.getCards())) {
+            return false;
+        }
+        // NOTE: The Cards have already been written, saving them again would load all of them.
+        try {
+            deckRepository.save(savedDeck);
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            // the deck or one of its cards was changed concurrently, the whole update is retried
+            throw e;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Synchronizes the cards of a deck with the given cards
+     * The existing cards are matched by their id, so the time needed grows linearly with the number of cards:
+     * - updated cards are written by dirty checking (batched by hibernate)
+     * - created cards are inserted in batches
+     * - deleted cards (and their learning progresses) are removed with a constant number of bulk statements
+     *
+     * @param savedDeck managed deck whose cards should be synchronized (its card collection must not be loaded)
+     * @param cards     cards the deck should contain afterwards
+     * @return true if the cards were synchronized, false otherwise
+     */
+    private boolean updateCards(Deck savedDeck, List<Card> cards) {
+        Map<UUID, Card> givenCards = new HashMap<>();
+        List<Card> cardsToCreate = new ArrayList<>();
+        for (Card card : cards) {
+            if (card.getCardId() == null) {
+                cardsToCreate.add(card);
+            } else {
+                givenCards.put(card.getCardId(), card);
+            }
+        }
+
+        List<UUID> cardIdsToDelete = new ArrayList<>();
+        for (Card savedCard : cardRepository.findAllByDeckId(savedDeck.getDeckId())) {
+            Card givenCard = givenCards.get(savedCard.getCardId());
+            if (givenCard != null) {
+                savedCard.updateAllExceptLearningProgresses(givenCard);
+            } else {
+                cardIdsToDelete.add(savedCard.getCardId());
+            }
+        }
+
+        try {
+            cardsToCreate.forEach(card -> card.setDeck(savedDeck));
+            cardRepository.saveAll(cardsToCreate);
+            if (!cardIdsToDelete.isEmpty()) {
+                List<UUID> learningProgressIds = cardRepository.findLearningProgressIds(cardIdsToDelete);
+                cardRepository.deleteLearningProgressLinks(cardIdsToDelete);
+                if (!learningProgressIds.isEmpty()) {
+                    learningProgressRepository.deleteAllByLearningProgressIdIn(learningProgressIds);
                 }
+                cardRepository.deleteAllByCardIdIn(cardIdsToDelete);
+            }
+            if (cardsToCreate.size() != cardIdsToDelete.size()) {
+                deckRepository.addCards(savedDeck.getDeckId(), cardsToCreate.size() - cardIdsToDelete.size());
+                secondLevelCacheEvictor.evictDecks(List.of(savedDeck.getDeckId()));
             }
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
+        } catch (Exception e) {
+            return false;
         }
-        return save(savedDeck) != null;
     }
 
     /**
@@ -267,14 +406,14 @@ public class UserDeckService {
      */
     @Transactional
     public boolean delete(UUID deckId) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
+        Optional<Person> maybePerson = personService.getCurrentPerson();
         // nobody logged in
         if (maybePerson.isEmpty()) {
             return false;
         }
 
         Person person = maybePerson.get();
-        Deck deck = person.getCreatedDecks().stream().filter(d -> d.getDeckId().equals(deckId)).findFirst().orElse(null);
+        Deck deck = findCreatedDeck(deckRepository.findWithCardsById(deckId), person).orElse(null);
         // deck not found in decks created by logged-in user
         if (deck == null) {
             return false;
@@ -285,6 +424,12 @@ public class UserDeckService {
         }
         // soft delete
         deck.setDeleted(true);
+        // NOTE: The subscription is removed directly, so the (possibly large) list of subscribers is not loaded.
+        List<UUID> deckIds = List.of(deck.getDeckId());
+        subscriptionRepository.lockDecks(deckIds);
+        subscriptionRepository.decrementSubscriberCounts(person.getPersonId(), deckIds);
+        secondLevelCacheEvictor.evictDecks(deckIds);
+        subscriptionRepository.unsubscribeAll(person.getPersonId(), deckIds);
         Deck savedDeck = save(deck);
         // soft delete not successful
         if (savedDeck == null) {
@@ -309,10 +454,10 @@ public class UserDeckService {
      */
     @Transactional
     public boolean publish(UUID deckId) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
+        Optional<Person> maybePerson = personService.getCurrentPerson();
         if (maybePerson.isPresent()) {
             Person person = maybePerson.get();
-            Deck deck = person.getCreatedDecks().stream().filter(d -> d.getDeckId().equals(deckId)).findFirst().orElse(null);
+            Deck deck = findCreatedDeck(deckRepository.findById(deckId), person).orElse(null);
             if (deck != null && deck.getDeckId() != null) {
                 if (deck.isPublished()) return false;
                 deck.setPublished(true);
@@ -334,10 +479,10 @@ public class UserDeckService {
      */
     @Transactional
     public boolean unpublish(UUID deckId) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
+        Optional<Person> maybePerson = personService.getCurrentPerson();
         if (maybePerson.isPresent()) {
             Person person = maybePerson.get();
-            Deck deck = person.getCreatedDecks().stream().filter(d -> d.getDeckId().equals(deckId)).findFirst().orElse(null);
+            Deck deck = findCreatedDeck(deckRepository.findById(deckId), person).orElse(null);
             if (deck != null && deck.getDeckId() != null) {
                 if (!deck.isPublished()) return false;
                 deck.setPublished(false);
@@ -357,31 +502,49 @@ public class UserDeckService {
      * @param deckId id of the deck to subscribe to
      * @return true if the person has been subscribed, false otherwise
      */
-    @Transactional
     public boolean subscribe(UUID deckId) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
-        if (maybePerson.isPresent()) {
-            Person person = maybePerson.get();
-            Deck deck = findAllAvailableDecks().stream().filter(d -> d.getDeckId().equals(deckId)).findFirst().orElse(null);
-            if (deck != null && deck.getDeckId() != null && person.getPersonId() != null) {
-                if (!deck.getSubscribedPersons().contains(person)) {
-                    deck.addSubscriber(person);
-                    try {
-                        deckRepository.save(deck);
-                        person.getSavedDecks().add(deck);
-                        return true;
-                    } catch (Exception e) {
-                        return false;
-                    }
-                } else {
-                    return false;
-                }
-            } else {
-                return false;
+        return deckId != null && subscribeAll(List.of(deckId)).map(subscribed -> subscribed > 0).orElse(false);
+    }
+
+    /**
+     * Subscribe the logged in user to all given decks available for subscription with a single statement
+     * Decks that are not available for subscription or already subscribed are skipped
+     * <br/>
+     * The subscriptions are written in their own transaction. If another request subscribed the same person to one
+     * of the decks concurrently (unique constraint), the transaction is rolled back and repeated once, which then
+     * skips the decks subscribed in the meantime. Within an existing transaction, the violation is thrown instead.
+     *
+     * @param deckIds ids of the decks to subscribe to
+     * @return the number of decks the person has been subscribed to or nothing if nobody is logged in
+     */
+    public Optional<Integer> subscribeAll(Collection<UUID> deckIds) {
+        // only the id of the person is needed, so the person itself is not loaded
+        Optional<UUID> maybePersonId = AuthContext.getCurrentPersonId();
+        if (maybePersonId.isPresent()) {
+            UUID personId = maybePersonId.get();
+            Set<UUID> distinctDeckIds = distinctIds(deckIds);
+            if (distinctDeckIds.isEmpty()) {
+                return Optional.of(0);
+            }
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            try {
+                return Optional.ofNullable(transactionTemplate.execute(status -> insertSubscriptions(personId, distinctDeckIds)));
+            } catch (DataIntegrityViolationException e) {
+                if (TransactionSynchronizationManager.isActualTransactionActive())
+                    throw e;
+                return Optional.ofNullable(transactionTemplate.execute(status -> insertSubscriptions(personId, distinctDeckIds)));
             }
         } else {
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    private int insertSubscriptions(UUID personId, Set<UUID> deckIds) {
+        subscriptionRepository.lockDecks(deckIds);
+        if (subscriptionRepository.incrementSubscriberCounts(personId, deckIds) > 0) {
+            secondLevelCacheEvictor.evictDecks(deckIds);
         }
+        return subscriptionRepository.subscribeAll(personId, deckIds);
     }
 
     /**
@@ -393,28 +556,31 @@ public class UserDeckService {
      */
     @Transactional
     public boolean unsubscribe(UUID deckId) {
-        Optional<Person> maybePerson = AuthContext.getCurrentPerson();
-        if (maybePerson.isPresent()) {
-            Person person = maybePerson.get();
-            Deck deck = person.getSavedDecks().stream().filter(d -> d.getDeckId().equals(deckId)).findFirst().orElse(null);
-            if (deck != null && deck.getDeckId() != null && person.getPersonId() != null) {
-                if (person.getSavedDecks().contains(deck)) {
-                    deck.removeSubscriber(person);
-                    try {
-                        deckRepository.save(deck);
-                        person.getSavedDecks().remove(deck);
-                        return true;
-                    } catch (Exception e) {
-                        return false;
-                    }
-                } else {
-                    return false;
-                }
-            } else {
-                return false;
+        return deckId != null && unsubscribeAll(List.of(deckId)).map(unsubscribed -> unsubscribed > 0).orElse(false);
+    }
+
+    /**
+     * Unsubscribe the logged in person from all given decks with a single statement
+     * Decks that are not subscribed are skipped
+     *
+     * @param deckIds ids of the decks to unsubscribe from
+     * @return the number of decks the person has been unsubscribed from or nothing if nobody is logged in
+     */
+    @Transactional
+    public Optional<Integer> unsubscribeAll(Collection<UUID> deckIds) {
+        Optional<UUID> maybePersonId = AuthContext.getCurrentPersonId();
+        if (maybePersonId.isPresent()) {
+            Set<UUID> distinctDeckIds = distinctIds(deckIds);
+            if (distinctDeckIds.isEmpty()) {
+                return Optional.of(0);
+            }
+            subscriptionRepository.lockDecks(distinctDeckIds);
+            if (subscriptionRepository.decrementSubscriberCounts(maybePersonId.get(), distinctDeckIds) > 0) {
+                secondLevelCacheEvictor.evictDecks(distinctDeckIds);
             }
+            return Optional.of(subscriptionRepository.unsubscribeAll(maybePersonId.get(), distinctDeckIds));
         } else {
-            return false;
+            return Optional.empty();
         }
     }
 
@@ -425,11 +591,30 @@ public class UserDeckService {
      * @return deckName of searched Deck if Deck is present
      */
     public String getDeckNameIfPresent(UUID deckId) {
-        String deckName = "";
-        Optional<Deck> maybeDeck = findById(deckId);
-        if (maybeDeck.isPresent()) {
-            deckName = maybeDeck.get().getName();
+        return deckRepository.findNameById(deckId).orElse("");
+    }
+
+    /**
+     * Checks whether the given deck was created by the given person
+     *
+     * @param maybeDeck deck to check
+     * @param person person that should have created the deck
+     * @return the deck if it was created by the person, otherwise nothing
+     */
+    private static Optional<Deck> findCreatedDeck(Optional<Deck> maybeDeck, Person person) {
+        return maybeDeck.filter(d -> d.isCreator(person));
+    }
+
+    /**
+     * Removes duplicates and missing ids, so every deck is only passed to the database once
+     *
+     * @param ids ids given by the user (might be null)
+     * @return the distinct ids
+     */
+    private static Set<UUID> distinctIds(Collection<UUID> ids) {
+        if (ids == null) {
+            return Set.of();
         }
-        return deckName;
+        return ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
     }
 }
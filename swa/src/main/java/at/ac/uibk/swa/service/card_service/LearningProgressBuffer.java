@@ -0,0 +1,368 @@
+package at.ac.uibk.swa.service.card_service;
+
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.LearningProgress;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.ReviewLog;
+import at.ac.uibk.swa.repositories.CardRepository;
+import at.ac.uibk.swa.repositories.PersonRepository;
+import at.ac.uibk.swa.repositories.ReviewLogRepository;
+import at.ac.uibk.swa.service.card_service.LearningProgressWriter.NewLearningProgress;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Write-Behind Buffer for the Learning Progresses that result from learning a Card.
+ * <br/>
+ * If enabled ({@code swa.learn.write-behind.enabled}), learning a Card only records the new Learning Progress
+ * (and its Review) in memory, where it is visible to the learning Person immediately (Reads apply the buffered
+ * Progresses on top of the ones in the Database).
+ * The Buffer is flushed periodically ({@code swa.learn.write-behind.flush-interval}) and on Shutdown, where all
+ * Progresses are written in one Transaction. Multiple Reviews of the same Card by the same Person are coalesced
+ * into one Update of its Learning Progress.
+ * <br/>
+ * The Buffer holds at most {@code swa.learn.write-behind.max-size} Progresses.
+ * If it is full, new Progresses wait for the next Flush (at most {@code swa.learn.write-behind.offer-timeout})
+ * and are rejected if there is still no space.
+ * <br/>
+ * The Counters of the Buffer are published as Metrics ({@code swa.learn.write-behind.*}).
+ *
+ * @see at.ac.uibk.swa.service.CardService#learn(UUID, int)
+ */
+@Slf4j
+@Component
+public class LearningProgressBuffer implements MeterBinder {
+
+    private record Key(UUID personId, UUID cardId) { }
+
+    private static final class PendingProgress {
+        private LearningProgress learningProgress;
+        private final List<ReviewLog> reviewLogs = new ArrayList<>();
+    }
+
+    /**
+     * Snapshot of the Counters of the Buffer.
+     *
+     * @param queueDepth The number of Progresses that have not been written yet.
+     * @param flushes The number of Flushes that wrote at least one Progress.
+     * @param flushedProgresses The number of Progresses that were written.
+     * @param rejected The number of Progresses that were rejected because the Buffer was full.
+     * @param lastFlushLatency The Duration of the last Flush.
+     * @param maxFlushLatency The Duration of the slowest Flush.
+     * @param totalFlushLatency The Duration of all Flushes together.
+     */
+    public record Statistics(
+            int queueDepth,
+            long flushes,
+            long flushedProgresses,
+            long rejected,
+            Duration lastFlushLatency,
+            Duration maxFlushLatency,
+            Duration totalFlushLatency
+    ) { }
+
+    private final CardRepository cardRepository;
+    private final PersonRepository personRepository;
+    private final ReviewLogRepository reviewLogRepository;
+    private final LearningProgressWriter learningProgressWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Getter
+    private final boolean enabled;
+    private final int maxSize;
+    private final Duration offerTimeout;
+
+    private final Map<Key, PendingProgress> pending = new LinkedHashMap<>();
+    // NOTE: Progresses that are currently being written must stay visible until the Transaction has been committed.
+    private final Map<Key, PendingProgress> inFlight = new HashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private long flushes = 0;
+    private long flushedProgresses = 0;
+    private long rejected = 0;
+    private Duration lastFlushLatency = Duration.ZERO;
+    private Duration maxFlushLatency = Duration.ZERO;
+    private Duration totalFlushLatency = Duration.ZERO;
+
+    public LearningProgressBuffer(
+            CardRepository cardRepository,
+            PersonRepository personRepository,
+            ReviewLogRepository reviewLogRepository,
+            LearningProgressWriter learningProgressWriter,
+            PlatformTransactionManager transactionManager,
+            @Value("${swa.learn.write-behind.enabled:false}") boolean enabled,
+            @Value("${swa.learn.write-behind.max-size:10000}") int maxSize,
+            @Value("${swa.learn.write-behind.offer-timeout:PT1S}") Duration offerTimeout
+    ) {
+        this.cardRepository = cardRepository;
+        this.personRepository = personRepository;
+        this.reviewLogRepository = reviewLogRepository;
+        this.learningProgressWriter = learningProgressWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // NOTE: A Flush must not join the Transaction of its Caller, which might still roll back after the Progresses
+        //       have been removed from the Buffer.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.offerTimeout = offerTimeout;
+    }
+
+    /**
+     * Gets the Learning Progress of a Card that has not been written yet.
+     *
+     * @param personId The ID of the learning Person.
+     * @param cardId The ID of the learnt Card.
+     * @return A Copy of the buffered Learning Progress (if there is one), otherwise nothing.
+     */
+    public synchronized Optional<LearningProgress> get(UUID personId, UUID cardId) {
+        Key key = new Key(personId, cardId);
+        PendingProgress progress = Optional.ofNullable(this.pending.get(key)).orElse(this.inFlight.get(key));
+        return Optional.ofNullable(progress).map(p -> new LearningProgress(p.learningProgress));
+    }
+
+    /**
+     * Gets all Learning Progresses of a Person that have not been written yet, so they can be applied on top of the
+     * Progresses read from the Database (instead of flushing them before every Read).
+     *
+     * @implNote This scans the whole Buffer, which holds at most {@code swa.learn.write-behind.max-size} Progresses.
+     * @param personId The ID of the learning Person.
+     * @return Copies of the buffered Learning Progresses by the IDs of their Cards.
+     */
+    public synchronized Map<UUID, LearningProgress> getAll(UUID personId) {
+        Map<UUID, LearningProgress> learningProgresses = new HashMap<>();
+        // NOTE: Pending Progresses are newer than the ones that are currently being written.
+        for (Map<Key, PendingProgress> progresses : List.of(this.inFlight, this.pending)) {
+            progresses.forEach((key, progress) -> {
+                if (key.personId().equals(personId)) {
+                    learningProgresses.put(key.cardId(), new LearningProgress(progress.learningProgress));
+                }
+            });
+        }
+        return learningProgresses;
+    }
+
+    /**
+     * Buffers the Learning Progress that resulted from a Review.
+     * If the Buffer is full, this waits until there is space again (at most {@code swa.learn.write-behind.offer-timeout}),
+     * so it must not be called within a Transaction.
+     *
+     * @param person The learning Person.
+     * @param card The learnt Card.
+     * @param learningProgress The new Learning Progress of the Card.
+     * @param reviewLog The Review that resulted in the Learning Progress.
+     * @return true if the Learning Progress was buffered, false if the Buffer was full.
+     */
+    public synchronized boolean offer(Person person, Card card, LearningProgress learningProgress, ReviewLog reviewLog) {
+        Key key = new Key(person.getPersonId(), card.getCardId());
+        PendingProgress progress = this.pending.get(key);
+
+        if (progress == null) {
+            long deadline = System.nanoTime() + this.offerTimeout.toNanos();
+            try {
+                while (this.pending.size() >= this.maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        rejected++;
+                        return false;
+                    }
+                    Duration wait = Duration.ofNanos(remaining);
+                    this.wait(Math.max(1, wait.toMillis()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected++;
+                return false;
+            }
+            // NOTE: Another Review of the same Card might have been buffered while waiting.
+            progress = this.pending.computeIfAbsent(key, k -> new PendingProgress());
+        }
+
+        progress.learningProgress = new LearningProgress(learningProgress);
+        progress.reviewLogs.add(reviewLog);
+        return true;
+    }
+
+    /**
+     * Writes all buffered Learning Progresses.
+     */
+    @Scheduled(fixedDelayString = "${swa.learn.write-behind.flush-interval:PT1S}")
+    public void flush() {
+        flush(key -> true);
+    }
+
+    /**
+     * Writes all buffered Learning Progresses of the given Person (e.g. before changing them in the Database).
+     * Reads should apply {@link #getAll(UUID)} instead, because this waits for other Flushes to finish.
+     * The Progresses are written in a Transaction of their own, so they are kept even if the Transaction of the
+     * Caller rolls back.
+     *
+     * @param personId The ID of the Person whose Learning Progresses should be written.
+     */
+    public void flush(UUID personId) {
+        if (!this.enabled || personId == null)
+            return;
+        synchronized (this) {
+            if (this.pending.keySet().stream().noneMatch(key -> personId.equals(key.personId())))
+                return;
+        }
+        flush(key -> personId.equals(key.personId()));
+    }
+
+    @PreDestroy
+    private void flushOnShutdown() {
+        flush();
+    }
+
+    private void flush(Predicate<Key> filter) {
+        if (!this.enabled)
+            return;
+
+        this.flushLock.lock();
+        try {
+            Map<Key, PendingProgress> batch = drain(filter);
+            if (batch.isEmpty())
+                return;
+
+            long start = System.nanoTime();
+            try {
+                this.transactionTemplate.executeWithoutResult(status -> write(batch));
+                completeFlush(batch, Duration.ofNanos(System.nanoTime() - start));
+            } catch (Exception e) {
+                log.error("Unable to write {} buffered Learning Progresses", batch.size(), e);
+                abortFlush(batch);
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    private synchronized Map<Key, PendingProgress> drain(Predicate<Key> filter) {
+        Map<Key, PendingProgress> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<Key, PendingProgress>> iterator = this.pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, PendingProgress> entry = iterator.next();
+            if (filter.test(entry.getKey())) {
+                batch.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        }
+        this.inFlight.putAll(batch);
+        this.notifyAll();
+        return batch;
+    }
+
+    private void write(Map<Key, PendingProgress> batch) {
+        Set<UUID> cardIds = new HashSet<>();
+        Set<UUID> personIds = new HashSet<>();
+        batch.keySet().forEach(key -> {
+            cardIds.add(key.cardId());
+            personIds.add(key.personId());
+        });
+        Map<UUID, Card> cards = new HashMap<>();
+        cardRepository.findAllById(cardIds).forEach(card -> cards.put(card.getCardId(), card));
+        Map<UUID, Person> persons = new HashMap<>();
+        personRepository.findAllById(personIds).forEach(person -> persons.put(person.getPersonId(), person));
+
+        List<ReviewLog> reviewLogs = new ArrayList<>();
+        List<LearningProgress> updated = new ArrayList<>();
+        List<NewLearningProgress> created = new ArrayList<>();
+        batch.forEach((key, progress) -> {
+            Card card = cards.get(key.cardId());
+            Person person = persons.get(key.personId());
+            // the Card has been deleted in the meantime
+            if (card == null || person == null)
+                return;
+
+            // NOTE: Only the Learning Progress of this Person is loaded, not the whole Mapping of the Card.
+            Optional<LearningProgress> current = cardRepository.findLearningProgress(key.cardId(), key.personId());
+            if (current.isPresent()) {
+                current.get().update(progress.learningProgress);
+                updated.add(current.get());
+            } else {
+                LearningProgress learningProgress = new LearningProgress();
+                learningProgress.update(progress.learningProgress);
+                created.add(new NewLearningProgress(card, key.personId(), learningProgress));
+            }
+            reviewLogs.addAll(progress.reviewLogs);
+        });
+
+        reviewLogRepository.saveAll(reviewLogs);
+        learningProgressWriter.saveAll(updated, created);
+    }
+
+    private synchronized void completeFlush(Map<Key, PendingProgress> batch, Duration latency) {
+        batch.keySet().forEach(this.inFlight::remove);
+        flushes++;
+        flushedProgresses += batch.size();
+        lastFlushLatency = latency;
+        if (latency.compareTo(maxFlushLatency) > 0) {
+            maxFlushLatency = latency;
+        }
+        totalFlushLatency = totalFlushLatency.plus(latency);
+    }
+
+    private synchronized void abortFlush(Map<Key, PendingProgress> batch) {
+        // Put the Progresses back, but keep newer Progresses that were buffered in the meantime.
+        batch.forEach((key, progress) -> {
+            this.inFlight.remove(key);
+            PendingProgress newer = this.pending.get(key);
+            if (newer == null) {
+                this.pending.put(key, progress);
+            } else {
+                newer.reviewLogs.addAll(0, progress.reviewLogs);
+            }
+        });
+    }
+
+    /**
+     * Gets the current Counters of the Buffer.
+     *
+     * @return A Snapshot of the Counters.
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(this.pending.size(), flushes, flushedProgresses, rejected, lastFlushLatency,
+                maxFlushLatency, totalFlushLatency);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("swa.learn.write-behind.queue-depth", this, buffer -> buffer.getStatistics().queueDepth())
+                .description("The number of Learning Progresses that have not been written yet")
+                .register(registry);
+        FunctionCounter.builder("swa.learn.write-behind.flushed", this, buffer -> buffer.getStatistics().flushedProgresses())
+                .description("The number of Learning Progresses that were written")
+                .register(registry);
+        FunctionCounter.builder("swa.learn.write-behind.rejected", this, buffer -> buffer.getStatistics().rejected())
+                .description("The number of Learning Progresses that were rejected because the Buffer was full")
+                .register(registry);
+        FunctionTimer.builder("swa.learn.write-behind.flush", this,
+                        buffer -> buffer.getStatistics().flushes(),
+                        buffer -> buffer.getStatistics().totalFlushLatency().toNanos(),
+                        TimeUnit.NANOSECONDS)
+                .description("The Flushes that wrote at least one Learning Progress")
+                .register(registry);
+        TimeGauge.builder("swa.learn.write-behind.flush.max", this, TimeUnit.NANOSECONDS,
+                        buffer -> buffer.getStatistics().maxFlushLatency().toNanos())
+                .description("The Duration of the slowest Flush")
+                .register(registry);
+    }
+}
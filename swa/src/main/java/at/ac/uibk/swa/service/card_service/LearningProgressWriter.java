@@ -0,0 +1,82 @@
+package at.ac.uibk.swa.service.card_service;
+
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.LearningProgress;
+import at.ac.uibk.swa.repositories.CardRepository;
+import at.ac.uibk.swa.repositories.LearningProgressRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Writes the Learning Progresses that result from Reviews without loading the Mapping of the reviewed Cards,
+ * which holds the Learning Progresses of all Persons that have learnt them.
+ * <br/>
+ * The Learning Progress of a Person is found with {@link CardRepository#findLearningProgress(UUID, UUID)}.
+ *
+ * @see at.ac.uibk.swa.service.CardService#learn(UUID, int)
+ * @see LearningProgressBuffer
+ */
+@Component
+public class LearningProgressWriter {
+
+    /**
+     * A Learning Progress of a Person for a Card that the Person has never learnt before.
+     *
+     * @param card The managed Card.
+     * @param personId The ID of the learning Person.
+     * @param learningProgress The new (not yet saved) Learning Progress.
+     */
+    public record NewLearningProgress(Card card, UUID personId, LearningProgress learningProgress) { }
+
+    private final CardRepository cardRepository;
+    private final LearningProgressRepository learningProgressRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public LearningProgressWriter(CardRepository cardRepository, LearningProgressRepository learningProgressRepository) {
+        this.cardRepository = cardRepository;
+        this.learningProgressRepository = learningProgressRepository;
+    }
+
+    /**
+     * Saves the given Learning Progresses.
+     * Existing Progresses are updated in place, so their Cards do not change. New Progresses are linked to their
+     * Cards, which are locked and versioned, so that concurrent first Reviews and Edits of a Card conflict and are
+     * retried.
+     *
+     * @implNote Must be called within a Transaction. The Progresses of other Persons are neither loaded nor changed,
+     *           and the Mapping of an already loaded Card is not updated.
+     * @param updated The managed Learning Progresses that have been updated.
+     * @param created The Learning Progresses that are new.
+     */
+    public void saveAll(Collection<LearningProgress> updated, Collection<NewLearningProgress> created) {
+        if (!updated.isEmpty()) {
+            learningProgressRepository.saveAll(updated);
+        }
+        if (created.isEmpty()) {
+            return;
+        }
+
+        // NOTE: The Cards are locked in a fixed Order, so concurrent Batches cannot deadlock.
+        created.stream()
+                .map(NewLearningProgress::card)
+                .distinct()
+                .sorted(Comparator.comparing(Card::getCardId))
+                .forEach(card -> entityManager.lock(card, LockModeType.PESSIMISTIC_FORCE_INCREMENT));
+        created.forEach(newLearningProgress -> learningProgressRepository.save(newLearningProgress.learningProgress()));
+        // NOTE: The new Learning Progresses must be written before the native Query links them.
+        entityManager.flush();
+        created.forEach(newLearningProgress -> cardRepository.addLearningProgressLink(
+                newLearningProgress.card().getCardId(),
+                newLearningProgress.personId(),
+                newLearningProgress.learningProgress().getLearningProgressId()
+        ));
+    }
+}
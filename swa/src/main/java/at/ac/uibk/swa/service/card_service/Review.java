@@ -0,0 +1,14 @@
+package at.ac.uibk.swa.service.card_service;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A single Review of a Card that is submitted as part of a Batch (see {@link at.ac.uibk.swa.service.CardService#learnAll(java.util.List)}).
+ *
+ * @param cardId The ID of the reviewed Card.
+ * @param grade The difficulty that the user gave.
+ * @param reviewedAt The time at which the Card was reviewed (if not given, the time of the submission is used).
+ */
+public record Review(UUID cardId, int grade, LocalDateTime reviewedAt) implements Serializable { }
@@ -0,0 +1,22 @@
+package at.ac.uibk.swa.service.card_service;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The Result of a single {@link Review} of a Batch.
+ *
+ * @param cardId The ID of the reviewed Card.
+ * @param success Whether the Review was applied.
+ * @param message A Message describing why the Review was (not) applied.
+ */
+public record ReviewResult(UUID cardId, boolean success, String message) implements Serializable {
+
+    public static ReviewResult learned(Review review) {
+        return new ReviewResult(review.cardId(), true, "Learned");
+    }
+
+    public static ReviewResult notLearned(Review review, String message) {
+        return new ReviewResult(review == null ? null : review.cardId(), false, message);
+    }
+}
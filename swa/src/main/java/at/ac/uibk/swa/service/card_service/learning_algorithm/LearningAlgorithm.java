@@ -20,6 +20,24 @@ public class LearningAlgorithm {
     public static LearningProgress getUpdatedLearningProgress(
             LearningProgress current,
             int difficulty
+    ) {
+        return getUpdatedLearningProgress(current, difficulty, LocalDateTime.now());
+    }
+
+    /**
+     * This Method computes the next learning date given the current learning progress of a card, the user-set
+     * difficulty and the time at which the card was reviewed (e.g. when replaying reviews made offline)
+     *
+     * @param current current learning progress
+     * @param difficulty difficulty set by user
+     * @param reviewedAt time at which the user reviewed the card
+     *
+     * @return the new LearningProgress object with updated attributes
+     */
+    public static LearningProgress getUpdatedLearningProgress(
+            LearningProgress current,
+            int difficulty,
+            LocalDateTime reviewedAt
     ) {
         // Copy the old LearningProgress
         LearningProgress newLearningProgress = new LearningProgress(current);
@@ -53,7 +71,7 @@ public class LearningAlgorithm {
         }
 
         // Calculate the time when the card should be learned the next time.
-        LocalDateTime nextLearn = LocalDateTime.now().plusDays(newLearningProgress.getInterval());
+        LocalDateTime nextLearn = reviewedAt.plusDays(newLearningProgress.getInterval());
         newLearningProgress.setNextLearn(nextLearn);
 
         return newLearningProgress;
@@ -0,0 +1,217 @@
+package at.ac.uibk.swa.service.deck_service;
+
+import at.ac.uibk.swa.models.Card;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Reads {@link Card}s from a CSV- or TSV-File one Record at a time, so the File never has to be kept in Memory.
+ * <br/>
+ * Every Record consists of the Front-Text, the Back-Text and optionally whether the Card is flipped
+ * ({@code true}/{@code false}). Fields containing the Delimiter, Quotes or Line-Breaks must be quoted
+ * (Quotes inside quoted Fields are escaped by doubling them). A Header-Row ({@code front,back[,flipped]})
+ * and empty Lines are skipped.
+ */
+public class CardFileReader implements Closeable {
+
+    public static final char CSV_DELIMITER = ',';
+    public static final char TSV_DELIMITER = '\t';
+
+    private static final char QUOTE = '"';
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final List<String> HEADER = List.of("front", "back", "flipped");
+
+    /**
+     * A Record of the File.
+     *
+     * @param lineNumber The Number of the Line (starting at 1) where the Record starts.
+     * @param card The Card of the Record (if it is valid), otherwise nothing.
+     * @param error The Reason why the Record is invalid (null if it is valid).
+     */
+    public record Line(long lineNumber, Optional<Card> card, String error) {
+        private static Line valid(long lineNumber, Card card) {
+            return new Line(lineNumber, Optional.of(card), null);
+        }
+
+        private static Line invalid(long lineNumber, String error) {
+            return new Line(lineNumber, Optional.empty(), error);
+        }
+    }
+
+    private final BufferedReader reader;
+    private final char delimiter;
+    private final int maxFieldLength;
+
+    private long currentLine = 1;
+    private boolean isFirstRecord = true;
+    private boolean endOfFile = false;
+
+    /**
+     * @param reader The Reader to read the File from (it is closed together with this Reader).
+     * @param delimiter The Character separating the Fields (see {@link #CSV_DELIMITER} and {@link #TSV_DELIMITER}).
+     * @param maxFieldLength The maximum number of Characters of a Field, longer Fields make the Record invalid.
+     */
+    public CardFileReader(Reader reader, char delimiter, int maxFieldLength) {
+        this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        this.delimiter = delimiter;
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    /**
+     * Gets the Delimiter for the given File-Format.
+     *
+     * @param format The Format ({@code csv} or {@code tsv}), if not given it is derived from the File-Name.
+     * @param fileName The Name of the uploaded File (may be null).
+     * @return The Delimiter to use (CSV is the default).
+     */
+    public static char delimiterOf(String format, String fileName) {
+        String type = format;
+        if (type == null && fileName != null && fileName.contains(".")) {
+            type = fileName.substring(fileName.lastIndexOf('.') + 1);
+        }
+        return type != null && type.toLowerCase(Locale.ROOT).equals("tsv") ? TSV_DELIMITER : CSV_DELIMITER;
+    }
+
+    /**
+     * Reads the next Record of the File.
+     *
+     * @return The next Record (if there is one), otherwise nothing.
+     * @throws IOException If the File cannot be read.
+     */
+    public Optional<Line> next() throws IOException {
+        while (!endOfFile) {
+            long lineNumber = currentLine;
+            List<String> fields = new ArrayList<>();
+            String error = readRecord(fields);
+            boolean isFirst = isFirstRecord;
+            isFirstRecord = false;
+
+            if (error != null) {
+                return Optional.of(Line.invalid(lineNumber, error));
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            if (isFirst && isHeader(fields)) {
+                continue;
+            }
+            return Optional.of(toLine(lineNumber, fields));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the Fields of the next Record.
+     *
+     * @param fields The List to add the Fields to.
+     * @return The Reason why the Record is invalid (null if it could be read).
+     */
+    private String readRecord(List<String> fields) throws IOException {
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean tooLong = false;
+        String error = null;
+
+        while (true) {
+            int c = reader.read();
+            if (c == BYTE_ORDER_MARK && currentLine == 1 && fields.isEmpty() && field.isEmpty()) {
+                continue;
+            }
+            if (c == -1) {
+                endOfFile = true;
+                if (quoted) {
+                    error = "Unterminated quoted field";
+                }
+                break;
+            }
+
+            if (quoted) {
+                if (c == QUOTE) {
+                    reader.mark(1);
+                    if (reader.read() == QUOTE) {
+                        c = QUOTE;
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    currentLine++;
+                }
+            } else if (c == QUOTE && field.isEmpty()) {
+                quoted = true;
+                continue;
+            } else if (c == delimiter) {
+                // NOTE: Surplus Fields are not stored, the Record is invalid anyway.
+                if (fields.size() <= HEADER.size()) {
+                    fields.add(field.toString());
+                }
+                field.setLength(0);
+                continue;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                currentLine++;
+                break;
+            }
+
+            // NOTE: Overlong Fields are still consumed (to find the End of the Record), but not stored.
+            if (field.length() < maxFieldLength) {
+                field.append((char) c);
+            } else {
+                tooLong = true;
+            }
+        }
+        if (fields.size() <= HEADER.size()) {
+            fields.add(field.toString());
+        }
+
+        if (error == null && tooLong) {
+            error = "Field is longer than " + maxFieldLength + " characters";
+        }
+        return error;
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        return fields.size() <= HEADER.size() && fields.size() >= 2 && fields.stream()
+                .map(f -> f.trim().toLowerCase(Locale.ROOT))
+                .toList()
+                .equals(HEADER.subList(0, fields.size()));
+    }
+
+    private static Line toLine(long lineNumber, List<String> fields) {
+        if (fields.size() < 2 || fields.size() > 3) {
+            return Line.invalid(lineNumber, fields.size() < 2 ? "Missing back text" : "Expected at most 3 fields");
+        }
+        String frontText = fields.get(0);
+        String backText = fields.get(1);
+        if (frontText.isBlank() || backText.isBlank()) {
+            return Line.invalid(lineNumber, "Front and back text must not be empty");
+        }
+        boolean isFlipped = false;
+        if (fields.size() == 3 && !fields.get(2).isBlank()) {
+            String flipped = fields.get(2).trim().toLowerCase(Locale.ROOT);
+            if (!flipped.equals("true") && !flipped.equals("false")) {
+                return Line.invalid(lineNumber, "Flipped must be true or false but was " + fields.get(2));
+            }
+            isFlipped = Boolean.parseBoolean(flipped);
+        }
+        return Line.valid(lineNumber, new Card(frontText, backText, isFlipped));
+    }
+}
@@ -0,0 +1,121 @@
+package at.ac.uibk.swa.service.deck_service;
+
+import at.ac.uibk.swa.config.SecondLevelCacheEvictor;
+import at.ac.uibk.swa.repositories.DeckRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixes the Counters of the Decks ({@code cardCount} and {@code subscriberCount}) in the Background.
+ * <br/>
+ * The Counters are changed together with the Cards and Subscriptions, but Changes that bypass the Application
+ * (e.g. manual Fixes in the Database) let them drift. If enabled ({@code swa.deck.counters.reconcile-enabled}),
+ * all Decks are recounted periodically ({@code swa.deck.counters.reconcile-interval}) in Chunks of
+ * {@code swa.deck.counters.reconcile-chunk-size} Decks, every Chunk in its own short Transaction, so the
+ * Increments of concurrent Requests are only blocked for a single Chunk.
+ * <br/>
+ * Every fixed Counter is counted as "swa.deck.counters.drift", tagged with the Counter.
+ */
+@Slf4j
+@Component
+public class DeckCounterReconciler {
+
+    public static final String DRIFT_COUNTER = "swa.deck.counters.drift";
+
+    /**
+     * The Number of Decks whose Counters were fixed.
+     *
+     * @param cardCounts The Number of fixed Card-Counters.
+     * @param subscriberCounts The Number of fixed Subscriber-Counters.
+     */
+    public record Result(long cardCounts, long subscriberCounts) { }
+
+    private final DeckRepository deckRepository;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Getter
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public DeckCounterReconciler(
+            DeckRepository deckRepository,
+            SecondLevelCacheEvictor secondLevelCacheEvictor,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${swa.deck.counters.reconcile-enabled:true}") boolean enabled,
+            @Value("${swa.deck.counters.reconcile-chunk-size:500}") int chunkSize
+    ) {
+        this.deckRepository = deckRepository;
+        this.secondLevelCacheEvictor = secondLevelCacheEvictor;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Recounts the Cards and Subscribers of all Decks.
+     */
+    @Scheduled(
+            fixedDelayString = "${swa.deck.counters.reconcile-interval:PT1H}",
+            initialDelayString = "${swa.deck.counters.reconcile-interval:PT1H}"
+    )
+    public void reconcile() {
+        if (!this.enabled)
+            return;
+        try {
+            Result result = reconcileAll();
+            if (result.cardCounts() > 0 || result.subscriberCounts() > 0) {
+                log.warn("Fixed the Counters of Decks: {} Card-Counters, {} Subscriber-Counters",
+                        result.cardCounts(), result.subscriberCounts());
+            }
+        } catch (Exception e) {
+            log.error("Unable to reconcile the Counters of the Decks", e);
+        }
+    }
+
+    /**
+     * Recounts the Cards and Subscribers of all Decks and fixes the Counters that differ.
+     *
+     * @return The Number of fixed Counters.
+     */
+    public synchronized Result reconcileAll() {
+        long cardCounts = 0;
+        long subscriberCounts = 0;
+        UUID after = DeckPage.after(null);
+        List<UUID> deckIds;
+        do {
+            deckIds = this.deckRepository.findIdsAfter(after, PageRequest.of(0, this.chunkSize));
+            if (deckIds.isEmpty())
+                break;
+            List<UUID> chunk = deckIds;
+            int[] fixed = this.transactionTemplate.execute(status -> new int[]{
+                    this.deckRepository.reconcileCardCounts(chunk),
+                    this.deckRepository.reconcileSubscriberCounts(chunk)
+            });
+            if (fixed != null) {
+                if (fixed[0] + fixed[1] > 0)
+                    this.secondLevelCacheEvictor.evictDecks(chunk);
+                cardCounts += fixed[0];
+                subscriberCounts += fixed[1];
+            }
+            after = deckIds.get(deckIds.size() - 1);
+        } while (deckIds.size() == this.chunkSize);
+
+        this.meterRegistry.counter(DRIFT_COUNTER, "counter", "cards").increment(cardCounts);
+        this.meterRegistry.counter(DRIFT_COUNTER, "counter", "subscribers").increment(subscriberCounts);
+        return new Result(cardCounts, subscriberCounts);
+    }
+}
@@ -0,0 +1,23 @@
+package at.ac.uibk.swa.service.deck_service;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The Result of importing Cards from a File into a Deck.
+ *
+ * @param deckId The ID of the Deck the Cards were imported into.
+ * @param importedCards The number of Cards that were created.
+ * @param failedLines The number of Records that could not be imported.
+ * @param errors The Reasons why Records could not be imported (only the first ones are kept, see failedLines).
+ */
+public record DeckImportResult(UUID deckId, long importedCards, long failedLines, List<LineError> errors) {
+
+    /**
+     * @param line The Number of the Line where the invalid Record starts.
+     * @param message The Reason why the Record is invalid.
+     */
+    public record LineError(long line, String message) implements Serializable {
+    }
+}
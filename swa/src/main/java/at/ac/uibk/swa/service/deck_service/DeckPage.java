@@ -0,0 +1,76 @@
+package at.ac.uibk.swa.service.deck_service;
+
+import at.ac.uibk.swa.models.Deck;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A Page of Decks ordered by their ID (Keyset-Pagination).
+ * The next Page is loaded by passing the Cursor of this Page, which is the ID of its last Deck.
+ *
+ * The Number of Cards and Subscribers is stored with every Deck ({@link Deck#getCardCount()}), so it does not
+ * have to be counted for the Page.
+ *
+ * @param decks The Decks of this Page.
+ * @param nextCursor The Cursor of the next Page, or null if this is the last Page.
+ */
+public record DeckPage(List<Deck> decks, UUID nextCursor) {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // NOTE: The IDs are stored and compared as Strings, so no ID is smaller than this one.
+    private static final UUID FIRST_CURSOR = new UUID(0, 0);
+
+    /**
+     * Gets the ID after which the Page starts.
+     *
+     * @param cursor The Cursor of the previous Page (null for the first Page).
+     * @return The ID to pass to the Repository.
+     */
+    public static UUID after(UUID cursor) {
+        return cursor == null ? FIRST_CURSOR : cursor;
+    }
+
+    /**
+     * Gets the Page-Size to use for the requested Page-Size.
+     *
+     * @param limit The requested Page-Size (if not given, the default Page-Size is used).
+     * @return The requested Page-Size capped to {@link #MAX_PAGE_SIZE}.
+     */
+    public static int pageSize(Integer limit) {
+        if (limit == null || limit <= 0)
+            return DEFAULT_PAGE_SIZE;
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Gets the Pageable for loading a Page of the given Size.
+     * One more Deck than requested is loaded to find out whether there is a next Page.
+     *
+     * @param pageSize The Size of the Page.
+     * @return The Pageable to pass to the Repository.
+     */
+    public static Pageable request(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    /**
+     * Creates the Page from the Decks that were loaded with {@link #request(int)}.
+     *
+     * @param decks The loaded Decks.
+     * @param pageSize The Size of the Page.
+     * @return The Page of Decks.
+     */
+    public static DeckPage of(List<Deck> decks, int pageSize) {
+        UUID nextCursor = null;
+        if (decks.size() > pageSize) {
+            decks = decks.subList(0, pageSize);
+            nextCursor = decks.get(decks.size() - 1).getDeckId();
+        }
+        return new DeckPage(decks, nextCursor);
+    }
+}
@@ -0,0 +1,46 @@
+package at.ac.uibk.swa.service.deck_service;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The Formats in which the Cards of a Deck can be exported.
+ */
+public enum ExportFormat {
+    /**
+     * One JSON-Object per Line (see {@link ExportedCard}).
+     */
+    JSONL("jsonl", "application/x-ndjson"),
+    /**
+     * Comma-separated Values with a Header-Row (without Learning Progresses it can be imported again, see {@link CardFileReader}).
+     */
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Gets the Format with the given File-Extension.
+     *
+     * @param extension The File-Extension of the Format (case-insensitive).
+     * @return The Format (if it exists), otherwise nothing.
+     */
+    public static Optional<ExportFormat> fromExtension(String extension) {
+        return Arrays.stream(values())
+                .filter(format -> format.extension.equalsIgnoreCase(extension))
+                .findFirst();
+    }
+}
@@ -0,0 +1,39 @@
+package at.ac.uibk.swa.service.deck_service;
+
+import at.ac.uibk.swa.models.LearningProgress;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A Card as it is exported, optionally together with the Learning Progress of the exporting Person.
+ * The Fields of the Learning Progress are null if the Person has not learned the Card (or it was not requested).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"cardId", "frontText", "backText", "flipped", "interval", "eFactor", "repetitions", "nextLearn"})
+public record ExportedCard(
+        UUID cardId,
+        String frontText,
+        String backText,
+        boolean flipped,
+        Integer interval,
+        Double eFactor,
+        Integer repetitions,
+        LocalDateTime nextLearn
+) {
+    /**
+     * Replaces the exported Learning Progress (e.g. by one that has not been written yet).
+     *
+     * @param learningProgress The Learning Progress to export (null to keep the current one).
+     * @return The Card with the given Learning Progress.
+     */
+    public ExportedCard withLearningProgress(LearningProgress learningProgress) {
+        if (learningProgress == null) {
+            return this;
+        }
+        return new ExportedCard(cardId, frontText, backText, flipped, learningProgress.getInterval(),
+                learningProgress.getEFactor(), learningProgress.getRepetitions(), learningProgress.getNextLearn());
+    }
+}
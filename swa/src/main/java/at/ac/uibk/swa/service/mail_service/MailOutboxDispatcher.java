@@ -0,0 +1,206 @@
+package at.ac.uibk.swa.service.mail_service;
+
+import at.ac.uibk.swa.models.OutboxMail;
+import at.ac.uibk.swa.models.annotations.aspects.MeteredAspect;
+import at.ac.uibk.swa.repositories.OutboxMailRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sends the Mails of the Outbox in the Background.
+ * <br/>
+ * If enabled ({@code swa.mail.outbox.enabled}), the Outbox is polled periodically ({@code swa.mail.outbox.poll-interval})
+ * and at most {@code swa.mail.outbox.batch-size} due Mails are sent per Poll, but never more than
+ * {@code swa.mail.outbox.max-messages-per-second}.
+ * <br/>
+ * A Mail that could not be sent is retried with exponential Backoff (starting at {@code swa.mail.outbox.initial-backoff},
+ * at most {@code swa.mail.outbox.max-backoff}) until it has been attempted {@code swa.mail.outbox.max-attempts} times.
+ * Mails that can never be sent (e.g. because of an invalid Address) fail immediately.
+ *
+ * @see at.ac.uibk.swa.service.MailService#sendMessage(String, String, String[])
+ */
+@Slf4j
+@Component
+public class MailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxMailRepository outboxMailRepository;
+    private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Getter
+    private final boolean enabled;
+    private final String from;
+    private final int batchSize;
+    private final Duration minSendInterval;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    private long nextSendAt = System.nanoTime();
+
+    public MailOutboxDispatcher(
+            OutboxMailRepository outboxMailRepository,
+            JavaMailSender mailSender,
+            MeterRegistry meterRegistry,
+            @Value("${swa.mail.outbox.enabled:true}") boolean enabled,
+            @Value("${swa.mail.from:simpson-lisa@gmx.at}") String from,
+            @Value("${swa.mail.outbox.batch-size:20}") int batchSize,
+            @Value("${swa.mail.outbox.max-messages-per-second:5}") double maxMessagesPerSecond,
+            @Value("${swa.mail.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${swa.mail.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+            @Value("${swa.mail.outbox.max-backoff:PT1H}") Duration maxBackoff,
+            @Value("${swa.mail.outbox.lease:PT5M}") Duration lease
+    ) {
+        this.outboxMailRepository = outboxMailRepository;
+        this.mailSender = mailSender;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.from = from;
+        this.batchSize = batchSize;
+        this.minSendInterval = maxMessagesPerSecond > 0 ?
+                Duration.ofNanos((long) (1_000_000_000L / maxMessagesPerSecond)) :
+                Duration.ZERO;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        Gauge.builder("swa.mail.outbox.pending", outboxMailRepository, r -> r.countByStatus(OutboxMail.Status.PENDING))
+                .description("The number of Mails that have not been sent yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends the Mails that are due.
+     */
+    @Scheduled(fixedDelayString = "${swa.mail.outbox.poll-interval:PT5S}")
+    public void dispatch() {
+        if (!this.enabled)
+            return;
+        try {
+            dispatch(LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Unable to dispatch the Mail-Outbox", e);
+        }
+    }
+
+    /**
+     * Sends at most {@code swa.mail.outbox.batch-size} Mails that are due at the given Time.
+     *
+     * @param now The current Time.
+     * @return The number of Mails that were sent.
+     */
+    synchronized int dispatch(LocalDateTime now) {
+        List<OutboxMail> dueMails = outboxMailRepository.findDue(now, PageRequest.of(0, this.batchSize));
+        int sent = 0;
+        for (OutboxMail mail : dueMails) {
+            // NOTE: Another Dispatcher might have claimed the Mail in the meantime.
+            if (outboxMailRepository.claim(mail.getMailId(), mail.getNextAttemptAt(), now.plus(this.lease)) != 1)
+                continue;
+            throttle();
+            if (send(mail, now)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    private boolean send(OutboxMail mail, LocalDateTime now) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(this.from);
+        message.setBcc(mail.getRecipients());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getText());
+
+        mail.setAttempts(mail.getAttempts() + 1);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        MeteredAspect.Outcome outcome = MeteredAspect.Outcome.ERROR;
+        try {
+            mailSender.send(message);
+            outcome = MeteredAspect.Outcome.SUCCESS;
+            mail.setStatus(OutboxMail.Status.SENT);
+            mail.setSentAt(now);
+            mail.setNextAttemptAt(now);
+            mail.setLastError(null);
+        } catch (MailParseException | MailPreparationException e) {
+            // The Mail itself is invalid, so retrying it would never succeed.
+            outcome = MeteredAspect.Outcome.FAILURE;
+            log.warn("Unable to send {}, giving up", mail, e);
+            fail(mail, now, e);
+        } catch (MailException e) {
+            outcome = MeteredAspect.Outcome.FAILURE;
+            if (mail.getAttempts() >= this.maxAttempts) {
+                log.warn("Unable to send {} after {} attempts, giving up", mail, mail.getAttempts(), e);
+                fail(mail, now, e);
+            } else {
+                log.info("Unable to send {}, retrying: {}", mail, e.getMessage());
+                mail.setNextAttemptAt(now.plus(backoff(mail.getAttempts())));
+                mail.setLastError(truncate(e.getMessage()));
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("swa.mail.send", "outcome", outcome.tag()));
+        }
+        outboxMailRepository.save(mail);
+        return mail.getStatus() == OutboxMail.Status.SENT;
+    }
+
+    private static void fail(OutboxMail mail, LocalDateTime now, Exception e) {
+        mail.setStatus(OutboxMail.Status.FAILED);
+        mail.setNextAttemptAt(now);
+        mail.setLastError(truncate(e.getMessage()));
+    }
+
+    /**
+     * Gets the Delay before the next Attempt to send a Mail.
+     *
+     * @param attempts The number of Attempts so far (at least 1).
+     * @return The initial Backoff doubled for every further Attempt (at most {@code swa.mail.outbox.max-backoff}).
+     */
+    Duration backoff(int attempts) {
+        Duration backoff = this.initialBackoff;
+        for (int i = 1; i < attempts && backoff.compareTo(this.maxBackoff) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(this.maxBackoff) > 0 ? this.maxBackoff : backoff;
+    }
+
+    /**
+     * Waits until the next Mail may be sent according to {@code swa.mail.outbox.max-messages-per-second}.
+     */
+    private void throttle() {
+        long wait = this.nextSendAt - System.nanoTime();
+        if (wait > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(wait).toMillis(), (int) (wait % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.nextSendAt = Math.max(this.nextSendAt, System.nanoTime()) + this.minSendInterval.toNanos();
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH)
+            return error;
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
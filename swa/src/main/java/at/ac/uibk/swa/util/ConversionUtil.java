@@ -3,6 +3,7 @@ package at.ac.uibk.swa.util;
 import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -18,6 +19,9 @@ import java.util.UUID;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ConversionUtil {
 
+    // NOTE: ObjectReaders are immutable and thread-safe, so a single one can be shared by all Requests.
+    private static final ObjectReader JWT_TOKEN_READER = new ObjectMapper().readerFor(JwtToken.class);
+
     /**
      * Helper Method for converting a String into a UUID without throwing an Exception.
      *
@@ -49,8 +53,11 @@ public class ConversionUtil {
      * @return The parsed {@link JwtToken}, or null if the parsing failed.
      */
     public static JwtToken tryConvertJwtToken(String input) {
+        if (input == null) {
+            return null;
+        }
         try {
-            return new ObjectMapper().readValue(input, JwtToken.class);
+            return JWT_TOKEN_READER.readValue(input);
         } catch (JsonProcessingException e) {
             return null;
         }
@@ -51,6 +51,17 @@ public class EndpointMatcherUtil {
     private String apiRegisterEndpoint;
     //endregion
 
+    //region Actuator Endpoints
+    /**
+     * The Actuator-Endpoints (e.g. the Prometheus-Metrics) are only accessible to Admins, so
+     * "management.endpoints.web.base-path" must be set to this Route below the Admin-Base-Route.
+     */
+    public static final String ACTUATOR_ENDPOINT = "/actuator";
+
+    @Getter
+    private String adminActuatorEndpoint;
+    //endregion
+
     //region Error Endpoints
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     public static class ErrorEndpoints {
@@ -111,6 +122,7 @@ public class EndpointMatcherUtil {
         this.apiLoginEndpoint = this.apiRoute(LOGIN_ENDPOINT);
         this.apiLogoutEndpoint = this.apiRoute(LOGOUT_ENDPOINT);
         this.apiRegisterEndpoint = this.apiRoute(REGISTER_ENDPOINT);
+        this.adminActuatorEndpoint = this.adminRoute(ACTUATOR_ENDPOINT);
 
         this.apiErrorEndpoints = Arrays.stream(this.errorEndpoints)
                 .map(this::apiRoute)
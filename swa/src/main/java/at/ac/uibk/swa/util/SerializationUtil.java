@@ -2,6 +2,7 @@ package at.ac.uibk.swa.util;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,11 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class SerializationUtil {
 
+    // NOTE: ObjectWriters are immutable and thread-safe, so a single one (with its cached Serializers) can be shared.
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper()
+            .writer()
+            .with(SerializationFeature.INDENT_OUTPUT);
+
     /**
      * Convert a dynamic Object into it's String Representation using Jackson.
      *
@@ -18,9 +24,7 @@ public class SerializationUtil {
      */
     public static String serializeJSON(Object o) {
         try {
-            return new ObjectMapper()
-                    .enable(SerializationFeature.INDENT_OUTPUT)
-                    .writeValueAsString(o);
+            return JSON_WRITER.writeValueAsString(o);
         } catch (JsonProcessingException e) {
             return null;
         }
@@ -0,0 +1,97 @@
+-- Converts all UUID-Columns of an existing MariaDB-Database from Strings (NVARCHAR) to BINARY(16) in place.
+--
+-- Run this once while the Application is stopped and start it with swa.database.uuid-type=BINARY afterwards:
+--     mariadb swa < convert_uuids_to_binary.sql
+-- The Schema must have been migrated to the latest Version before (see db/migration/mariadb), the Indexes are kept.
+--
+-- Every Column is first made binary (so the Bytes of the String are kept), then the String is replaced by the
+-- 16 Bytes of the UUID (most significant Byte first, like Hibernate writes them) and finally the Column is shrunk.
+-- The Foreign Keys are not checked while the Tables are converted one after another.
+
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE person
+    MODIFY person_id VARBINARY(36) NOT NULL,
+    MODIFY token VARBINARY(36) NULL;
+UPDATE person SET
+    person_id = UNHEX(REPLACE(person_id, '-', '')),
+    token = UNHEX(REPLACE(token, '-', ''));
+ALTER TABLE person
+    MODIFY person_id BINARY(16) NOT NULL,
+    MODIFY token BINARY(16) NULL;
+
+ALTER TABLE permission MODIFY auth_id VARBINARY(36) NOT NULL;
+UPDATE permission SET auth_id = UNHEX(REPLACE(auth_id, '-', ''));
+ALTER TABLE permission MODIFY auth_id BINARY(16) NOT NULL;
+
+ALTER TABLE token_revocation MODIFY person_id VARBINARY(36) NOT NULL;
+UPDATE token_revocation SET person_id = UNHEX(REPLACE(person_id, '-', ''));
+ALTER TABLE token_revocation MODIFY person_id BINARY(16) NOT NULL;
+
+ALTER TABLE deck
+    MODIFY deck_id VARBINARY(36) NOT NULL,
+    MODIFY creator_id VARBINARY(36) NOT NULL;
+UPDATE deck SET
+    deck_id = UNHEX(REPLACE(deck_id, '-', '')),
+    creator_id = UNHEX(REPLACE(creator_id, '-', ''));
+ALTER TABLE deck
+    MODIFY deck_id BINARY(16) NOT NULL,
+    MODIFY creator_id BINARY(16) NOT NULL;
+
+ALTER TABLE person_saved_deck
+    MODIFY deck_id VARBINARY(36) NOT NULL,
+    MODIFY person_id VARBINARY(36) NOT NULL;
+UPDATE person_saved_deck SET
+    deck_id = UNHEX(REPLACE(deck_id, '-', '')),
+    person_id = UNHEX(REPLACE(person_id, '-', ''));
+ALTER TABLE person_saved_deck
+    MODIFY deck_id BINARY(16) NOT NULL,
+    MODIFY person_id BINARY(16) NOT NULL;
+
+ALTER TABLE card
+    MODIFY card_id VARBINARY(36) NOT NULL,
+    MODIFY deck_id VARBINARY(36) NOT NULL;
+UPDATE card SET
+    card_id = UNHEX(REPLACE(card_id, '-', '')),
+    deck_id = UNHEX(REPLACE(deck_id, '-', ''));
+ALTER TABLE card
+    MODIFY card_id BINARY(16) NOT NULL,
+    MODIFY deck_id BINARY(16) NOT NULL;
+
+ALTER TABLE learning_progress MODIFY progress_id VARBINARY(36) NOT NULL;
+UPDATE learning_progress SET progress_id = UNHEX(REPLACE(progress_id, '-', ''));
+ALTER TABLE learning_progress MODIFY progress_id BINARY(16) NOT NULL;
+
+ALTER TABLE card_progress_mapping
+    MODIFY card_id VARBINARY(36) NOT NULL,
+    MODIFY person_id VARBINARY(36) NOT NULL,
+    MODIFY progress_id VARBINARY(36) NOT NULL;
+UPDATE card_progress_mapping SET
+    card_id = UNHEX(REPLACE(card_id, '-', '')),
+    person_id = UNHEX(REPLACE(person_id, '-', '')),
+    progress_id = UNHEX(REPLACE(progress_id, '-', ''));
+ALTER TABLE card_progress_mapping
+    MODIFY card_id BINARY(16) NOT NULL,
+    MODIFY person_id BINARY(16) NOT NULL,
+    MODIFY progress_id BINARY(16) NOT NULL;
+
+ALTER TABLE review_log
+    MODIFY review_id VARBINARY(36) NOT NULL,
+    MODIFY person_id VARBINARY(36) NOT NULL,
+    MODIFY card_id VARBINARY(36) NOT NULL;
+UPDATE review_log SET
+    review_id = UNHEX(REPLACE(review_id, '-', '')),
+    person_id = UNHEX(REPLACE(person_id, '-', '')),
+    card_id = UNHEX(REPLACE(card_id, '-', ''));
+ALTER TABLE review_log
+    MODIFY review_id BINARY(16) NOT NULL,
+    MODIFY person_id BINARY(16) NOT NULL,
+    MODIFY card_id BINARY(16) NOT NULL;
+
+ALTER TABLE mail_outbox MODIFY mail_id VARBINARY(36) NOT NULL;
+UPDATE mail_outbox SET mail_id = UNHEX(REPLACE(mail_id, '-', ''));
+ALTER TABLE mail_outbox MODIFY mail_id BINARY(16) NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
+
+ANALYZE TABLE person, permission, deck, person_saved_deck, card, learning_progress, card_progress_mapping, review_log;
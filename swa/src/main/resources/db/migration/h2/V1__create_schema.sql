@@ -0,0 +1,114 @@
+-- The Schema as Hibernate created it from the Entities (before the Schema was managed by Migrations).
+-- ${uuid} is the Column-Type of all IDs (see DatabaseMigrationConfig).
+
+CREATE TABLE person (
+    person_id ${uuid} NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    token ${uuid},
+    token_creation_date TIMESTAMP,
+    permission_mask INTEGER NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    is_deleted BOOLEAN NOT NULL,
+    CONSTRAINT pk_person PRIMARY KEY (person_id),
+    CONSTRAINT uk_person_username UNIQUE (username),
+    CONSTRAINT uk_person_token UNIQUE (token)
+);
+
+CREATE TABLE permission (
+    auth_id ${uuid} NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_permission PRIMARY KEY (auth_id, name),
+    CONSTRAINT fk_permission_person FOREIGN KEY (auth_id) REFERENCES person (person_id)
+);
+CREATE INDEX idx_permission_auth ON permission (auth_id);
+
+CREATE TABLE token_revocation (
+    person_id ${uuid} NOT NULL,
+    revoked_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_token_revocation PRIMARY KEY (person_id)
+);
+CREATE INDEX idx_token_revocation_revoked_at ON token_revocation (revoked_at);
+
+CREATE TABLE deck (
+    deck_id ${uuid} NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR NOT NULL,
+    is_published BOOLEAN NOT NULL,
+    is_blocked BOOLEAN NOT NULL,
+    is_deleted BOOLEAN NOT NULL,
+    creator_id ${uuid} NOT NULL,
+    CONSTRAINT pk_deck PRIMARY KEY (deck_id),
+    CONSTRAINT fk_deck_creator FOREIGN KEY (creator_id) REFERENCES person (person_id)
+);
+CREATE INDEX idx_deck_creator ON deck (creator_id);
+
+CREATE TABLE person_saved_deck (
+    deck_id ${uuid} NOT NULL,
+    person_id ${uuid} NOT NULL,
+    CONSTRAINT fk_person_saved_deck_deck FOREIGN KEY (deck_id) REFERENCES deck (deck_id),
+    CONSTRAINT fk_person_saved_deck_person FOREIGN KEY (person_id) REFERENCES person (person_id)
+);
+CREATE INDEX idx_person_saved_deck_deck ON person_saved_deck (deck_id);
+CREATE INDEX idx_person_saved_deck_person_deck ON person_saved_deck (person_id, deck_id);
+
+CREATE TABLE card (
+    card_id ${uuid} NOT NULL,
+    front_text VARCHAR NOT NULL,
+    back_text VARCHAR NOT NULL,
+    is_flipped BOOLEAN NOT NULL,
+    deck_id ${uuid} NOT NULL,
+    CONSTRAINT pk_card PRIMARY KEY (card_id),
+    CONSTRAINT fk_card_deck FOREIGN KEY (deck_id) REFERENCES deck (deck_id)
+);
+CREATE INDEX idx_card_deck ON card (deck_id);
+
+CREATE TABLE learning_progress (
+    progress_id ${uuid} NOT NULL,
+    learning_interval INTEGER NOT NULL,
+    e_factor DOUBLE NOT NULL,
+    num_repetitions BIGINT NOT NULL,
+    next_learn TIMESTAMP NOT NULL,
+    CONSTRAINT pk_learning_progress PRIMARY KEY (progress_id)
+);
+
+CREATE TABLE card_progress_mapping (
+    card_id ${uuid} NOT NULL,
+    person_id ${uuid} NOT NULL,
+    progress_id ${uuid} NOT NULL,
+    CONSTRAINT pk_card_progress_mapping PRIMARY KEY (card_id, person_id),
+    CONSTRAINT uk_card_progress_mapping_progress UNIQUE (progress_id),
+    CONSTRAINT fk_card_progress_mapping_card FOREIGN KEY (card_id) REFERENCES card (card_id),
+    CONSTRAINT fk_card_progress_mapping_person FOREIGN KEY (person_id) REFERENCES person (person_id),
+    CONSTRAINT fk_card_progress_mapping_progress FOREIGN KEY (progress_id) REFERENCES learning_progress (progress_id)
+);
+CREATE INDEX idx_card_progress_mapping_person_card ON card_progress_mapping (person_id, card_id);
+
+CREATE TABLE review_log (
+    review_id ${uuid} NOT NULL,
+    person_id ${uuid} NOT NULL,
+    card_id ${uuid} NOT NULL,
+    grade INTEGER NOT NULL,
+    reviewed_at TIMESTAMP NOT NULL,
+    learning_interval INTEGER NOT NULL,
+    e_factor DOUBLE NOT NULL,
+    CONSTRAINT pk_review_log PRIMARY KEY (review_id),
+    CONSTRAINT fk_review_log_person FOREIGN KEY (person_id) REFERENCES person (person_id) ON DELETE CASCADE,
+    CONSTRAINT fk_review_log_card FOREIGN KEY (card_id) REFERENCES card (card_id) ON DELETE CASCADE
+);
+CREATE INDEX idx_review_log_card_person ON review_log (card_id, person_id, reviewed_at);
+
+CREATE TABLE mail_outbox (
+    mail_id ${uuid} NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    text VARCHAR NOT NULL,
+    recipients VARCHAR NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP,
+    last_error VARCHAR(1000),
+    CONSTRAINT pk_mail_outbox PRIMARY KEY (mail_id)
+);
+CREATE INDEX idx_mail_outbox_status_next_attempt ON mail_outbox (status, next_attempt_at);
@@ -0,0 +1,23 @@
+-- Composite and covering Indexes for the frequent Queries (see the Repositories).
+
+-- Token-Authentication: the Principal is read from the Index alone (PersonRepository#findPrincipalByUsernameAndToken).
+CREATE INDEX IF NOT EXISTS idx_person_username_token
+    ON person (username, token, person_id, permission_mask, token_creation_date);
+
+-- Due Cards: the Learning Progresses of a Person are found by their Cards, then filtered by their next Date.
+CREATE INDEX IF NOT EXISTS idx_card_progress_mapping_person_card_progress
+    ON card_progress_mapping (person_id, card_id, progress_id);
+DROP INDEX IF EXISTS idx_card_progress_mapping_person_card;
+CREATE INDEX IF NOT EXISTS idx_learning_progress_next_learn ON learning_progress (next_learn);
+CREATE INDEX IF NOT EXISTS idx_card_deck_card ON card (deck_id, card_id);
+DROP INDEX IF EXISTS idx_card_deck;
+
+-- Catalog: Pages of available (or not deleted) Decks are ordered by their ID.
+CREATE INDEX IF NOT EXISTS idx_deck_catalog ON deck (is_published, is_blocked, is_deleted, deck_id);
+CREATE INDEX IF NOT EXISTS idx_deck_not_deleted ON deck (is_deleted, deck_id);
+CREATE INDEX IF NOT EXISTS idx_deck_creator_deleted ON deck (creator_id, is_deleted);
+DROP INDEX IF EXISTS idx_deck_creator;
+
+-- Subscriptions: the Subscribers of a Deck and the Decks of a Subscriber are read from the Join-Table alone.
+CREATE INDEX IF NOT EXISTS idx_person_saved_deck_deck_person ON person_saved_deck (deck_id, person_id);
+DROP INDEX IF EXISTS idx_person_saved_deck_deck;
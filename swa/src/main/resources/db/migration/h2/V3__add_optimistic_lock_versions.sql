@@ -0,0 +1,5 @@
+-- Versions for optimistic Locking (see RetryOnConflict), existing Rows start at Version 0.
+
+ALTER TABLE deck ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE card ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE learning_progress ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
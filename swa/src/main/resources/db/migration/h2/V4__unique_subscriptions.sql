@@ -0,0 +1,10 @@
+-- Every Person can subscribe to a Deck only once, so Memberships are checked and changed with single Statements
+-- (see SubscriptionRepository). The unique Constraint replaces the Index on (person_id, deck_id).
+
+-- Remove duplicated Subscriptions (the Rows are identical, so only the first one is kept).
+DELETE FROM person_saved_deck WHERE _ROWID_ NOT IN (
+    SELECT MIN(_ROWID_) FROM person_saved_deck GROUP BY person_id, deck_id
+);
+
+ALTER TABLE person_saved_deck ADD CONSTRAINT uk_person_saved_deck_person_deck UNIQUE (person_id, deck_id);
+DROP INDEX IF EXISTS idx_person_saved_deck_person_deck;
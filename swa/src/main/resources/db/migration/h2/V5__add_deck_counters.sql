@@ -0,0 +1,9 @@
+-- Counters of the Cards and Subscribers of every Deck, so Lists of Decks do not have to count them
+-- (see DeckRepository#addCards, SubscriptionRepository and DeckCounterReconciler).
+
+ALTER TABLE deck ADD COLUMN card_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE deck ADD COLUMN subscriber_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE deck SET
+    card_count = (SELECT COUNT(*) FROM card c WHERE c.deck_id = deck.deck_id),
+    subscriber_count = (SELECT COUNT(*) FROM person_saved_deck s WHERE s.deck_id = deck.deck_id);
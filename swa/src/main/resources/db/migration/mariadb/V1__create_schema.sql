@@ -0,0 +1,116 @@
+-- The Schema as Hibernate created it from the Entities (before the Schema was managed by Migrations).
+-- ${uuid} is the Column-Type of all IDs (see DatabaseMigrationConfig).
+-- Dates are stored as DATETIME, because TIMESTAMP-Columns might be updated automatically by MariaDB.
+-- The Indexes are declared with their Tables, so InnoDB uses them for the Foreign Keys instead of creating its own.
+
+CREATE TABLE person (
+    person_id ${uuid} NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    token ${uuid} NULL,
+    token_creation_date DATETIME(6) NULL,
+    permission_mask INT NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    is_deleted BIT(1) NOT NULL,
+    CONSTRAINT pk_person PRIMARY KEY (person_id),
+    CONSTRAINT uk_person_username UNIQUE (username),
+    CONSTRAINT uk_person_token UNIQUE (token)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE permission (
+    auth_id ${uuid} NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_permission PRIMARY KEY (auth_id, name),
+    INDEX idx_permission_auth (auth_id),
+    CONSTRAINT fk_permission_person FOREIGN KEY (auth_id) REFERENCES person (person_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE token_revocation (
+    person_id ${uuid} NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    CONSTRAINT pk_token_revocation PRIMARY KEY (person_id),
+    INDEX idx_token_revocation_revoked_at (revoked_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE deck (
+    deck_id ${uuid} NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description LONGTEXT NOT NULL,
+    is_published BIT(1) NOT NULL,
+    is_blocked BIT(1) NOT NULL,
+    is_deleted BIT(1) NOT NULL,
+    creator_id ${uuid} NOT NULL,
+    CONSTRAINT pk_deck PRIMARY KEY (deck_id),
+    INDEX idx_deck_creator (creator_id),
+    CONSTRAINT fk_deck_creator FOREIGN KEY (creator_id) REFERENCES person (person_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE person_saved_deck (
+    deck_id ${uuid} NOT NULL,
+    person_id ${uuid} NOT NULL,
+    INDEX idx_person_saved_deck_deck (deck_id),
+    INDEX idx_person_saved_deck_person_deck (person_id, deck_id),
+    CONSTRAINT fk_person_saved_deck_deck FOREIGN KEY (deck_id) REFERENCES deck (deck_id),
+    CONSTRAINT fk_person_saved_deck_person FOREIGN KEY (person_id) REFERENCES person (person_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE card (
+    card_id ${uuid} NOT NULL,
+    front_text LONGTEXT NOT NULL,
+    back_text LONGTEXT NOT NULL,
+    is_flipped BIT(1) NOT NULL,
+    deck_id ${uuid} NOT NULL,
+    CONSTRAINT pk_card PRIMARY KEY (card_id),
+    INDEX idx_card_deck (deck_id),
+    CONSTRAINT fk_card_deck FOREIGN KEY (deck_id) REFERENCES deck (deck_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE learning_progress (
+    progress_id ${uuid} NOT NULL,
+    learning_interval INT NOT NULL,
+    e_factor DOUBLE NOT NULL,
+    num_repetitions BIGINT NOT NULL,
+    next_learn DATETIME(6) NOT NULL,
+    CONSTRAINT pk_learning_progress PRIMARY KEY (progress_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE card_progress_mapping (
+    card_id ${uuid} NOT NULL,
+    person_id ${uuid} NOT NULL,
+    progress_id ${uuid} NOT NULL,
+    CONSTRAINT pk_card_progress_mapping PRIMARY KEY (card_id, person_id),
+    CONSTRAINT uk_card_progress_mapping_progress UNIQUE (progress_id),
+    INDEX idx_card_progress_mapping_person_card (person_id, card_id),
+    CONSTRAINT fk_card_progress_mapping_card FOREIGN KEY (card_id) REFERENCES card (card_id),
+    CONSTRAINT fk_card_progress_mapping_person FOREIGN KEY (person_id) REFERENCES person (person_id),
+    CONSTRAINT fk_card_progress_mapping_progress FOREIGN KEY (progress_id) REFERENCES learning_progress (progress_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE review_log (
+    review_id ${uuid} NOT NULL,
+    person_id ${uuid} NOT NULL,
+    card_id ${uuid} NOT NULL,
+    grade INT NOT NULL,
+    reviewed_at DATETIME(6) NOT NULL,
+    learning_interval INT NOT NULL,
+    e_factor DOUBLE NOT NULL,
+    CONSTRAINT pk_review_log PRIMARY KEY (review_id),
+    INDEX idx_review_log_card_person (card_id, person_id, reviewed_at),
+    CONSTRAINT fk_review_log_person FOREIGN KEY (person_id) REFERENCES person (person_id) ON DELETE CASCADE,
+    CONSTRAINT fk_review_log_card FOREIGN KEY (card_id) REFERENCES card (card_id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE mail_outbox (
+    mail_id ${uuid} NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    text LONGTEXT NOT NULL,
+    recipients LONGTEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    sent_at DATETIME(6) NULL,
+    last_error VARCHAR(1000) NULL,
+    CONSTRAINT pk_mail_outbox PRIMARY KEY (mail_id),
+    INDEX idx_mail_outbox_status_next_attempt (status, next_attempt_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
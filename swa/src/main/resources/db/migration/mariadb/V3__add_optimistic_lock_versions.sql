@@ -0,0 +1,6 @@
+-- Versions for optimistic Locking (see RetryOnConflict), existing Rows start at Version 0.
+-- NOTE: Adding a Column with a Default only changes the Metadata (ALGORITHM=INSTANT), the Tables are not rebuilt.
+
+ALTER TABLE deck ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE card ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE learning_progress ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- Every Person can subscribe to a Deck only once, so Memberships are checked and changed with single Statements
+-- (see SubscriptionRepository). The unique Constraint replaces the Index on (person_id, deck_id).
+-- NOTE: IGNORE removes duplicated Subscriptions while the Constraint is added (the Rows are identical).
+
+ALTER IGNORE TABLE person_saved_deck
+    ADD CONSTRAINT uk_person_saved_deck_person_deck UNIQUE (person_id, deck_id);
+DROP INDEX IF EXISTS idx_person_saved_deck_person_deck ON person_saved_deck;
+
+ANALYZE TABLE person_saved_deck;
@@ -0,0 +1,14 @@
+-- Counters of the Cards and Subscribers of every Deck, so Lists of Decks do not have to count them
+-- (see DeckRepository#addCards, SubscriptionRepository and DeckCounterReconciler).
+
+ALTER TABLE deck
+    ADD COLUMN card_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN subscriber_count BIGINT NOT NULL DEFAULT 0;
+
+-- NOTE: The Counters are initialized with Joins of the aggregated Tables instead of correlated Subqueries,
+--       so card and person_saved_deck are only read once.
+UPDATE deck d
+    LEFT JOIN (SELECT deck_id, COUNT(*) AS cards FROM card GROUP BY deck_id) c ON c.deck_id = d.deck_id
+    LEFT JOIN (SELECT deck_id, COUNT(*) AS subscribers FROM person_saved_deck GROUP BY deck_id) s ON s.deck_id = d.deck_id
+SET d.card_count = COALESCE(c.cards, 0),
+    d.subscriber_count = COALESCE(s.subscribers, 0);
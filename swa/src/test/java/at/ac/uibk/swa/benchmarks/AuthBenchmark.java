@@ -0,0 +1,50 @@
+package at.ac.uibk.swa.benchmarks;
+
+import at.ac.uibk.swa.util.EndpointMatcherUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching the Route of a Request, which the Authentication-Filters do for every Request.
+ * Parsing the Token from the Authorization-Header is measured by {@link SerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+
+    @Param({"/api/get-user-decks", "/api/login", "/admin/index.html", "/index.html"})
+    private String route;
+
+    private EndpointMatcherUtil endpointMatcherUtil;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        // NOTE: The Matchers are normally initialized by Spring.
+        endpointMatcherUtil = new EndpointMatcherUtil();
+        ReflectionTestUtils.setField(endpointMatcherUtil, "apiBaseRoute", "/api");
+        ReflectionTestUtils.setField(endpointMatcherUtil, "adminBaseRoute", "/admin");
+        ReflectionTestUtils.setField(endpointMatcherUtil, "errorBaseRoute", "/error");
+        ReflectionTestUtils.invokeMethod(endpointMatcherUtil, "init");
+
+        request = new MockHttpServletRequest("GET", route);
+        request.setServletPath(route);
+    }
+
+    @Benchmark
+    public boolean matchProtectedApiRoute() {
+        return endpointMatcherUtil.getProtectedApiRoutes().matches(request);
+    }
+
+    @Benchmark
+    public boolean matchPublicRoute() {
+        return endpointMatcherUtil.isPublicRoute(request);
+    }
+}
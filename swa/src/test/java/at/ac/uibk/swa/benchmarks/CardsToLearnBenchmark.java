@@ -0,0 +1,112 @@
+package at.ac.uibk.swa.benchmarks;
+
+import at.ac.uibk.swa.SwaApplication;
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.CardService;
+import at.ac.uibk.swa.service.DeckImportService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.card_service.Review;
+import at.ac.uibk.swa.service.deck_service.CardFileReader;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures getting the Cards to learn of a Deck (Filtering the due Cards and sorting them by their next Learning-Date)
+ * on synthetic Decks of different Sizes in the in-memory Database of the test-Profile.
+ * <br/>
+ * Every tenth Card has been learned long ago (so it is due again) and every tenth Card has been learned just now
+ * (so it is not due), the other Cards have never been learned.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CardsToLearnBenchmark {
+
+    private static final int REVIEW_BATCH_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    private int numberOfCards;
+
+    private ConfigurableApplicationContext context;
+    private CardService cardService;
+    private Person person;
+    private UUID deckId;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        context = new SpringApplicationBuilder(SwaApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.web=WARN"
+                )
+                .run();
+        cardService = context.getBean(CardService.class);
+
+        person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        if (!context.getBean(PersonService.class).create(person)) {
+            throw new IllegalStateException("Unable to create user");
+        }
+        MockAuthContext.setLoggedInUser(person);
+
+        StringBuilder file = new StringBuilder();
+        for (int i = 0; i < numberOfCards; i++) {
+            file.append("front ").append(i).append(",back ").append(i).append('\n');
+        }
+        deckId = context.getBean(DeckImportService.class)
+                .importIntoNewDeck(new Deck("benchmark", ""), new StringReader(file.toString()), CardFileReader.CSV_DELIMITER)
+                .orElseThrow()
+                .deckId();
+
+        List<Card> cards = cardService.getAllCardsToLearn(deckId).orElseThrow();
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(1);
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++) {
+            if (i % 10 == 0) {
+                reviews.add(new Review(cards.get(i).getCardId(), 4, longAgo));
+            } else if (i % 10 == 5) {
+                reviews.add(new Review(cards.get(i).getCardId(), 4, null));
+            }
+            if (reviews.size() == REVIEW_BATCH_SIZE || i == cards.size() - 1) {
+                cardService.learnAll(reviews).orElseThrow();
+                reviews.clear();
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void login() {
+        // NOTE: The logged in User is bound to the Thread running the Benchmark.
+        MockAuthContext.setLoggedInUser(person);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Card> getAllCardsToLearn() {
+        return cardService.getAllCardsToLearn(deckId).orElseThrow();
+    }
+}
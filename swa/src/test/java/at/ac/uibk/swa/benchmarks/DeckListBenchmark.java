@@ -0,0 +1,65 @@
+package at.ac.uibk.swa.benchmarks;
+
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.rest_responses.UserDeckListResponse;
+import at.ac.uibk.swa.repositories.DeckRepository.DeckStatistics;
+import at.ac.uibk.swa.util.SerializationUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building (and serializing) the Deck-List of a User from the aggregated Deck-Statistics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckListBenchmark {
+
+    private record Statistics(UUID deckId, long numCards, long numCardsToRepeat, long numNotLearnedCards)
+            implements DeckStatistics {
+        @Override
+        public UUID getDeckId() { return deckId; }
+        @Override
+        public long getNumCards() { return numCards; }
+        @Override
+        public long getNumCardsToRepeat() { return numCardsToRepeat; }
+        @Override
+        public long getNumNotLearnedCards() { return numNotLearnedCards; }
+    }
+
+    @Param({"10", "100", "1000"})
+    private int numberOfDecks;
+
+    private List<Deck> decks;
+    private Map<UUID, DeckStatistics> statistics;
+
+    @Setup
+    public void setup() {
+        decks = new ArrayList<>(numberOfDecks);
+        statistics = new HashMap<>();
+        for (int i = 0; i < numberOfDecks; i++) {
+            UUID deckId = UUID.randomUUID();
+            decks.add(Deck.builder().deckId(deckId).name("deck " + i).description("description " + i).build());
+            statistics.put(deckId, new Statistics(deckId, 100 + i, i % 50, i % 20));
+        }
+    }
+
+    @Benchmark
+    public UserDeckListResponse createResponse() {
+        return new UserDeckListResponse(decks, statistics);
+    }
+
+    @Benchmark
+    public String createAndSerializeResponse() {
+        return SerializationUtil.serializeJSON(new UserDeckListResponse(decks, statistics));
+    }
+}
@@ -0,0 +1,42 @@
+package at.ac.uibk.swa.benchmarks;
+
+import at.ac.uibk.swa.models.LearningProgress;
+import at.ac.uibk.swa.service.card_service.learning_algorithm.LearningAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures computing the next Learning Progress of a Card, which is done for every Review.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LearningAlgorithmBenchmark {
+
+    @Param({"1", "3", "5"})
+    private int difficulty;
+
+    private LearningProgress current;
+    private LocalDateTime reviewedAt;
+
+    @Setup
+    public void setup() {
+        current = LearningProgress.builder()
+                .interval(6)
+                .eFactor(2.5)
+                .repetitions(2)
+                .nextLearn(LocalDateTime.now())
+                .build();
+        reviewedAt = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public LearningProgress getUpdatedLearningProgress() {
+        return LearningAlgorithm.getUpdatedLearningProgress(current, difficulty, reviewedAt);
+    }
+}
@@ -0,0 +1,79 @@
+package at.ac.uibk.swa.benchmarks;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.rest_responses.ListResponse;
+import at.ac.uibk.swa.models.rest_responses.MessageResponse;
+import at.ac.uibk.swa.models.rest_responses.RestResponse;
+import at.ac.uibk.swa.util.ConversionUtil;
+import at.ac.uibk.swa.util.SerializationUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing the Authorization-Header and serializing Responses with a new ObjectMapper per Call
+ * (as it was done before) against the shared Reader/Writer of {@link ConversionUtil} and {@link SerializationUtil}.
+ * <br/>
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Djmh.args="SerializationBenchmark -prof gc"},
+ * the gc-Profiler reports the allocated Bytes per Operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private String header;
+    private RestResponse messageResponse;
+    private RestResponse listResponse;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        header = new ObjectMapper().writeValueAsString(new JwtToken("username", UUID.randomUUID()));
+        messageResponse = MessageResponse.builder().ok().message("Deck example deck created successfully.").build();
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            cards.add(new Card(UUID.randomUUID(), "front text " + i, "back text " + i, i % 2 == 0));
+        }
+        listResponse = new ListResponse<>(cards);
+    }
+
+    @Benchmark
+    public JwtToken parseHeaderWithNewMapper() throws JsonProcessingException {
+        return new ObjectMapper().readValue(header, JwtToken.class);
+    }
+
+    @Benchmark
+    public JwtToken parseHeaderWithSharedReader() {
+        return ConversionUtil.tryConvertJwtToken(header);
+    }
+
+    @Benchmark
+    public String serializeMessageWithNewMapper() throws JsonProcessingException {
+        return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(messageResponse);
+    }
+
+    @Benchmark
+    public String serializeMessageWithSharedWriter() {
+        return SerializationUtil.serializeJSON(messageResponse);
+    }
+
+    @Benchmark
+    public String serializeListWithNewMapper() throws JsonProcessingException {
+        return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(listResponse);
+    }
+
+    @Benchmark
+    public String serializeListWithSharedWriter() {
+        return SerializationUtil.serializeJSON(listResponse);
+    }
+}
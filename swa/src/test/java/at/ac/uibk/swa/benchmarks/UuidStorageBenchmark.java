@@ -0,0 +1,128 @@
+package at.ac.uibk.swa.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares storing the IDs as Strings (NVARCHAR) and as 16 Bytes (BINARY) by joining the saved Decks of a Person
+ * with their Cards, like the Deck-Lists do.
+ * <br/>
+ * The Size of the Tables (including their Indexes) is printed once per Storage-Type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidStorageBenchmark {
+
+    private static final int PERSONS = 1000;
+    private static final int DECKS = 2000;
+    private static final int CARDS_PER_DECK = 20;
+    private static final int SUBSCRIPTIONS_PER_PERSON = 10;
+
+    @Param({"NVARCHAR", "BINARY"})
+    private String uuidType;
+
+    private Connection connection;
+    private PreparedStatement query;
+    private UUID[] personIds;
+    private int nextPerson = 0;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:uuid_" + uuidType.toLowerCase());
+        String column = uuidType.equals("BINARY") ? "BINARY(16)" : "VARCHAR(255)";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE deck (deck_id " + column + " PRIMARY KEY, name VARCHAR(255), creator_id " + column + " NOT NULL)");
+            statement.execute("CREATE INDEX idx_deck_creator ON deck (creator_id)");
+            statement.execute("CREATE TABLE card (card_id " + column + " PRIMARY KEY, front_text VARCHAR(255), deck_id " + column + " NOT NULL)");
+            statement.execute("CREATE INDEX idx_card_deck ON card (deck_id)");
+            statement.execute("CREATE TABLE person_saved_deck (person_id " + column + " NOT NULL, deck_id " + column + " NOT NULL)");
+            statement.execute("CREATE INDEX idx_person_saved_deck_deck ON person_saved_deck (deck_id)");
+            statement.execute("CREATE INDEX idx_person_saved_deck_person_deck ON person_saved_deck (person_id, deck_id)");
+        }
+
+        personIds = new UUID[PERSONS];
+        for (int i = 0; i < PERSONS; i++) {
+            personIds[i] = UUID.randomUUID();
+        }
+        UUID[] deckIds = new UUID[DECKS];
+        try (PreparedStatement insertDeck = connection.prepareStatement("INSERT INTO deck VALUES (?, ?, ?)");
+             PreparedStatement insertCard = connection.prepareStatement("INSERT INTO card VALUES (?, ?, ?)")) {
+            for (int i = 0; i < DECKS; i++) {
+                deckIds[i] = UUID.randomUUID();
+                insertDeck.setObject(1, id(deckIds[i]));
+                insertDeck.setString(2, "deck " + i);
+                insertDeck.setObject(3, id(personIds[i % PERSONS]));
+                insertDeck.addBatch();
+                for (int j = 0; j < CARDS_PER_DECK; j++) {
+                    insertCard.setObject(1, id(UUID.randomUUID()));
+                    insertCard.setString(2, "card " + j);
+                    insertCard.setObject(3, id(deckIds[i]));
+                    insertCard.addBatch();
+                }
+            }
+            insertDeck.executeBatch();
+            insertCard.executeBatch();
+        }
+        try (PreparedStatement insertSubscription = connection.prepareStatement("INSERT INTO person_saved_deck VALUES (?, ?)")) {
+            for (int i = 0; i < PERSONS; i++) {
+                for (int j = 0; j < SUBSCRIPTIONS_PER_PERSON; j++) {
+                    insertSubscription.setObject(1, id(personIds[i]));
+                    insertSubscription.setObject(2, id(deckIds[(i * 7 + j * 131) % DECKS]));
+                    insertSubscription.addBatch();
+                }
+            }
+            insertSubscription.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet sizes = statement.executeQuery(
+                     "SELECT DISK_SPACE_USED('deck'), DISK_SPACE_USED('card'), DISK_SPACE_USED('person_saved_deck')"
+             )) {
+            sizes.next();
+            System.out.printf("%n%s: deck %d KB, card %d KB, person_saved_deck %d KB%n", uuidType,
+                    sizes.getLong(1) / 1024, sizes.getLong(2) / 1024, sizes.getLong(3) / 1024);
+        }
+
+        query = connection.prepareStatement(
+                "SELECT d.deck_id, COUNT(c.card_id) FROM person_saved_deck s " +
+                "JOIN deck d ON d.deck_id = s.deck_id " +
+                "LEFT JOIN card c ON c.deck_id = d.deck_id " +
+                "WHERE s.person_id = ? GROUP BY d.deck_id"
+        );
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        query.close();
+        connection.close();
+    }
+
+    private Object id(UUID id) {
+        if (!uuidType.equals("BINARY"))
+            return id.toString();
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    @Benchmark
+    public long joinSubscribedDecksWithCards() throws SQLException {
+        query.setObject(1, id(personIds[nextPerson++ % PERSONS]));
+        long cards = 0;
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                cards += resultSet.getLong(2);
+            }
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,130 @@
+package at.ac.uibk.swa.config;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.annotations.aspects.MeteredAspect;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.AuthGenerator;
+import at.ac.uibk.swa.util.EndpointMatcherUtil;
+import at.ac.uibk.swa.util.StringGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class TestMetrics {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private EndpointMatcherUtil endpointMatcherUtil;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Person createUserAndLogin(boolean alsoAdmin) {
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        Set<GrantedAuthority> permissions = alsoAdmin ? Permission.adminAuthorities() : Permission.defaultAuthorities();
+        Person person = new Person(username, StringGenerator.email(), password, permissions);
+        assertTrue(personService.create(person), "Unable to create user");
+        return personService.login(username, password).orElseThrow();
+    }
+
+    private long count(String name, String method, MeteredAspect.Outcome outcome) {
+        Timer timer = meterRegistry.find(name).tag("method", method).tag("outcome", outcome.tag()).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private String prometheusEndpoint() {
+        return endpointMatcherUtil.getAdminActuatorEndpoint() + "/prometheus";
+    }
+
+    @Test
+    public void endpointsAndServicesAreTimedByOutcome() throws Exception {
+        // given: a logged-in user and the current counts of the timers
+        Person person = createUserAndLogin(false);
+        long endpointFailuresBefore = count(MeteredAspect.API_REQUESTS_TIMER, "getAllCardsToLearn", MeteredAspect.Outcome.FAILURE);
+        long serviceFailuresBefore = count("swa.card.cards-to-learn", "getAllCardsToLearn", MeteredAspect.Outcome.FAILURE);
+        long endpointSuccessesBefore = count(MeteredAspect.API_REQUESTS_TIMER, "getCreatedDecks", MeteredAspect.Outcome.SUCCESS);
+
+        // when: getting the cards to learn of a deck that does not exist and the created decks
+        mockMvc.perform(MockMvcRequestBuilders.get(endpointMatcherUtil.apiRoute("/get-all-cards-to-learn"))
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                .param("deckId", UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+        );
+        mockMvc.perform(MockMvcRequestBuilders.get(endpointMatcherUtil.apiRoute("/get-created-decks"))
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isOk());
+
+        // then: the endpoint and the service must be recorded with their outcome
+        assertEquals(endpointFailuresBefore + 1, count(MeteredAspect.API_REQUESTS_TIMER, "getAllCardsToLearn", MeteredAspect.Outcome.FAILURE));
+        assertEquals(serviceFailuresBefore + 1, count("swa.card.cards-to-learn", "getAllCardsToLearn", MeteredAspect.Outcome.FAILURE));
+        assertEquals(endpointSuccessesBefore + 1, count(MeteredAspect.API_REQUESTS_TIMER, "getCreatedDecks", MeteredAspect.Outcome.SUCCESS));
+    }
+
+    @Test
+    public void loginIsTimed() {
+        // given: the current count of successful logins
+        long before = count("swa.person.login", "login", MeteredAspect.Outcome.SUCCESS);
+
+        // when: logging in
+        createUserAndLogin(false);
+
+        // then: the login must be recorded
+        assertEquals(before + 1, count("swa.person.login", "login", MeteredAspect.Outcome.SUCCESS));
+    }
+
+    @Test
+    public void userCannotAccessMetrics() throws Exception {
+        // given: a user without admin permission
+        Person person = createUserAndLogin(false);
+
+        // when: accessing the prometheus endpoint
+        mockMvc.perform(MockMvcRequestBuilders.get(prometheusEndpoint())
+                .cookie(AuthGenerator.jwtTokenToCookies(new JwtToken(person)))
+        // then: expect an authorization error
+        ).andExpect(status().is(Matchers.allOf(Matchers.greaterThan(300), Matchers.lessThan(500))));
+    }
+
+    @Test
+    public void adminCanScrapeMetrics() throws Exception {
+        // given: an admin
+        Person admin = createUserAndLogin(true);
+
+        // when: accessing the prometheus endpoint
+        mockMvc.perform(MockMvcRequestBuilders.get(prometheusEndpoint())
+                .cookie(AuthGenerator.jwtTokenToCookies(new JwtToken(admin)))
+        // then: expect the timers, the datasource pool and the hibernate statistics
+        ).andExpectAll(
+                status().isOk(),
+                content().string(Matchers.containsString("swa_person_login_seconds_count")),
+                content().string(Matchers.containsString("hikaricp_connections")),
+                content().string(Matchers.containsString("hibernate_"))
+        );
+    }
+}
@@ -0,0 +1,86 @@
+package at.ac.uibk.swa.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Creates the Schema with the Migrations (like in Production) instead of from the Entities, so the Context only
+ * starts if Hibernate accepts the migrated Schema.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+public class TestSchemaMigrations {
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Set<String> indexes(String table) {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = ?",
+                String.class, table.toUpperCase()
+        );
+        return indexes.stream().map(String::toLowerCase).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void allMigrationsApplied() {
+        // given: the migrations found on the classpath
+        MigrationInfo[] migrations = flyway.info().all();
+        assertTrue(migrations.length > 0, "No migrations found");
+
+        // then: all of them must have been applied
+        assertTrue(Arrays.stream(migrations).allMatch(migration -> migration.getState() == MigrationState.SUCCESS),
+                "Not all migrations were applied: " + Arrays.toString(migrations));
+        assertEquals(migrations[migrations.length - 1].getVersion(), flyway.info().current().getVersion());
+    }
+
+    @Test
+    public void hotQueriesAreIndexed() {
+        // then: the indexes of the token authentication, the due cards, the catalog and the subscriptions must exist
+        assertTrue(indexes("person").contains("idx_person_username_token"));
+        assertTrue(indexes("card_progress_mapping").contains("idx_card_progress_mapping_person_card_progress"));
+        assertTrue(indexes("learning_progress").contains("idx_learning_progress_next_learn"));
+        assertTrue(indexes("card").contains("idx_card_deck_card"));
+        assertTrue(indexes("deck").containsAll(Set.of("idx_deck_catalog", "idx_deck_not_deleted", "idx_deck_creator_deleted")));
+        assertTrue(indexes("person_saved_deck").contains("idx_person_saved_deck_deck_person"));
+    }
+
+    @Test
+    public void replacedIndexesAreDropped() {
+        // then: indexes that are prefixes of the new ones must not be kept
+        assertFalse(indexes("card").contains("idx_card_deck"));
+        assertFalse(indexes("deck").contains("idx_deck_creator"));
+        assertFalse(indexes("card_progress_mapping").contains("idx_card_progress_mapping_person_card"));
+        assertFalse(indexes("person_saved_deck").contains("idx_person_saved_deck_deck"));
+        assertFalse(indexes("person_saved_deck").contains("idx_person_saved_deck_person_deck"));
+    }
+
+    @Test
+    public void subscriptionsAreUnique() {
+        // then: the subscriptions must be unique by person and deck
+        List<String> constraints = jdbcTemplate.queryForList(
+                "SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS WHERE TABLE_NAME = ? AND CONSTRAINT_TYPE = 'UNIQUE'",
+                String.class, "PERSON_SAVED_DECK"
+        );
+        assertTrue(constraints.stream().anyMatch("uk_person_saved_deck_person_deck"::equalsIgnoreCase),
+                "Missing unique constraint: " + constraints);
+    }
+}
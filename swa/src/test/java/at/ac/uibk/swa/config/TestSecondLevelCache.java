@@ -0,0 +1,173 @@
+package at.ac.uibk.swa.config;
+
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.AdminDeckService;
+import at.ac.uibk.swa.service.CardService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.service.deck_service.DeckPage;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TestSecondLevelCache {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private UserDeckService userDeckService;
+    @Autowired
+    private AdminDeckService adminDeckService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private SecondLevelCacheStatistics secondLevelCacheStatistics;
+
+    private Person createUserAndLogin() {
+        String password = StringGenerator.password();
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), password, Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user");
+        return (Person) MockAuthContext.setLoggedInUser(person);
+    }
+
+    private Deck createDeck(int numberOfCards) {
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < numberOfCards; i++) {
+            cards.add(new Card(StringGenerator.cardText(), StringGenerator.cardText(), false));
+        }
+        deck.setCards(cards);
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        return deck;
+    }
+
+    private long hits(String region) {
+        return secondLevelCacheStatistics.getStatistics(region).orElseThrow().hits();
+    }
+
+    private List<Deck> findAllAvailableDecks() {
+        List<Deck> decks = new ArrayList<>();
+        DeckPage page = userDeckService.findAvailableDecks(null, DeckPage.MAX_PAGE_SIZE);
+        decks.addAll(page.decks());
+        while (page.nextCursor() != null) {
+            page = userDeckService.findAvailableDecks(page.nextCursor(), DeckPage.MAX_PAGE_SIZE);
+            decks.addAll(page.decks());
+        }
+        return decks;
+    }
+
+    @AfterEach
+    public void logout() {
+        MockAuthContext.setLoggedInUser(null);
+    }
+
+    @Test
+    public void findByIdHitsCache() {
+        // given: a deck with a card
+        createUserAndLogin();
+        Deck deck = createDeck(1);
+        Card card = deck.getCards().get(0);
+        assertTrue(userDeckService.findById(deck.getDeckId()).isPresent(), "Unable to find deck");
+        assertTrue(cardService.findById(card.getCardId()).isPresent(), "Unable to find card");
+        long deckHitsBefore = hits(SecondLevelCacheConfig.DECK_REGION);
+        long cardHitsBefore = hits(SecondLevelCacheConfig.CARD_REGION);
+
+        // when: loading the deck and the card again
+        assertTrue(userDeckService.findById(deck.getDeckId()).isPresent(), "Unable to find deck");
+        assertTrue(adminDeckService.findById(deck.getDeckId()).isPresent(), "Unable to find deck");
+        assertTrue(cardService.findById(card.getCardId()).isPresent(), "Unable to find card");
+
+        // then: they must be loaded from the cache
+        assertTrue(hits(SecondLevelCacheConfig.DECK_REGION) >= deckHitsBefore + 2, "Deck was not loaded from the cache");
+        assertTrue(hits(SecondLevelCacheConfig.CARD_REGION) > cardHitsBefore, "Card was not loaded from the cache");
+        assertTrue(secondLevelCacheStatistics.getStatistics(SecondLevelCacheConfig.DECK_REGION).orElseThrow().hitRatio() > 0,
+                "Hit ratio was not computed");
+    }
+
+    @Test
+    public void updatesInvalidateCache() {
+        // given: a cached deck with a card
+        createUserAndLogin();
+        Deck deck = createDeck(1);
+        Card card = deck.getCards().get(0);
+        assertEquals(deck.getName(), userDeckService.getDeckNameIfPresent(deck.getDeckId()), "Wrong deck name");
+        assertFalse(userDeckService.findById(deck.getDeckId()).orElseThrow().isBlocked(), "Deck is blocked");
+        assertTrue(cardService.findById(card.getCardId()).isPresent(), "Unable to find card");
+
+        // when: updating the deck and the card and blocking the deck
+        String newName = StringGenerator.deckName();
+        deck.setName(newName);
+        assertTrue(userDeckService.update(deck, false), "Unable to update deck");
+        String newFrontText = StringGenerator.cardText();
+        assertTrue(cardService.update(card.getCardId(), newFrontText, card.getBackText(), true), "Unable to update card");
+        assertTrue(adminDeckService.block(deck.getDeckId()), "Unable to block deck");
+
+        // then: the changes must be visible immediately
+        assertEquals(newName, userDeckService.getDeckNameIfPresent(deck.getDeckId()), "Deck name is stale");
+        Deck loadedDeck = userDeckService.findById(deck.getDeckId()).orElseThrow();
+        assertEquals(newName, loadedDeck.getName(), "Deck is stale");
+        assertTrue(loadedDeck.isBlocked(), "Deck is stale");
+        Card loadedCard = cardService.findById(card.getCardId()).orElseThrow();
+        assertEquals(newFrontText, loadedCard.getFrontText(), "Card is stale");
+        assertTrue(loadedCard.isFlipped(), "Card is stale");
+    }
+
+    @Test
+    public void catalogQueryInvalidated() {
+        // given: a published deck that is in the (cached) catalog
+        createUserAndLogin();
+        Deck deck = createDeck(2);
+        assertTrue(userDeckService.publish(deck.getDeckId()), "Unable to publish deck");
+        MockAuthContext.setLoggedInUser(null);
+        assertTrue(findAllAvailableDecks().contains(deck), "Unable to find published deck");
+        assertTrue(findAllAvailableDecks().contains(deck), "Unable to find published deck");
+
+        // when: unpublishing the deck
+        MockAuthContext.setLoggedInUser(deck.getCreator());
+        assertTrue(userDeckService.unpublish(deck.getDeckId()), "Unable to unpublish deck");
+        MockAuthContext.setLoggedInUser(null);
+
+        // then: the deck must not be in the catalog anymore
+        assertFalse(findAllAvailableDecks().contains(deck), "Found unpublished deck");
+    }
+
+    @Test
+    public void counterUpdatesOnlyEvictChangedDeck() {
+        // given: two cached, published decks
+        Person creator = createUserAndLogin();
+        Deck changedDeck = createDeck(1);
+        Deck otherDeck = createDeck(1);
+        assertTrue(userDeckService.publish(changedDeck.getDeckId()), "Unable to publish deck");
+        assertTrue(userDeckService.findById(changedDeck.getDeckId()).isPresent(), "Unable to find deck");
+        assertTrue(userDeckService.findById(otherDeck.getDeckId()).isPresent(), "Unable to find deck");
+
+        // when: adding a card to one deck and subscribing to it
+        Card card = new Card(StringGenerator.cardText(), StringGenerator.cardText(), false);
+        assertTrue(cardService.create(card, changedDeck.getDeckId()), "Unable to create card");
+        createUserAndLogin();
+        assertTrue(userDeckService.subscribe(changedDeck.getDeckId()), "Unable to subscribe to deck");
+        MockAuthContext.setLoggedInUser(creator);
+
+        // then: the other deck must still be cached and the changed deck must show the new counters
+        long deckHitsBefore = hits(SecondLevelCacheConfig.DECK_REGION);
+        assertTrue(userDeckService.findById(otherDeck.getDeckId()).isPresent(), "Unable to find deck");
+        assertTrue(hits(SecondLevelCacheConfig.DECK_REGION) > deckHitsBefore, "Unchanged deck was evicted");
+        Deck loadedDeck = userDeckService.findById(changedDeck.getDeckId()).orElseThrow();
+        assertEquals(2, loadedDeck.getCardCount(), "Card count is stale");
+        assertEquals(2, loadedDeck.getSubscriberCount(), "Subscriber count is stale");
+    }
+}
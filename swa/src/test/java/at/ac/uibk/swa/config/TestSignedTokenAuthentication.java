@@ -0,0 +1,135 @@
+package at.ac.uibk.swa.config;
+
+import at.ac.uibk.swa.config.jwt_authentication.PersonPrincipal;
+import at.ac.uibk.swa.config.jwt_authentication.SignedTokenCodec;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.EndpointMatcherUtil;
+import at.ac.uibk.swa.util.StringGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "swa.token.stateless.enabled=true",
+        "swa.token.stateless.secret=test-secret"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TestSignedTokenAuthentication {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private SignedTokenCodec signedTokenCodec;
+    @Autowired
+    private EndpointMatcherUtil endpointMatcherUtil;
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private String createUserAndLogin(Set<Permission> permissions) throws Exception {
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        Person person = new Person(username, StringGenerator.email(), password, (Set) permissions);
+        assertTrue(personService.create(person), "Unable to create user");
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(endpointMatcherUtil.apiRoute(EndpointMatcherUtil.LOGIN_ENDPOINT))
+                .param("username", username)
+                .param("password", password)
+        ).andExpect(status().isOk()).andReturn();
+        String signedToken = mapper.readTree(result.getResponse().getContentAsString()).path("signedToken").asText(null);
+        assertNotNull(signedToken, "Login did not return a signed token");
+        return signedToken;
+    }
+
+    private void performWithToken(String route, String signedToken, int expectedStatus) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(route)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + signedToken)
+                .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(status().is(expectedStatus));
+    }
+
+    @Test
+    public void signedTokenContainsPrincipal() throws Exception {
+        // given: a logged-in admin
+        String signedToken = createUserAndLogin(Set.of(Permission.ADMIN));
+
+        // when: decoding the token
+        Optional<PersonPrincipal> maybePrincipal = signedTokenCodec.verify(signedToken);
+
+        // then: the token must contain the permissions of the user
+        assertTrue(maybePrincipal.isPresent(), "Could not verify signed token");
+        assertEquals(Set.of(Permission.ADMIN), maybePrincipal.get().getPermissions(), "Token contains wrong permissions");
+    }
+
+    @Test
+    public void accessApiWithSignedToken() throws Exception {
+        // given: a logged-in user
+        String signedToken = createUserAndLogin(Set.of(Permission.USER));
+
+        // when/then: accessing the api with the signed token must be possible
+        performWithToken(endpointMatcherUtil.apiRoute("/test"), signedToken, 200);
+        // when/then: accessing an admin endpoint must be forbidden
+        performWithToken(endpointMatcherUtil.apiRoute("/testAdmin"), signedToken, 403);
+    }
+
+    @Test
+    public void accessAdminRouteWithSignedCookie() throws Exception {
+        // given: a logged-in admin
+        String signedToken = createUserAndLogin(Set.of(Permission.ADMIN));
+
+        // when/then: accessing an admin page with the signed token as cookie must be possible
+        mockMvc.perform(MockMvcRequestBuilders.get(endpointMatcherUtil.adminRoute("/test"))
+                .cookie(new Cookie("token", signedToken))
+                .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isOk());
+    }
+
+    @Test
+    public void tamperedTokenIsRejected() throws Exception {
+        // given: a logged-in user
+        String signedToken = createUserAndLogin(Set.of(Permission.USER));
+
+        // when: changing the signature of the token
+        int signatureStart = signedToken.indexOf('.') + 1;
+        char first = signedToken.charAt(signatureStart);
+        String tamperedToken = signedToken.substring(0, signatureStart)
+                + (first == 'A' ? 'B' : 'A')
+                + signedToken.substring(signatureStart + 1);
+
+        // then: the token must be rejected
+        performWithToken(endpointMatcherUtil.apiRoute("/test"), tamperedToken, 401);
+    }
+
+    @Test
+    public void logoutRevokesSignedToken() throws Exception {
+        // given: a logged-in user
+        String signedToken = createUserAndLogin(Set.of(Permission.USER));
+        performWithToken(endpointMatcherUtil.apiRoute("/test"), signedToken, 200);
+
+        // when: logging out with the signed token
+        mockMvc.perform(MockMvcRequestBuilders.post(endpointMatcherUtil.apiRoute(EndpointMatcherUtil.LOGOUT_ENDPOINT))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + signedToken)
+        ).andExpect(status().isOk());
+
+        // then: the token must not be accepted anymore
+        performWithToken(endpointMatcherUtil.apiRoute("/test"), signedToken, 401);
+    }
+}
@@ -0,0 +1,206 @@
+package at.ac.uibk.swa.config;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.config.jwt_authentication.PersonPrincipal;
+import at.ac.uibk.swa.config.jwt_authentication.TokenCache;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.AuthGenerator;
+import at.ac.uibk.swa.util.EndpointMatcherUtil;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TestTokenCache {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private TokenCache tokenCache;
+    @Autowired
+    private EndpointMatcherUtil endpointMatcherUtil;
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Person createUserAndLogin() {
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        Person person = new Person(username, StringGenerator.email(), password, Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user");
+        return personService.login(username, password).orElseThrow();
+    }
+
+    private static PersonPrincipal principal(LocalDateTime tokenCreationDate) {
+        return new PersonPrincipal(UUID.randomUUID(), StringGenerator.username(), 1, tokenCreationDate);
+    }
+
+    private static JwtToken token(PersonPrincipal principal) {
+        return new JwtToken(principal.getUsername(), UUID.randomUUID());
+    }
+
+    @Test
+    public void repeatedRequestsHitCache() throws Exception {
+        // given: a logged-in user
+        Person person = createUserAndLogin();
+        String token = AuthGenerator.generateToken(person);
+
+        // when: sending multiple requests with the same token
+        TokenCache.Statistics before = tokenCache.getStatistics();
+        int numberOfRequests = 5;
+        for (int i = 0; i < numberOfRequests; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get(endpointMatcherUtil.apiRoute("/test"))
+                    .header(HttpHeaders.AUTHORIZATION, token)
+                    .contentType(MediaType.APPLICATION_JSON)
+            ).andExpect(status().isOk());
+        }
+
+        // then: only the first request must have missed the cache
+        TokenCache.Statistics after = tokenCache.getStatistics();
+        assertEquals(1, after.misses() - before.misses(), "Token was not cached");
+        assertEquals(numberOfRequests - 1, after.hits() - before.hits(), "Cache was not used");
+    }
+
+    @Test
+    public void logoutEvictsToken() throws Exception {
+        // given: a logged-in user whose token has been cached
+        Person person = createUserAndLogin();
+        String token = AuthGenerator.generateToken(person);
+        mockMvc.perform(MockMvcRequestBuilders.get(endpointMatcherUtil.apiRoute("/test"))
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isOk());
+
+        // when: logging out
+        MockAuthContext.setLoggedInUser(person);
+        assertTrue(personService.logout(), "Could not log out");
+
+        // then: the token must not be accepted anymore
+        mockMvc.perform(MockMvcRequestBuilders.get(endpointMatcherUtil.apiRoute("/test"))
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        // given: a cache that can only hold two tokens
+        TokenCache cache = new TokenCache(2, Duration.ofMinutes(5), Duration.ofHours(1));
+        PersonPrincipal first = principal(LocalDateTime.now());
+        PersonPrincipal second = principal(LocalDateTime.now());
+        PersonPrincipal third = principal(LocalDateTime.now());
+        JwtToken firstToken = token(first);
+        JwtToken secondToken = token(second);
+        JwtToken thirdToken = token(third);
+        cache.put(firstToken, first, cache.getGeneration());
+        cache.put(secondToken, second, cache.getGeneration());
+
+        // when: using the first token and caching a third one
+        assertTrue(cache.get(firstToken).isPresent(), "First token was not cached");
+        cache.put(thirdToken, third, cache.getGeneration());
+
+        // then: the second token must have been evicted
+        assertTrue(cache.get(firstToken).isPresent(), "Recently used token was evicted");
+        assertTrue(cache.get(secondToken).isEmpty(), "Least recently used token was not evicted");
+        assertTrue(cache.get(thirdToken).isPresent(), "New token was not cached");
+        assertEquals(new TokenCache.Statistics(3, 1, 1, 2), cache.getStatistics(), "Wrong statistics");
+    }
+
+    @Test
+    public void statisticsArePublishedAsMetrics() {
+        // given: a cache bound to a meter registry
+        TokenCache cache = new TokenCache(10, Duration.ofMinutes(5), Duration.ofHours(1));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        PersonPrincipal principal = principal(LocalDateTime.now());
+        JwtToken token = token(principal);
+
+        // when: missing, caching, hitting and evicting a token
+        assertTrue(cache.get(token).isEmpty(), "Token was cached before putting it");
+        cache.put(token, principal, cache.getGeneration());
+        assertTrue(cache.get(token).isPresent(), "Token was not cached");
+        cache.evict(principal.getId());
+
+        // then: the metrics must match the statistics
+        assertEquals(1, registry.get("swa.token.cache.lookups").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("swa.token.cache.lookups").tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("swa.token.cache.evictions").functionCounter().count());
+        assertEquals(0, registry.get("swa.token.cache.size").gauge().value());
+    }
+
+    @Test
+    public void principalReadBeforeEvictionIsNotCached() {
+        // given: a principal that is read from the database while its person is evicted
+        TokenCache cache = new TokenCache(10, Duration.ofMinutes(5), Duration.ofHours(1));
+        PersonPrincipal principal = principal(LocalDateTime.now());
+        JwtToken token = token(principal);
+        long generation = cache.getGeneration();
+        cache.evict(principal.getId());
+
+        // when: caching the principal that has been read before the eviction
+        cache.put(token, principal, generation);
+
+        // then: the (possibly outdated) principal must not be cached, but later reads must be
+        assertTrue(cache.get(token).isEmpty(), "Outdated principal was cached");
+        cache.put(token, principal, cache.getGeneration());
+        assertTrue(cache.get(token).isPresent(), "Principal read after the eviction was not cached");
+    }
+
+    @Test
+    public void expiredEntryIsEvicted() {
+        // given: a token that has already expired
+        TokenCache cache = new TokenCache(10, Duration.ofMinutes(5), Duration.ofHours(1));
+        PersonPrincipal principal = principal(LocalDateTime.now().minusHours(2));
+        JwtToken token = token(principal);
+
+        // when: caching the token
+        cache.put(token, principal, cache.getGeneration());
+
+        // then: the token must not be returned
+        assertTrue(cache.get(token).isEmpty(), "Expired token was returned");
+        assertEquals(0, cache.getStatistics().size(), "Expired token is still cached");
+    }
+
+    @Test
+    public void evictRemovesAllTokensOfPerson() {
+        // given: a person with multiple cached tokens and another person
+        TokenCache cache = new TokenCache(10, Duration.ofMinutes(5), Duration.ofHours(1));
+        PersonPrincipal principal = principal(LocalDateTime.now());
+        PersonPrincipal other = principal(LocalDateTime.now());
+        JwtToken firstToken = token(principal);
+        JwtToken secondToken = token(principal);
+        JwtToken otherToken = token(other);
+        cache.put(firstToken, principal, cache.getGeneration());
+        cache.put(secondToken, principal, cache.getGeneration());
+        cache.put(otherToken, other, cache.getGeneration());
+
+        // when: evicting the person
+        cache.evict(principal.getId());
+
+        // then: only the tokens of the other person must remain
+        assertTrue(cache.get(firstToken).isEmpty(), "Token was not evicted");
+        assertTrue(cache.get(secondToken).isEmpty(), "Token was not evicted");
+        assertTrue(cache.get(otherToken).isPresent(), "Token of other person was evicted");
+        assertEquals(2, cache.getStatistics().evictions(), "Wrong number of evictions");
+    }
+}
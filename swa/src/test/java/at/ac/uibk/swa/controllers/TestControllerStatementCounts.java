@@ -0,0 +1,216 @@
+package at.ac.uibk.swa.controllers;
+
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.CardService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.util.AuthGenerator;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.RequestCostMeter;
+import at.ac.uibk.swa.util.SetupH2Console;
+import at.ac.uibk.swa.util.StringGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 Queries: the Number of SQL-Statements of an Endpoint must not depend on the Number of
+ * Decks, Cards or Learning Progresses it returns.
+ * <br/>
+ * Additionally, every Endpoint has a Budget of Statements and allocated Memory per Request (see {@link #budgets()}),
+ * so additional Queries (e.g. a new EAGER Relation) or Allocations fail the Build.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@ExtendWith({SetupH2Console.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestControllerStatementCounts {
+    // Upper Bound for the Statements of a single Request (Authentication included).
+    private static final long MAX_STATEMENTS = 10;
+    // The Data of the Person whose Requests are measured against the Budgets.
+    private static final int BUDGET_DECKS = 3;
+    private static final int BUDGET_CARDS = 5;
+
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private UserDeckService userDeckService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private MockMvc mockMvc;
+
+    private RequestCostMeter requestCostMeter;
+    private Person person;
+    private Deck deck;
+    private Person budgetPerson;
+    private Deck budgetDeck;
+
+    private Person createUserAndLogin(boolean alsoAdmin) {
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        Set<GrantedAuthority> permissions = new java.util.HashSet<>(Set.of(Permission.USER));
+        if (alsoAdmin) {
+            permissions.add(Permission.ADMIN);
+        }
+        Person person = new Person(username, StringGenerator.email(), password, permissions);
+        assertTrue(personService.create(person), "Unable to create user");
+        return (Person) MockAuthContext.setLoggedInUser(personService.login(username, password).orElse(null));
+    }
+
+    private Deck createDeck(Person creator, int numberOfCards) {
+        MockAuthContext.setLoggedInUser(creator);
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        assertTrue(userDeckService.publish(deck.getDeckId()), "Unable to publish deck");
+        addLearntCards(creator, deck, numberOfCards);
+        MockAuthContext.setLoggedInUser(null);
+        return deck;
+    }
+
+    private void addLearntCards(Person creator, Deck deck, int numberOfCards) {
+        MockAuthContext.setLoggedInUser(creator);
+        for (int i = 0; i < numberOfCards; i++) {
+            Card card = new Card(StringGenerator.cardText(), StringGenerator.cardText(), false);
+            assertTrue(cardService.create(card, deck.getDeckId()), "Unable to create card");
+            assertTrue(cardService.learn(card.getCardId(), 3), "Unable to learn card");
+        }
+        MockAuthContext.setLoggedInUser(null);
+    }
+
+    /**
+     * Adds Decks of the Person, Decks of other Persons (which the Person subscribes to) and Cards to the
+     * Deck of the Person, so that every Endpoint returns more Data than before.
+     */
+    private void addData(Person person, Deck deck, int numberOfDecks, int numberOfCards) {
+        for (int i = 0; i < numberOfDecks; i++) {
+            createDeck(person, numberOfCards);
+
+            Person other = createUserAndLogin(false);
+            Deck otherDeck = createDeck(other, numberOfCards);
+            MockAuthContext.setLoggedInUser(person);
+            assertTrue(userDeckService.subscribe(otherDeck.getDeckId()), "Unable to subscribe to deck");
+            MockAuthContext.setLoggedInUser(null);
+        }
+        addLearntCards(person, deck, numberOfCards);
+    }
+
+    private MockHttpServletRequestBuilder request(Person person, Deck deck, String endpoint) throws Exception {
+        return MockMvcRequestBuilders.get(endpoint)
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                .param("deckId", deck.getDeckId().toString())
+                .param("personId", person.getPersonId().toString())
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private long countStatements(String endpoint) throws Exception {
+        var request = request(person, deck, endpoint);
+
+        // NOTE: The first Request might have to load the Token, which should not be counted.
+        mockMvc.perform(request).andExpect(status().isOk());
+        return requestCostMeter.measure(() -> mockMvc.perform(request).andExpectAll(
+                status().isOk(),
+                jsonPath("$.success").value(true)
+        )).statements();
+    }
+
+    @BeforeAll
+    public void setup() {
+        requestCostMeter = new RequestCostMeter(entityManagerFactory);
+
+        person = createUserAndLogin(true);
+        MockAuthContext.setLoggedInUser(null);
+        deck = createDeck(person, 1);
+        addData(person, deck, 1, 1);
+
+        budgetPerson = createUserAndLogin(true);
+        MockAuthContext.setLoggedInUser(null);
+        budgetDeck = createDeck(budgetPerson, BUDGET_CARDS);
+        addData(budgetPerson, budgetDeck, BUDGET_DECKS, BUDGET_CARDS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/get-user-decks",
+            "/api/get-created-decks",
+            "/api/get-subscribed-decks",
+            "/api/get-given-user-decks",
+            "/api/get-published-decks",
+            "/api/get-all-decks",
+            "/api/get-cards-of-deck",
+            "/api/get-all-cards-to-learn"
+    })
+    public void statementCountIndependentOfData(String endpoint) throws Exception {
+        // given: the number of statements of an endpoint
+        long statementsBefore = countStatements(endpoint);
+
+        // when: adding more decks, cards and learning progresses
+        addData(person, deck, 3, 5);
+        long statementsAfter = countStatements(endpoint);
+
+        // then: the number of statements must not change
+        assertEquals(statementsBefore, statementsAfter, "Number of statements of " + endpoint + " depends on the data");
+        assertTrue(statementsAfter <= MAX_STATEMENTS, endpoint + " executed " + statementsAfter + " statements");
+    }
+
+    /**
+     * The Budgets of the Endpoints (for the Data of {@link #budgetPerson}).
+     * The Endpoints listing all Decks only have a Budget of Statements, because they return the Decks of all Tests.
+     */
+    private static Stream<Arguments> budgets() {
+        return Stream.of(
+                arguments("/api/get-user-decks", RequestCostMeter.Budget.statements(5).allocatedKilobytes(1536)),
+                arguments("/api/get-created-decks", RequestCostMeter.Budget.statements(4).allocatedKilobytes(1024)),
+                arguments("/api/get-subscribed-decks", RequestCostMeter.Budget.statements(5).allocatedKilobytes(1024)),
+                arguments("/api/get-given-user-decks", RequestCostMeter.Budget.statements(7).allocatedKilobytes(2048)),
+                arguments("/api/get-published-decks", RequestCostMeter.Budget.statements(2)),
+                arguments("/api/get-all-decks", RequestCostMeter.Budget.statements(2)),
+                arguments("/api/get-cards-of-deck", RequestCostMeter.Budget.statements(1).allocatedKilobytes(1024)),
+                arguments("/api/get-all-cards-to-learn", RequestCostMeter.Budget.statements(3).allocatedKilobytes(1024))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("budgets")
+    public void requestWithinBudget(String endpoint, RequestCostMeter.Budget budget) throws Exception {
+        // given: a request that has already been executed once (so the token and the caches are loaded)
+        var request = request(budgetPerson, budgetDeck, endpoint);
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        // when: executing the request again
+        // then: it must stay within its budget
+        requestCostMeter.assertWithin(endpoint, budget,
+                () -> mockMvc.perform(request).andExpect(status().isOk())
+        );
+    }
+}
@@ -9,6 +9,7 @@ import at.ac.uibk.swa.service.PersonService;
 import at.ac.uibk.swa.service.UserDeckService;
 import at.ac.uibk.swa.util.*;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -126,4 +127,24 @@ public class TestCardControllerGeneral {
                 jsonPath("$.items").value(Matchers.hasSize(expectCards ? deck.getCards().size() : 0))
         );
     }
+
+    @Test
+    public void learnInvalidBatch() throws Exception {
+        // given: a user
+        Person person = createUserAndLogin(false);
+        String review = "{\"cardId\": \"" + UUID.randomUUID() + "\", \"grade\": 5}";
+        String tooManyReviews = Collections.nCopies(1001, review).toString();
+
+        for (String body : List.of("", "null", tooManyReviews)) {
+            // when: learning without reviews or with too many reviews
+            mockMvc.perform(MockMvcRequestBuilders.post("/api/learn-batch")
+                    .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                    .content(body)
+                    .contentType(MediaType.APPLICATION_JSON)
+            // then: the batch must be rejected
+            ).andExpectAll(
+                    jsonPath("$.success").value(false)
+            );
+        }
+    }
 }
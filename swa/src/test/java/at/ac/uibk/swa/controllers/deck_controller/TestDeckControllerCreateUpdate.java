@@ -234,7 +234,7 @@ class TestDeckControllerCreateUpdate {
         );
 
         assertEquals(0, deckRepository.count() - numberOfDecksBefore, "Created a new deck instead of updating the old one");
-        Optional<Deck> maybeDeck = deckRepository.findById(initialDeck.getDeckId());
+        Optional<Deck> maybeDeck = deckRepository.findWithCardsById(initialDeck.getDeckId());
         assertTrue(maybeDeck.isPresent(), "Unable to find updated deck");
         Deck updatedDeck = maybeDeck.get();
         assertEquals(updatedDeckName, updatedDeck.getName(), "Deck name did not get updated");
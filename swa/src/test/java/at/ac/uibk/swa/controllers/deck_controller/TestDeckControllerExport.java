@@ -0,0 +1,170 @@
+package at.ac.uibk.swa.controllers.deck_controller;
+
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.CardService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.util.AuthGenerator;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.SetupH2Console;
+import at.ac.uibk.swa.util.StringGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@ExtendWith({SetupH2Console.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestDeckControllerExport {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private UserDeckService userDeckService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Person createUserAndLogin() {
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        Person person = new Person(username, StringGenerator.email(), password, Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user");
+        return (Person) MockAuthContext.setLoggedInUser(personService.login(username, password).orElse(null));
+    }
+
+    private Deck createDeck(Person creator, List<Card> cards) {
+        MockAuthContext.setLoggedInUser(creator);
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        deck.setCards(cards);
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        return deck;
+    }
+
+    private MvcResult export(Person person, Deck deck, String format, boolean withProgress, boolean gzip) throws Exception {
+        var request = MockMvcRequestBuilders.get("/api/export-deck")
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                .param("deckId", deck.getDeckId().toString())
+                .param("format", format)
+                .param("with-progress", Boolean.toString(withProgress));
+        if (gzip) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    @Test
+    public void exportJsonLinesWithProgress() throws Exception {
+        // given: a deck with some cards, of which one has been learned by the creator
+        Person person = createUserAndLogin();
+        int numberOfCards = 25;
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < numberOfCards; i++) {
+            cards.add(new Card(StringGenerator.cardText(), StringGenerator.cardText(), i % 2 == 0));
+        }
+        Deck deck = createDeck(person, cards);
+        Card learnedCard = cards.get(0);
+        assertTrue(cardService.learn(learnedCard.getCardId(), 3), "Unable to learn card");
+
+        // when: exporting the deck as json lines with the learning progresses
+        MvcResult result = export(person, deck, "jsonl", true, false);
+
+        // then: every card must be exported in one line (ordered by id) with its learning progress
+        assertEquals("application/x-ndjson", result.getResponse().getContentType(), "Wrong content type");
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(numberOfCards, lines.length, "Wrong number of exported cards");
+        List<UUID> exportedIds = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            UUID cardId = UUID.fromString(node.get("cardId").asText());
+            exportedIds.add(cardId);
+            Card card = cards.stream().filter(c -> c.getCardId().equals(cardId)).findFirst().orElseThrow();
+            assertEquals(card.getFrontText(), node.get("frontText").asText(), "Wrong front text");
+            assertEquals(card.getBackText(), node.get("backText").asText(), "Wrong back text");
+            assertEquals(card.isFlipped(), node.get("flipped").asBoolean(), "Wrong flipped state");
+            assertEquals(card.equals(learnedCard), node.has("repetitions"), "Wrong learning progress of " + cardId);
+        }
+        assertEquals(exportedIds.stream().map(UUID::toString).sorted().toList(),
+                exportedIds.stream().map(UUID::toString).toList(), "Cards are not ordered by id");
+    }
+
+    @Test
+    public void exportCsvCompressed() throws Exception {
+        // given: a deck with a card whose text has to be quoted
+        Person person = createUserAndLogin();
+        Deck deck = createDeck(person, List.of(
+                new Card("Front, with comma", "Back with \"quotes\"", true),
+                new Card("front", "back", false)
+        ));
+
+        // when: exporting the deck as gzip compressed csv
+        MvcResult result = export(person, deck, "csv", false, true);
+
+        // then: the decompressed export must contain a header and the quoted cards
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING), "Export is not compressed");
+        byte[] decompressed;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            decompressed = input.readAllBytes();
+        }
+        List<String> lines = new String(decompressed, StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size(), "Wrong number of lines");
+        assertEquals("front,back,flipped", lines.get(0), "Wrong header");
+        assertTrue(lines.contains("\"Front, with comma\",\"Back with \"\"quotes\"\"\",true"), "Card was not quoted");
+        assertTrue(lines.contains("front,back,false"), "Card was not exported");
+    }
+
+    @Test
+    public void exportForeignUnpublishedDeck() throws Exception {
+        // given: an unpublished deck of another user
+        Person creator = createUserAndLogin();
+        Deck deck = createDeck(creator, List.of(new Card("front", "back", false)));
+        Person person = createUserAndLogin();
+
+        // when: trying to export that deck
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/export-deck")
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                .param("deckId", deck.getDeckId().toString())
+        ).andExpect(request().asyncStarted()).andReturn();
+
+        // then: the deck must not be exported (the error is streamed as well)
+        mockMvc.perform(asyncDispatch(result)).andExpectAll(
+                status().isNotFound(),
+                jsonPath("$.success").value(false)
+        );
+    }
+}
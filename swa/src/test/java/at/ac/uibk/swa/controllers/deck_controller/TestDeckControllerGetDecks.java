@@ -8,7 +8,9 @@ import at.ac.uibk.swa.repositories.DeckRepository;
 import at.ac.uibk.swa.service.AdminDeckService;
 import at.ac.uibk.swa.service.PersonService;
 import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.service.deck_service.DeckPage;
 import at.ac.uibk.swa.util.*;
+import com.jayway.jsonpath.JsonPath;
 import org.hamcrest.Matchers;
 import org.hamcrest.core.IsNot;
 import org.junit.jupiter.api.Test;
@@ -17,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -32,6 +35,7 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -106,8 +110,9 @@ public class TestDeckControllerGetDecks {
         MockAuthContext.setLoggedInUser(null);
     }
 
-    @Test
-    public void getPublishedDecks() throws Exception {
+    @ParameterizedTest
+    @ValueSource(ints = {3, DeckPage.MAX_PAGE_SIZE})
+    public void getPublishedDecks(int pageSize) throws Exception {
         // given: decks, where the logged in user is subscribed to half of them
         Person person = createUserAndLogin(false);
         List<Boolean[]> configs = ArgumentGenerator.booleans(4).map(a -> (Boolean[]) a.get()).toList();
@@ -121,30 +126,39 @@ public class TestDeckControllerGetDecks {
                 createDeck(2, published, blocked, deleted, subscribed ? person : null);
             }
         }
+        List<Deck> savedDecks = personService.findById(person.getPersonId()).orElseThrow().getSavedDecks();
         List<Deck> decksToFind = deckRepository.findAll().stream()
                 .filter(Predicate.not(Deck::isDeleted))
                 .filter(Predicate.not(Deck::isBlocked))
                 .filter(Deck::isPublished)
-                .filter(d -> !person.getSavedDecks().contains(d))
+                .filter(d -> !savedDecks.contains(d))
                 .toList();
 
-        // when: loading all decks available for subscription
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/get-published-decks")
-                        .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
-                        .contentType(MediaType.APPLICATION_JSON)
-        // then: returned decks must be as expected
-        ).andExpectAll(
-                status().isOk(),
-                jsonPath("$.items").isArray(),
-                jsonPath("$.items").value(Matchers.hasSize(decksToFind.size())),
-                jsonPath("$.items[*].deckId").value(
-                        Matchers.containsInAnyOrder(
-                                decksToFind.stream()
-                                        .map(d -> d.getDeckId().toString())
-                                        .toArray(String[]::new)
-                        )
-                )
-        );
+        // when: loading all decks available for subscription page by page
+        List<String> foundDeckIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = MockMvcRequestBuilders.get("/api/get-published-decks")
+                    .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                    .param("limit", String.valueOf(pageSize))
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String response = mockMvc.perform(request).andExpectAll(
+                    status().isOk(),
+                    jsonPath("$.items").isArray(),
+                    jsonPath("$.items").value(Matchers.hasSize(Matchers.lessThanOrEqualTo(pageSize)))
+            ).andReturn().getResponse().getContentAsString();
+            foundDeckIds.addAll(JsonPath.read(response, "$.items[*].deckId"));
+            cursor = JsonPath.<Map<String, Object>>read(response, "$").containsKey("nextCursor") ?
+                    JsonPath.read(response, "$.nextCursor") : null;
+        } while (cursor != null);
+
+        // then: returned decks must be as expected and ordered by their id
+        assertEquals(decksToFind.size(), foundDeckIds.size(), "Found more/less decks than expected");
+        assertTrue(foundDeckIds.containsAll(decksToFind.stream().map(d -> d.getDeckId().toString()).toList()), "Unable to find all decks");
+        assertEquals(foundDeckIds.stream().sorted().toList(), foundDeckIds, "Decks are not ordered by their id");
     }
 
     private Stream<Arguments> getCreatedAndSubscribedDecksConfig() {
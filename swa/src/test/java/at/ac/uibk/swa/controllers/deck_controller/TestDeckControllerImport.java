@@ -0,0 +1,159 @@
+package at.ac.uibk.swa.controllers.deck_controller;
+
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.DeckRepository;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.util.AuthGenerator;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.SetupH2Console;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@ExtendWith({SetupH2Console.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestDeckControllerImport {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private UserDeckService userDeckService;
+    @Autowired
+    private DeckRepository deckRepository;
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Person createUserAndLogin() {
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        Person person = new Person(username, StringGenerator.email(), password, Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user");
+        return (Person) MockAuthContext.setLoggedInUser(personService.login(username, password).orElse(null));
+    }
+
+    private Deck createDeck(Person creator) {
+        MockAuthContext.setLoggedInUser(creator);
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        deck.setCards(List.of(new Card(StringGenerator.cardText(), StringGenerator.cardText(), false)));
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        MockAuthContext.setLoggedInUser(null);
+        return deck;
+    }
+
+    private MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void importIntoNewDeck() throws Exception {
+        // given: a user and a csv file with more cards than fit into one batch and some invalid lines
+        Person person = createUserAndLogin();
+        int numberOfCards = 1200;
+        StringBuilder csv = new StringBuilder("front,back,flipped\n");
+        csv.append("\"Front, with comma\",\"Back with \"\"quotes\"\"\nand a line break\",true\n");
+        for (int i = 1; i < numberOfCards; i++) {
+            csv.append("front ").append(i).append(",back ").append(i).append("\r\n");
+            if (i == 10) {
+                csv.append("only front\n");
+            }
+        }
+        csv.append("front,back,maybe\n");
+
+        // when: importing the file without a deck
+        String response = mockMvc.perform(MockMvcRequestBuilders.multipart("/api/import-deck")
+                .file(file("imported.csv", csv.toString()))
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+        // then: all valid cards must be imported into a new deck and the invalid lines must be reported
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.success").value(true),
+                jsonPath("$.importedCards").value(numberOfCards),
+                jsonPath("$.failedLines").value(2),
+                jsonPath("$.errors.length()").value(2),
+                jsonPath("$.errors[0].line").value(14),
+                jsonPath("$.errors[1].line").value(numberOfCards + 4)
+        ).andReturn().getResponse().getContentAsString();
+
+        List<Deck> createdDecks = deckRepository.findAllNotDeletedByCreator(person.getPersonId());
+        assertEquals(1, createdDecks.size(), "Expected exactly one created deck");
+        Deck deck = deckRepository.findWithCardsById(createdDecks.get(0).getDeckId()).orElseThrow();
+        assertTrue(response.contains(deck.getDeckId().toString()), "Response does not contain the deck");
+        assertEquals("imported", deck.getName(), "Deck was not named after the file");
+        assertEquals(numberOfCards, deck.getCards().size(), "Wrong number of cards");
+        Card quotedCard = deck.getCards().stream()
+                .filter(c -> c.getFrontText().equals("Front, with comma"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Back with \"quotes\"\nand a line break", quotedCard.getBackText(), "Quoted field was not parsed");
+        assertTrue(quotedCard.isFlipped(), "Card was not flipped");
+    }
+
+    @Test
+    public void importTsvIntoExistingDeck() throws Exception {
+        // given: a user that created a deck with one card and a tsv file
+        Person person = createUserAndLogin();
+        Deck deck = createDeck(person);
+
+        // when: importing the file into the deck
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/import-deck")
+                .file(file("cards.txt", "a, b\tc, d\ne\tf\tfalse\n"))
+                .param("deckId", deck.getDeckId().toString())
+                .param("format", "tsv")
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+        // then: the cards must be added to the deck
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.success").value(true),
+                jsonPath("$.importedCards").value(2),
+                jsonPath("$.failedLines").value(0)
+        );
+        Deck updatedDeck = deckRepository.findWithCardsById(deck.getDeckId()).orElseThrow();
+        assertEquals(3, updatedDeck.getCards().size(), "Wrong number of cards");
+        assertTrue(updatedDeck.getCards().stream().anyMatch(c -> c.getFrontText().equals("a, b") && c.getBackText().equals("c, d")),
+                "Did not find imported card");
+    }
+
+    @Test
+    public void importIntoForeignDeck() throws Exception {
+        // given: a deck created by another user
+        Person creator = createUserAndLogin();
+        Deck deck = createDeck(creator);
+        Person person = createUserAndLogin();
+
+        // when: trying to import cards into that deck
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/import-deck")
+                .file(file("cards.csv", "front,back\n"))
+                .param("deckId", deck.getDeckId().toString())
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+        // then: nothing must be imported
+        ).andExpectAll(
+                jsonPath("$.success").value(false)
+        );
+        assertEquals(1, deckRepository.findWithCardsById(deck.getDeckId()).orElseThrow().getCards().size(),
+                "Cards have been imported into a foreign deck");
+    }
+}
@@ -7,6 +7,7 @@ import at.ac.uibk.swa.models.Person;
 import at.ac.uibk.swa.service.PersonService;
 import at.ac.uibk.swa.service.UserDeckService;
 import at.ac.uibk.swa.util.*;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -26,9 +27,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -127,4 +130,61 @@ public class TestDeckControllerSubscribeUnsubscribe {
         assertEquals(0, subscriber.getSavedDecks().size(), "Found more saved decks than expected");
         assertFalse(subscriber.getSavedDecks().contains(deck), "Still found the deck");
     }
+
+    @ParameterizedTest
+    @MethodSource("subscribeUnsubscribeConfig")
+    public void subscribeToDecksAtOnce(
+            boolean creatorIsAlsoAdmin,
+            boolean subscriberIsAlsoAdmin
+    ) throws Exception {
+        // given: public decks created by a user and another user
+        List<Deck> decks = List.of(createDeck(1, creatorIsAlsoAdmin), createDeck(1, creatorIsAlsoAdmin));
+        Person person = createUserAndLogin(subscriberIsAlsoAdmin);
+
+        // when: trying to subscribe to all decks at once
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/subscribe-decks")
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                .content(decks.stream().map(deck -> "\"" + deck.getDeckId() + "\"").toList().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+        // then: status must be ok and user must have all decks added to saved decks
+        ).andExpectAll(
+                status().isOk()
+        );
+        Person subscriber = personService.findById(person.getPersonId()).orElseThrow();
+        assertEquals(decks.size(), subscriber.getSavedDecks().size(), "Found more/less saved decks than expected");
+        assertTrue(subscriber.getSavedDecks().containsAll(decks), "Did not find the expected decks");
+
+        // when: trying to unsubscribe from all decks at once
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/unsubscribe-decks")
+                .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                .content(decks.stream().map(deck -> "\"" + deck.getDeckId() + "\"").toList().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+        // then: status must be ok and user must have all decks removed from saved decks
+        ).andExpectAll(
+                status().isOk()
+        );
+        assertEquals(0, personService.findById(person.getPersonId()).orElseThrow().getSavedDecks().size(),
+                "Found more saved decks than expected");
+    }
+
+    @Test
+    public void subscribeToInvalidDecksAtOnce() throws Exception {
+        // given: a user
+        Person person = createUserAndLogin(false);
+        List<String> tooManyDeckIds = Stream.generate(() -> "\"" + UUID.randomUUID() + "\"").limit(1001).toList();
+
+        for (String endpoint : List.of("/api/subscribe-decks", "/api/unsubscribe-decks")) {
+            for (String body : List.of("", "null", "[]", tooManyDeckIds.toString())) {
+                // when: (un-)subscribing without decks or with too many decks
+                mockMvc.perform(MockMvcRequestBuilders.post(endpoint)
+                        .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                        .content(body)
+                        .contentType(MediaType.APPLICATION_JSON)
+                // then: the request must be rejected
+                ).andExpectAll(
+                        jsonPath("$.success").value(false)
+                );
+            }
+        }
+    }
 }
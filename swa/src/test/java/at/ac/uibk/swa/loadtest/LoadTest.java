@@ -0,0 +1,115 @@
+package at.ac.uibk.swa.loadtest;
+
+import at.ac.uibk.swa.SwaApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prepares the Database of the {@code loadtest}-Profile (see application-loadtest.yml).
+ * <br/>
+ * Run with {@code mvn -P loadtest test-compile exec:exec -Dloadtest.args="<command> [--property=value ...]"}
+ * (or {@code ./gradlew loadtest -PloadtestArgs="..."}), where the Command is one of:
+ * <ul>
+ *     <li>{@code generate}: Recreates the Schema (with the Migrations) and generates the Data (configured with {@code swa.loadtest.*}).</li>
+ *     <li>{@code snapshot}: Writes the Database to {@code swa.loadtest.snapshot-file}.</li>
+ *     <li>{@code restore}: Replaces the Database with the one in {@code swa.loadtest.snapshot-file}.</li>
+ * </ul>
+ * Afterwards the Application can be started with the {@code loadtest}-Profile to run against the generated Data.
+ *
+ * @see LoadTestDataGenerator
+ * @see LoadTestSnapshot
+ */
+@Slf4j
+public class LoadTest {
+
+    private enum Command {
+        GENERATE,
+        SNAPSHOT,
+        RESTORE
+    }
+
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        Command command = Command.GENERATE;
+        if (!arguments.isEmpty() && !arguments.get(0).startsWith("--")) {
+            command = Command.valueOf(arguments.remove(0).toUpperCase());
+        }
+        // NOTE: Command-Line Arguments are the only Properties overriding the Profile set in application.yml.
+        if (arguments.stream().noneMatch(argument -> argument.startsWith("--spring.profiles.active="))) {
+            arguments.add("--spring.profiles.active=loadtest");
+        }
+        // NOTE: The Context needs a Web-Server (e.g. for the Request-scoped Beans), but it must not block the Port.
+        arguments.add("--server.port=0");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SwaApplication.class)
+                .run(arguments.toArray(String[]::new));
+        int exitCode = run(command, context) ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private static boolean run(Command command, ConfigurableApplicationContext context) {
+        Environment environment = context.getEnvironment();
+        DataSource dataSource = context.getBean(DataSource.class);
+        Path snapshotFile = Path.of(environment.getProperty("swa.loadtest.snapshot-file", "./loadtest/snapshot.zip"));
+        try {
+            return switch (command) {
+                case GENERATE -> {
+                    // NOTE: The Generator needs an empty Schema, so the old Data is dropped with the Schema.
+                    Flyway flyway = context.getBean(Flyway.class);
+                    flyway.clean();
+                    flyway.migrate();
+                    // NOTE: Hashing is slow on purpose, so all Persons get the same Hash.
+                    String passwordHash = context.getBean(PasswordEncoder.class)
+                            .encode(environment.getProperty("swa.loadtest.password", "password"));
+                    LoadTestDataGenerator.Result result = new LoadTestDataGenerator(
+                            dataSource, LoadTestDataGenerator.Volumes.fromEnvironment(environment), passwordHash,
+                            "BINARY".equalsIgnoreCase(environment.getProperty("swa.database.uuid-type", "NVARCHAR"))
+                    ).generate();
+                    log.info(String.format("Generated %s", result));
+                    compact(dataSource);
+                    yield true;
+                }
+                case SNAPSHOT -> LoadTestSnapshot.snapshot(dataSource, snapshotFile);
+                case RESTORE -> LoadTestSnapshot.restore(dataSource, snapshotFile) && compact(dataSource);
+            };
+        } catch (SQLException | IOException e) {
+            log.error(String.format("Unable to %s the Load-Test Data", command.name().toLowerCase()), e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Compacts an H2-Database, because its File grows far beyond the Size of the Data while inserting many Rows.
+     * The Database is closed afterwards, so this must be the last Step of a Command.
+     */
+    private static boolean compact(DataSource dataSource) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+            connection.close();
+            return true;
+        }
+
+        long start = System.nanoTime();
+        // NOTE: Shutting down the Database closes all its Connections, so they must not be closed here.
+        connection.createStatement().execute("SHUTDOWN COMPACT");
+        log.info(String.format("Compacted the Database in %.1fs", (System.nanoTime() - start) / 1e9));
+        return true;
+    }
+}
@@ -0,0 +1,549 @@
+package at.ac.uibk.swa.loadtest;
+
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.util.StringGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates a large synthetic Dataset of Persons, Decks, Cards, Subscriptions and Learning-Progresses.
+ * <br/>
+ * The Rows are inserted directly with batched JDBC-Statements by multiple Threads (bypassing Hibernate), so the
+ * Schema must already exist. The Data is skewed with Zipf-Distributions: the first Persons create most Decks,
+ * subscribe to most Decks and learn most Cards, and the first Decks are the largest and most popular ones.
+ * <br/>
+ * The IDs and the Structure of the Data only depend on the Seed, only the Texts are random.
+ * <br/>
+ * The IDs are inserted like Hibernate stores them ({@code swa.database.uuid-type}), either as Strings or as 16 Bytes.
+ */
+@Slf4j
+public class LoadTestDataGenerator {
+
+    /**
+     * The Volumes of the generated Data and how they are inserted.
+     *
+     * @param persons The number of Persons.
+     * @param decks The number of Decks.
+     * @param cards The number of Cards (every Deck gets at least one Card if possible).
+     * @param subscriptions The number of saved Decks (fewer if the most active Persons run out of Decks to save).
+     * @param learningProgresses The number of Learning-Progresses (fewer if Persons run out of Cards to learn).
+     * @param skew The Exponent of the Zipf-Distributions (0 is uniform).
+     * @param seed The Seed of the generated Structure.
+     * @param batchSize The number of Rows per JDBC-Batch (and Transaction).
+     * @param threads The number of Threads inserting the Data (0 for one Thread per Processor).
+     */
+    public record Volumes(
+            int persons, int decks, long cards, long subscriptions, long learningProgresses,
+            double skew, long seed, int batchSize, int threads
+    ) {
+        public static Volumes fromEnvironment(Environment environment) {
+            return new Volumes(
+                    environment.getProperty("swa.loadtest.persons", Integer.class, 10000),
+                    environment.getProperty("swa.loadtest.decks", Integer.class, 5000),
+                    environment.getProperty("swa.loadtest.cards", Long.class, 200000L),
+                    environment.getProperty("swa.loadtest.subscriptions", Long.class, 50000L),
+                    environment.getProperty("swa.loadtest.learning-progresses", Long.class, 1000000L),
+                    environment.getProperty("swa.loadtest.skew", Double.class, 1.0),
+                    environment.getProperty("swa.loadtest.seed", Long.class, 42L),
+                    environment.getProperty("swa.loadtest.batch-size", Integer.class, 1000),
+                    environment.getProperty("swa.loadtest.threads", Integer.class, 0)
+            );
+        }
+    }
+
+    /**
+     * The number of Rows that have actually been inserted.
+     */
+    public record Result(long persons, long decks, long cards, long subscriptions, long learningProgresses) {
+    }
+
+    // The Kinds of generated Values (every Kind gets its own IDs and Random Numbers).
+    private static final long PERSON = 1;
+    private static final long DECK = 2;
+    private static final long CARD = 3;
+    private static final long SUBSCRIPTION = 4;
+    private static final long LEARNING_PROGRESS = 5;
+    private static final long DECK_PUBLISHED = 6;
+    private static final long DECK_BLOCKED = 7;
+    private static final long DECK_DELETED = 8;
+
+    private static final double PUBLISHED_DECKS = 0.9;
+    private static final double BLOCKED_DECKS = 0.01;
+    private static final double DELETED_DECKS = 0.02;
+    private static final double FLIPPED_CARDS = 0.1;
+
+    // The Data is split into Tasks of about the same number of Rows (not Persons or Decks, because of the Skew).
+    private static final int ROWS_PER_TASK = 10000;
+
+    private final DataSource dataSource;
+    private final Volumes volumes;
+    private final String passwordHash;
+    private final boolean binaryUuids;
+    private final int threads;
+    private final long seed;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private final ZipfDistribution personActivity;
+    private final ZipfDistribution deckPopularity;
+    private final long[] firstCardOfDeck;
+    private final int[] subscriptionsOfPerson;
+    private final long[] firstSubscriptionOfPerson;
+    private final long[] firstLearningProgressOfPerson;
+
+    /**
+     * @param dataSource The Database to insert the Data into.
+     * @param volumes The Volumes of the generated Data.
+     * @param passwordHash The hashed Password of all generated Persons.
+     */
+    public LoadTestDataGenerator(DataSource dataSource, Volumes volumes, String passwordHash) {
+        this(dataSource, volumes, passwordHash, false);
+    }
+
+    /**
+     * @param dataSource The Database to insert the Data into.
+     * @param volumes The Volumes of the generated Data.
+     * @param passwordHash The hashed Password of all generated Persons.
+     * @param binaryUuids Whether the IDs are stored as BINARY(16) instead of Strings.
+     */
+    public LoadTestDataGenerator(DataSource dataSource, Volumes volumes, String passwordHash, boolean binaryUuids) {
+        if (volumes.persons() <= 0 && volumes.decks() > 0) {
+            throw new IllegalArgumentException("Decks can only be generated if there are Persons creating them");
+        }
+        this.dataSource = dataSource;
+        this.volumes = volumes;
+        this.passwordHash = passwordHash;
+        this.binaryUuids = binaryUuids;
+        this.threads = threads(dataSource, volumes.threads());
+        this.seed = mix(volumes.seed());
+
+        this.personActivity = new ZipfDistribution(volumes.persons(), volumes.skew());
+        this.deckPopularity = new ZipfDistribution(volumes.decks(), volumes.skew());
+        this.firstCardOfDeck = offsets(deckPopularity.split(volumes.cards(), 1));
+        this.subscriptionsOfPerson = personActivity.split(volumes.subscriptions(), 0);
+        this.firstSubscriptionOfPerson = offsets(subscriptionsOfPerson);
+        this.firstLearningProgressOfPerson = offsets(personActivity.split(volumes.learningProgresses(), 0));
+    }
+
+    /**
+     * Numbers the Rows of all Decks or Persons consecutively.
+     *
+     * @return The Number of the first Row of every Deck or Person and the Total as the last Element.
+     */
+    private static long[] offsets(int[] rows) {
+        long[] offsets = new long[rows.length + 1];
+        for (int i = 0; i < rows.length; i++) {
+            offsets[i + 1] = offsets[i] + rows[i];
+        }
+        return offsets;
+    }
+
+    /**
+     * Finds the Deck or Person a Row belongs to.
+     */
+    private static int owner(long[] offsets, long row) {
+        int index = Arrays.binarySearch(offsets, row);
+        if (index < 0) {
+            return -index - 2;
+        }
+        // Skip Decks or Persons without any Rows.
+        while (offsets[index + 1] == row) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Inserts the whole Dataset into the (empty) Database.
+     *
+     * @return The number of inserted Rows.
+     * @throws SQLException If the Data could not be inserted (Data of finished Batches remains in the Database).
+     * @throws InterruptedException If the Thread was interrupted while waiting for the Inserts.
+     */
+    public Result generate() throws SQLException, InterruptedException {
+        log.info(String.format("Generating %s with %d Threads", volumes, threads));
+        Result result = new Result(
+                runInParallel("Persons", volumes.persons(), ROWS_PER_TASK, this::insertPersons),
+                runInParallel("Decks", volumes.decks(), ROWS_PER_TASK, this::insertDecks),
+                runInParallel("Cards", firstCardOfDeck[volumes.decks()], ROWS_PER_TASK, this::insertCards),
+                runInParallel("Subscriptions", firstSubscriptionOfPerson[volumes.persons()], ROWS_PER_TASK, this::insertSubscriptions),
+                runInParallel("Learning-Progresses", firstLearningProgressOfPerson[volumes.persons()], ROWS_PER_TASK, this::insertLearningProgresses)
+        );
+        countSubscribers();
+        return result;
+    }
+
+    /**
+     * Sets the Subscriber-Counters of all Decks (the Card-Counters are known when the Decks are inserted, but the
+     * Subscriptions are drawn per Person).
+     */
+    private void countSubscribers() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("""
+                    UPDATE deck SET subscriber_count = (SELECT COUNT(*) FROM person_saved_deck s WHERE s.deck_id = deck.deck_id)""");
+        }
+    }
+
+    /**
+     * Gets the Username of a generated Person (they all have the same Password).
+     *
+     * @param person The Number of the Person (0 is the Admin).
+     * @return The Username of the Person.
+     */
+    public static String username(int person) {
+        return person == 0 ? "admin" : "user-" + person;
+    }
+
+    /**
+     * Gets the ID of a generated Person.
+     *
+     * @param person The Number of the Person.
+     * @return The ID of the Person.
+     */
+    public UUID personId(int person) {
+        return id(PERSON, person);
+    }
+
+    /**
+     * Gets the ID of a generated Deck.
+     *
+     * @param deck The Number of the Deck (0 is the largest and most popular one).
+     * @return The ID of the Deck.
+     */
+    public UUID deckId(int deck) {
+        return id(DECK, deck);
+    }
+
+    //region Inserts
+    private long insertPersons(long from, long to) throws SQLException {
+        try (Batch batch = new Batch(
+                "INSERT INTO person (person_id, username, email, password, permission_mask, is_deleted) VALUES (?, ?, ?, ?, ?, ?)",
+                "INSERT INTO permission (auth_id, name) VALUES (?, ?)"
+        )) {
+            PreparedStatement insertPerson = batch.statement(0);
+            PreparedStatement insertPermission = batch.statement(1);
+            for (int person = (int) from; person < to; person++) {
+                Set<Permission> permissions = person == 0 ? Permission.allPermissions() : Permission.defaultPermissions();
+                Object personId = uuid(personId(person));
+                insertPerson.setObject(1, personId);
+                insertPerson.setString(2, username(person));
+                insertPerson.setString(3, StringGenerator.email());
+                insertPerson.setString(4, passwordHash);
+                insertPerson.setInt(5, Permission.toMask(permissions));
+                insertPerson.setBoolean(6, false);
+                insertPerson.addBatch();
+                for (Permission permission : permissions) {
+                    insertPermission.setObject(1, personId);
+                    insertPermission.setString(2, permission.name());
+                    insertPermission.addBatch();
+                }
+                batch.endRow();
+            }
+            batch.flush();
+        }
+        return to - from;
+    }
+
+    private long insertDecks(long from, long to) throws SQLException {
+        try (Batch batch = new Batch(
+                "INSERT INTO deck (deck_id, name, description, is_published, is_blocked, is_deleted, creator_id, card_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+        )) {
+            PreparedStatement insertDeck = batch.statement(0);
+            for (int deck = (int) from; deck < to; deck++) {
+                int creator = personActivity.sample(random(DECK, deck));
+                insertDeck.setObject(1, uuid(deckId(deck)));
+                insertDeck.setString(2, StringGenerator.deckName());
+                insertDeck.setString(3, StringGenerator.deckDescription());
+                insertDeck.setBoolean(4, isPublished(deck));
+                insertDeck.setBoolean(5, isBlocked(deck));
+                insertDeck.setBoolean(6, isDeleted(deck));
+                insertDeck.setObject(7, uuid(personId(creator)));
+                insertDeck.setLong(8, firstCardOfDeck[deck + 1] - firstCardOfDeck[deck]);
+                insertDeck.addBatch();
+                batch.endRow();
+            }
+            batch.flush();
+        }
+        return to - from;
+    }
+
+    private long insertCards(long from, long to) throws SQLException {
+        try (Batch batch = new Batch(
+                "INSERT INTO card (card_id, front_text, back_text, is_flipped, deck_id) VALUES (?, ?, ?, ?, ?)"
+        )) {
+            PreparedStatement insertCard = batch.statement(0);
+            int deck = owner(firstCardOfDeck, from);
+            Object deckId = uuid(deckId(deck));
+            for (long card = from; card < to; card++) {
+                if (card == firstCardOfDeck[deck + 1]) {
+                    deck = owner(firstCardOfDeck, card);
+                    deckId = uuid(deckId(deck));
+                }
+                insertCard.setObject(1, uuid(id(CARD, card)));
+                insertCard.setString(2, StringGenerator.cardText());
+                insertCard.setString(3, StringGenerator.cardText());
+                insertCard.setBoolean(4, uniform(CARD, card) < FLIPPED_CARDS);
+                insertCard.setObject(5, deckId);
+                insertCard.addBatch();
+                batch.endRow();
+            }
+            batch.flush();
+        }
+        return to - from;
+    }
+
+    private long insertSubscriptions(long from, long to) throws SQLException {
+        long rows = 0;
+        try (Batch batch = new Batch("INSERT INTO person_saved_deck (deck_id, person_id) VALUES (?, ?)")) {
+            PreparedStatement insertSubscription = batch.statement(0);
+            for (int person = owner(firstSubscriptionOfPerson, from); person < volumes.persons() && firstSubscriptionOfPerson[person] < to; person++) {
+                Object personId = uuid(personId(person));
+                // Only the Subscriptions of the Person within this Task are inserted.
+                long subscription = firstSubscriptionOfPerson[person];
+                for (int deck : subscribedDecks(person)) {
+                    if (subscription >= from && subscription < to) {
+                        insertSubscription.setObject(1, uuid(deckId(deck)));
+                        insertSubscription.setObject(2, personId);
+                        insertSubscription.addBatch();
+                        batch.endRow();
+                        rows++;
+                    }
+                    subscription++;
+                }
+            }
+            batch.flush();
+        }
+        return rows;
+    }
+
+    private long insertLearningProgresses(long from, long to) throws SQLException {
+        long rows = 0;
+        try (Batch batch = new Batch(
+                "INSERT INTO learning_progress (progress_id, e_factor, learning_interval, next_learn, num_repetitions) VALUES (?, ?, ?, ?, ?)",
+                "INSERT INTO card_progress_mapping (card_id, person_id, progress_id) VALUES (?, ?, ?)"
+        )) {
+            PreparedStatement insertLearningProgress = batch.statement(0);
+            PreparedStatement insertMapping = batch.statement(1);
+            for (int person = owner(firstLearningProgressOfPerson, from); person < volumes.persons() && firstLearningProgressOfPerson[person] < to; person++) {
+                Object personId = uuid(personId(person));
+                // Only the Learning-Progresses of the Person within this Task are inserted.
+                long learningProgress = firstLearningProgressOfPerson[person];
+                long end = Math.min(firstLearningProgressOfPerson[person + 1], to);
+                // Persons learn the Cards of their saved Decks in Order.
+                for (int deck : subscribedDecks(person)) {
+                    for (long card = firstCardOfDeck[deck]; card < firstCardOfDeck[deck + 1] && learningProgress < end; card++, learningProgress++) {
+                        if (learningProgress < from)
+                            continue;
+
+                        Object learningProgressId = uuid(id(LEARNING_PROGRESS, learningProgress));
+                        SplittableRandom random = random(LEARNING_PROGRESS, learningProgress);
+                        int repetitions = random.nextInt(10);
+                        insertLearningProgress.setObject(1, learningProgressId);
+                        insertLearningProgress.setDouble(2, 1.3 + random.nextDouble() * 1.2);
+                        insertLearningProgress.setInt(3, repetitions == 0 ? 0 : random.nextInt(1, 10 * repetitions + 1));
+                        // About half of the Cards are due.
+                        insertLearningProgress.setTimestamp(4, Timestamp.valueOf(now.plusMinutes(random.nextLong(-30L * 24 * 60, 30L * 24 * 60))));
+                        insertLearningProgress.setInt(5, repetitions);
+                        insertLearningProgress.addBatch();
+                        insertMapping.setObject(1, uuid(id(CARD, card)));
+                        insertMapping.setObject(2, personId);
+                        insertMapping.setObject(3, learningProgressId);
+                        insertMapping.addBatch();
+                        batch.endRow();
+                        rows++;
+                    }
+                    if (learningProgress >= end)
+                        break;
+                }
+            }
+            batch.flush();
+        }
+        return rows;
+    }
+    //endregion
+
+    //region Structure
+    private boolean isPublished(int deck) {
+        return uniform(DECK_PUBLISHED, deck) < PUBLISHED_DECKS;
+    }
+
+    private boolean isBlocked(int deck) {
+        return uniform(DECK_BLOCKED, deck) < BLOCKED_DECKS;
+    }
+
+    private boolean isDeleted(int deck) {
+        return uniform(DECK_DELETED, deck) < DELETED_DECKS;
+    }
+
+    /**
+     * Draws the Decks saved by a Person (popular Decks are saved more often).
+     * This is used for the Subscriptions and the Learning-Progresses, so it must always return the same Decks.
+     */
+    private Collection<Integer> subscribedDecks(int person) {
+        int subscriptions = subscriptionsOfPerson[person];
+        Set<Integer> decks = new LinkedHashSet<>();
+        SplittableRandom random = random(SUBSCRIPTION, person);
+        // NOTE: The most active Persons might want to save (almost) all Decks, so the number of Draws is bounded.
+        for (long draws = 8L * subscriptions; decks.size() < subscriptions && draws > 0; draws--) {
+            int deck = deckPopularity.sample(random);
+            if (isPublished(deck) && !isBlocked(deck) && !isDeleted(deck)) {
+                decks.add(deck);
+            }
+        }
+        return decks;
+    }
+
+    /**
+     * Converts an ID into the Value of its Column (see {@code hibernate.type.preferred_uuid_jdbc_type}).
+     */
+    private Object uuid(UUID id) {
+        if (!binaryUuids)
+            return id.toString();
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private UUID id(long kind, long index) {
+        // NOTE: mix() is a Bijection, so the IDs are unique (as long as the Index fits into 56 Bits), but not ordered.
+        return new UUID(mix((kind << 56 | index) ^ seed), mix(seed + kind));
+    }
+
+    private SplittableRandom random(long kind, long index) {
+        return new SplittableRandom(mix((kind << 56 | index) ^ seed));
+    }
+
+    private double uniform(long kind, long index) {
+        return (random(kind, index).nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * The Finalizer of SplitMix64, which scrambles the Bits of a Number.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+    //endregion
+
+    //region Parallel Batches
+    @FunctionalInterface
+    private interface Task {
+        long insert(long from, long to) throws SQLException;
+    }
+
+    private long runInParallel(String name, long total, int rowsPerTask, Task task) throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (long from = 0; from < total; from += rowsPerTask) {
+                long taskFrom = from;
+                long taskTo = Math.min(from + rowsPerTask, total);
+                futures.add(executor.submit(() -> task.insert(taskFrom, taskTo)));
+            }
+            long rows = 0;
+            for (Future<Long> future : futures) {
+                try {
+                    rows += future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof SQLException sqlException)
+                        throw sqlException;
+                    throw new IllegalStateException("Unable to insert " + name, e.getCause());
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info(String.format("Inserted %d %s in %.1fs (%.0f Rows/s)", rows, name, seconds, rows / Math.max(seconds, 1e-3)));
+            return rows;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int threads(DataSource dataSource, int threads) {
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        // NOTE: Every Thread keeps its Connection for a whole Task, additional Threads would only wait for one.
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            threads = Math.min(threads, hikariDataSource.getMaximumPoolSize());
+        }
+        return threads;
+    }
+
+    /**
+     * Prepared Statements on one Connection, whose Batches are executed and committed together.
+     */
+    private class Batch implements AutoCloseable {
+        private final Connection connection;
+        private final List<PreparedStatement> statements = new ArrayList<>();
+        private int rows = 0;
+
+        private Batch(String... sqls) throws SQLException {
+            connection = dataSource.getConnection();
+            try {
+                connection.setAutoCommit(false);
+                for (String sql : sqls) {
+                    statements.add(connection.prepareStatement(sql));
+                }
+            } catch (SQLException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private PreparedStatement statement(int index) {
+            return statements.get(index);
+        }
+
+        /**
+         * Marks the End of a Row (after it has been added to the Batches of all Statements).
+         */
+        private void endRow() throws SQLException {
+            if (++rows % volumes.batchSize() == 0) {
+                flush();
+            }
+        }
+
+        /**
+         * Executes the Batches in the Order of the Statements (so Foreign-Keys can be satisfied) and commits them.
+         */
+        private void flush() throws SQLException {
+            for (PreparedStatement statement : statements) {
+                statement.executeBatch();
+            }
+            connection.commit();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                for (PreparedStatement statement : statements) {
+                    statement.close();
+                }
+                // Uncommitted Rows of a failed Task are discarded.
+                connection.rollback();
+            } finally {
+                connection.close();
+            }
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,85 @@
+package at.ac.uibk.swa.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Snapshots and restores a whole Database, so Load-Tests can be repeated on the same Data without generating it again.
+ * <br/>
+ * Only H2-Databases are supported (the Snapshot is a compressed SQL-Script), for MariaDB use mariadb-dump instead.
+ */
+@Slf4j
+public class LoadTestSnapshot {
+
+    private LoadTestSnapshot() {
+    }
+
+    /**
+     * Writes the Schema and the Data of the Database into a File (an existing File is overwritten).
+     *
+     * @param dataSource The Database to snapshot.
+     * @param file The File to write the Snapshot to.
+     * @return true if the Snapshot has been written, false if the Database is not supported.
+     * @throws SQLException If the Snapshot could not be written.
+     * @throws IOException If the Directory of the Snapshot could not be created.
+     */
+    public static boolean snapshot(DataSource dataSource, Path file) throws SQLException, IOException {
+        file = file.toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            if (!isSupported(connection))
+                return false;
+
+            long start = System.nanoTime();
+            statement.execute("SCRIPT TO " + literal(file) + " COMPRESSION ZIP");
+            log.info(String.format("Wrote Snapshot \"%s\" in %.1fs", file, (System.nanoTime() - start) / 1e9));
+            return true;
+        }
+    }
+
+    /**
+     * Replaces the whole Database (all Tables including their Data) with a Snapshot.
+     *
+     * @param dataSource The Database to restore.
+     * @param file The Snapshot to restore.
+     * @return true if the Snapshot has been restored, false if it does not exist or the Database is not supported.
+     * @throws SQLException If the Snapshot could not be restored.
+     */
+    public static boolean restore(DataSource dataSource, Path file) throws SQLException {
+        file = file.toAbsolutePath();
+        if (!Files.isRegularFile(file)) {
+            log.error(String.format("Snapshot \"%s\" does not exist", file));
+            return false;
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            if (!isSupported(connection))
+                return false;
+
+            long start = System.nanoTime();
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM " + literal(file) + " COMPRESSION ZIP");
+            log.info(String.format("Restored Snapshot \"%s\" in %.1fs", file, (System.nanoTime() - start) / 1e9));
+            return true;
+        }
+    }
+
+    private static boolean isSupported(Connection connection) throws SQLException {
+        String database = connection.getMetaData().getDatabaseProductName();
+        if (!"H2".equals(database)) {
+            log.error(String.format("Snapshots are not supported for \"%s\"-Databases", database));
+            return false;
+        }
+        return true;
+    }
+
+    private static String literal(Path file) {
+        return "'" + file.toString().replace("'", "''") + "'";
+    }
+}
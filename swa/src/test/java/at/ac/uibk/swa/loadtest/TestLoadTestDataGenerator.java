@@ -0,0 +1,121 @@
+package at.ac.uibk.swa.loadtest;
+
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.DeckRepository;
+import at.ac.uibk.swa.service.PersonService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// NOTE: The generated Data is inserted into its own Database, so it does not influence other Tests.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:loadtest")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestLoadTestDataGenerator {
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private DeckRepository deckRepository;
+
+    private static final String PASSWORD = "password";
+    private static final LoadTestDataGenerator.Volumes VOLUMES = new LoadTestDataGenerator.Volumes(
+            50, 20, 1000, 200, 3000, 1.0, 42, 64, 4
+    );
+
+    private LoadTestDataGenerator generator;
+    private LoadTestDataGenerator.Result result;
+
+    @BeforeAll
+    public void generate() throws Exception {
+        generator = new LoadTestDataGenerator(dataSource, VOLUMES, passwordEncoder.encode(PASSWORD));
+        result = generator.generate();
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    @Test
+    public void generatedVolumes() {
+        // then: the configured volumes must have been inserted (subscriptions and progresses are bounded by the decks)
+        assertEquals(VOLUMES.persons(), result.persons(), "Wrong number of persons");
+        assertEquals(VOLUMES.decks(), result.decks(), "Wrong number of decks");
+        assertEquals(VOLUMES.cards(), result.cards(), "Wrong number of cards");
+        assertTrue(result.subscriptions() > 0 && result.subscriptions() <= VOLUMES.subscriptions(), "Wrong number of subscriptions");
+        assertTrue(result.learningProgresses() > 0 && result.learningProgresses() <= VOLUMES.learningProgresses(), "Wrong number of learning progresses");
+
+        assertEquals(result.persons(), count("SELECT COUNT(*) FROM person"), "Persons are missing");
+        assertEquals(result.decks(), count("SELECT COUNT(*) FROM deck"), "Decks are missing");
+        assertEquals(result.cards(), count("SELECT COUNT(*) FROM card"), "Cards are missing");
+        assertEquals(result.subscriptions(), count("SELECT COUNT(*) FROM person_saved_deck"), "Subscriptions are missing");
+        assertEquals(result.learningProgresses(), count("SELECT COUNT(*) FROM learning_progress"), "Learning progresses are missing");
+        assertEquals(result.learningProgresses(), count("SELECT COUNT(*) FROM card_progress_mapping"), "Learning progresses are not mapped");
+    }
+
+    @Test
+    public void generatedSkew() {
+        // then: the first persons must be more active and the first decks must be larger than the last ones
+        String learningProgressesOfPerson = "SELECT COUNT(*) FROM card_progress_mapping WHERE person_id = ?";
+        assertTrue(count(learningProgressesOfPerson, generator.personId(0).toString())
+                > count(learningProgressesOfPerson, generator.personId(VOLUMES.persons() - 1).toString()),
+                "Learning progresses are not skewed");
+        String cardsOfDeck = "SELECT COUNT(*) FROM card WHERE deck_id = ?";
+        assertTrue(count(cardsOfDeck, generator.deckId(0).toString())
+                > count(cardsOfDeck, generator.deckId(VOLUMES.decks() - 1).toString()),
+                "Cards are not skewed");
+    }
+
+    @Test
+    public void generatedDataIsUsable() {
+        // when: logging in as generated persons and loading a generated deck
+        Optional<Person> admin = personService.login(LoadTestDataGenerator.username(0), PASSWORD);
+        Optional<Person> user = personService.login(LoadTestDataGenerator.username(1), PASSWORD);
+        Optional<Deck> deck = deckRepository.findWithCardsById(generator.deckId(0));
+
+        // then: the rows must be readable by the application
+        assertTrue(admin.isPresent(), "Unable to login as admin");
+        assertTrue(admin.get().getPermissions().contains(Permission.ADMIN), "Admin has no admin permission");
+        assertTrue(user.isPresent(), "Unable to login as user");
+        assertTrue(deck.isPresent(), "Unable to load deck");
+        assertEquals(count("SELECT COUNT(*) FROM card WHERE deck_id = ?", generator.deckId(0).toString()),
+                deck.get().getCards().size(), "Wrong number of cards");
+        assertEquals(deck.get().getCards().size(), deck.get().getCardCount(), "Wrong card counter");
+        assertEquals(count("SELECT COUNT(*) FROM person_saved_deck WHERE deck_id = ?", generator.deckId(0).toString()),
+                deck.get().getSubscriberCount(), "Wrong subscriber counter");
+    }
+
+    @Test
+    public void snapshotAndRestore(@TempDir Path directory) throws Exception {
+        // given: a snapshot of the generated data
+        Path snapshot = directory.resolve("snapshot.zip");
+        assertTrue(LoadTestSnapshot.snapshot(dataSource, snapshot), "Unable to write snapshot");
+
+        // when: changing the data and restoring the snapshot
+        jdbcTemplate.update("DELETE FROM person_saved_deck");
+        assertTrue(LoadTestSnapshot.restore(dataSource, snapshot), "Unable to restore snapshot");
+
+        // then: the data must have been restored
+        assertEquals(result.subscriptions(), count("SELECT COUNT(*) FROM person_saved_deck"), "Subscriptions were not restored");
+        assertEquals(result.learningProgresses(), count("SELECT COUNT(*) FROM card_progress_mapping"), "Learning progresses were not restored");
+    }
+}
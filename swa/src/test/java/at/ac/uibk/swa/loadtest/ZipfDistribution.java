@@ -0,0 +1,77 @@
+package at.ac.uibk.swa.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf-Distribution over the Ranks {@code 0..n-1}, where Rank 0 is the most likely one.
+ * <br/>
+ * Used to skew the generated Data like real Usage (a few very active Persons and a few very popular Decks).
+ */
+class ZipfDistribution {
+
+    private final double[] probabilities;
+    private final double[] cumulativeProbabilities;
+
+    /**
+     * @param n The number of Ranks.
+     * @param skew The Exponent of the Distribution (0 is uniform).
+     */
+    ZipfDistribution(int n, double skew) {
+        probabilities = new double[n];
+        cumulativeProbabilities = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            probabilities[rank] = 1.0 / Math.pow(rank + 1, skew);
+            sum += probabilities[rank];
+        }
+        double cumulativeProbability = 0;
+        for (int rank = 0; rank < n; rank++) {
+            probabilities[rank] /= sum;
+            cumulativeProbability += probabilities[rank];
+            cumulativeProbabilities[rank] = cumulativeProbability;
+        }
+    }
+
+    /**
+     * Draws a random Rank.
+     *
+     * @param random The Random Generator to use.
+     * @return A Rank between 0 (inclusive) and n (exclusive).
+     */
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        // NOTE: The last cumulative Probability might be slightly less than 1 because of Rounding-Errors.
+        return Math.min(rank, cumulativeProbabilities.length - 1);
+    }
+
+    /**
+     * Splits the given Total between all Ranks according to their Probabilities.
+     *
+     * @param total The Total to split.
+     * @param minimum The Share every Rank gets at least (ignored if the Total is too small).
+     * @return The Shares of all Ranks, which add up to the Total.
+     */
+    int[] split(long total, int minimum) {
+        int n = probabilities.length;
+        int[] shares = new int[n];
+        if (n == 0) {
+            return shares;
+        }
+        if (total < (long) n * minimum) {
+            minimum = 0;
+        }
+        long remaining = total - (long) n * minimum;
+        long assigned = 0;
+        for (int rank = 0; rank < n; rank++) {
+            shares[rank] = minimum + (int) (remaining * probabilities[rank]);
+            assigned += shares[rank];
+        }
+        // The Shares are rounded down, so the Rest is given to the most likely Ranks.
+        for (int rank = 0; assigned < total; rank = (rank + 1) % n, assigned++) {
+            shares[rank]++;
+        }
+        return shares;
+    }
+}
@@ -6,6 +6,7 @@ import at.ac.uibk.swa.models.Person;
 import at.ac.uibk.swa.service.AdminDeckService;
 import at.ac.uibk.swa.service.PersonService;
 import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.service.deck_service.DeckPage;
 import at.ac.uibk.swa.util.MockAuthContext;
 import at.ac.uibk.swa.util.StringGenerator;
 import org.junit.jupiter.api.Test;
@@ -106,8 +107,14 @@ public class TestAdminDeckServiceGeneral {
         MockAuthContext.setLoggedInUser(null);
         assertTrue(adminDeckService.block(decks.get(1).getDeckId()));
 
-        // when: loading all decks within the repository
-        List<Deck> loadedDecks = adminDeckService.findAll();
+        // when: loading all pages of decks within the repository
+        List<Deck> loadedDecks = new ArrayList<>();
+        DeckPage page = adminDeckService.findAll(null, null);
+        loadedDecks.addAll(page.decks());
+        while (page.nextCursor() != null) {
+            page = adminDeckService.findAll(page.nextCursor(), null);
+            loadedDecks.addAll(page.decks());
+        }
 
         // then: all decks except the deleted one must be found
         for (Deck deck : decks) {
@@ -2,6 +2,7 @@ package at.ac.uibk.swa.service.card_service;
 
 import at.ac.uibk.swa.models.*;
 import at.ac.uibk.swa.repositories.LearningProgressRepository;
+import at.ac.uibk.swa.repositories.ReviewLogRepository;
 import at.ac.uibk.swa.service.CardService;
 import at.ac.uibk.swa.service.PersonService;
 import at.ac.uibk.swa.service.UserDeckService;
@@ -12,10 +13,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,6 +30,8 @@ public class TestCardServiceLearning {
     PersonService personService;
     @Autowired
     LearningProgressRepository learningProgressRepository;
+    @Autowired
+    ReviewLogRepository reviewLogRepository;
 
     private Person createUserAndLogin() {
         Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
@@ -123,4 +125,175 @@ public class TestCardServiceLearning {
         long numberOfLearningProgressEntitiesAfter = learningProgressRepository.count();
         assertEquals(1, numberOfLearningProgressEntitiesAfter - numberOfLearningProgressEntitiesBefore, "Too many entities have been created");
     }
+
+    @Test
+    public void learnCardLearntByOtherUsers() {
+        // given: a public card that has already been learnt by some subscribers
+        createUserAndLogin();
+        Deck deck = createDeck();
+        Card card = createCard(deck);
+        assertTrue(userDeckService.publish(deck.getDeckId()), "Unable to publish deck");
+        int numberOfSubscribers = 3;
+        for (int i = 0; i < numberOfSubscribers; i++) {
+            createUserAndLogin();
+            assertTrue(userDeckService.subscribe(deck.getDeckId()), "Unable to subscribe to deck");
+            assertTrue(cardService.learn(card.getCardId(), 5), "Unable to learn card");
+        }
+
+        // when: learning the card with another subscriber
+        createUserAndLogin();
+        assertTrue(userDeckService.subscribe(deck.getDeckId()), "Unable to subscribe to deck");
+        assertTrue(cardService.learn(card.getCardId(), 5), "Unable to learn card");
+
+        // then: only the own learning progress must have been created and the card must no longer be due
+        LearningProgress learningProgress = cardService.getLearningProgress(card.getCardId()).orElseThrow();
+        assertEquals(1, learningProgress.getRepetitions(), "Learning progress of another user has been changed");
+        assertTrue(cardService.getAllCardsToLearn(deck.getDeckId()).orElseThrow().isEmpty(), "Card is still due");
+        assertFalse(cardService.learn(card.getCardId(), 5), "Learnt a card that is not due");
+    }
+
+    @Test
+    public void getCardsToLearnInLearningOrder() {
+        // given: a deck created by a user with three cards, where one card was learned well, one card was learned
+        //        badly and one card was never learned
+        Person person = createUserAndLogin();
+        Deck deck = createDeck();
+        Card learnedWell = createCard(deck);
+        Card learnedBadly = createCard(deck);
+        Card notLearned = createCard(deck);
+        assertTrue(cardService.learn(learnedWell.getCardId(), 5), "Unable to learn card");
+        assertTrue(cardService.learn(learnedBadly.getCardId(), 0), "Unable to learn card");
+
+        // when: loading all the cards to learn from that deck
+        Optional<List<Card>> maybeCardsToLearn = cardService.getAllCardsToLearn(deck.getDeckId());
+
+        // then: the card that was never learned must come first, the card that was learned well must not be due
+        assertTrue(maybeCardsToLearn.isPresent(), "Unable to load cards");
+        assertEquals(List.of(notLearned, learnedBadly), maybeCardsToLearn.get(), "Got wrong cards or wrong order");
+
+        // when: loading only the next card to learn
+        Optional<List<Card>> maybeNextCard = cardService.getCardsToLearn(deck.getDeckId(), 1);
+
+        // then: only the card that was never learned must be returned
+        assertTrue(maybeNextCard.isPresent(), "Unable to load cards");
+        assertEquals(List.of(notLearned), maybeNextCard.get(), "Got wrong cards");
+    }
+
+    @Test
+    public void learnBatchAppliesReviewsInOrder() {
+        // given: a deck created by a user with three cards
+        Person person = createUserAndLogin();
+        Deck deck = createDeck();
+        Card learnedWell = createCard(deck);
+        Card learnedBadly = createCard(deck);
+        Card learnedOffline = createCard(deck);
+        LocalDateTime reviewedAt = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.MILLIS);
+
+        // when: submitting a batch, where one card is learnt well twice, one card is learnt badly twice, one card
+        //       was learnt well a few days ago, followed by a card that does not exist
+        List<Review> reviews = List.of(
+                new Review(learnedWell.getCardId(), 5, null),
+                new Review(learnedBadly.getCardId(), 0, null),
+                new Review(learnedWell.getCardId(), 5, null),
+                new Review(learnedBadly.getCardId(), 0, null),
+                new Review(learnedOffline.getCardId(), 5, reviewedAt),
+                new Review(UUID.randomUUID(), 5, null)
+        );
+        Optional<List<ReviewResult>> maybeResults = cardService.learnAll(reviews);
+
+        // then: a result must be returned for every review in the given order
+        assertTrue(maybeResults.isPresent(), "Unable to learn cards");
+        assertEquals(
+                List.of(true, true, false, true, true, false),
+                maybeResults.get().stream().map(ReviewResult::success).toList(),
+                "Got wrong results"
+        );
+
+        // then: the learning progresses must be saved
+        LearningProgress wellProgress = cardService.getLearningProgress(learnedWell.getCardId()).orElseThrow();
+        assertEquals(1, wellProgress.getRepetitions(), "Number of repetitions other than expected");
+        LearningProgress badProgress = cardService.getLearningProgress(learnedBadly.getCardId()).orElseThrow();
+        assertEquals(2, badProgress.getRepetitions(), "Number of repetitions other than expected");
+
+        // then: the next learn date must be based on the time of the review
+        LearningProgress offlineProgress = cardService.getLearningProgress(learnedOffline.getCardId()).orElseThrow();
+        assertEquals(reviewedAt.plusDays(1), offlineProgress.getNextLearn(), "Next learn date other than expected");
+        assertEquals(List.of(learnedOffline, learnedBadly), cardService.getAllCardsToLearn(deck.getDeckId()).orElseThrow(),
+                "Got wrong cards to learn");
+    }
+
+    @Test
+    public void learnBatchRejectsReviewsInTheFuture() {
+        // given: a deck created by a user with a single card
+        Person person = createUserAndLogin();
+        Card card = createCard(createDeck());
+
+        // when: submitting a review that lies in the future
+        Optional<List<ReviewResult>> maybeResults = cardService.learnAll(
+                List.of(new Review(card.getCardId(), 5, LocalDateTime.now().plusDays(1)))
+        );
+
+        // then: the review must not be applied
+        assertTrue(maybeResults.isPresent(), "Unable to learn cards");
+        assertFalse(maybeResults.get().get(0).success(), "Review in the future was applied");
+        assertTrue(cardService.getLearningProgress(card.getCardId()).isEmpty(), "Got progress on an unlearnt card");
+    }
+
+    @Test
+    public void learnBatchWithoutReviews() {
+        // given: a logged-in user
+        createUserAndLogin();
+
+        // when: submitting no batch at all
+        // then: nothing must be returned
+        assertTrue(cardService.learnAll(null).isEmpty(), "Learned a missing batch");
+    }
+
+    @Test
+    public void learnAppendsToReviewLog() {
+        // given: a deck created by a user with one single card
+        Person person = createUserAndLogin();
+        Card card = createCard(createDeck());
+
+        // when: learning the card badly and then well
+        assertTrue(cardService.learn(card.getCardId(), 0), "Unable to learn card");
+        assertTrue(cardService.learn(card.getCardId(), 5), "Unable to learn card");
+
+        // then: both reviews must be logged in the order they were made
+        List<ReviewLog> reviewLogs = reviewLogRepository.findAllByCardAndPerson(card.getCardId(), person.getPersonId());
+        assertEquals(List.of(0, 5), reviewLogs.stream().map(ReviewLog::getGrade).toList(), "Got wrong reviews");
+        LearningProgress learningProgress = cardService.getLearningProgress(card.getCardId()).orElseThrow();
+        assertEquals(learningProgress.getInterval(), reviewLogs.get(1).getInterval(), "Logged interval other than expected");
+
+        // then: the card (and its review log) must still be deletable
+        assertTrue(cardService.delete(card.getCardId()), "Unable to delete card");
+        assertTrue(reviewLogRepository.findAllByCardAndPerson(card.getCardId(), person.getPersonId()).isEmpty(),
+                "Review log of deleted card still exists");
+    }
+
+    @Test
+    public void rebuildLearningProgressFromReviewLog() {
+        // given: a deck created by a user with one single card that has been learnt multiple times
+        Person person = createUserAndLogin();
+        Card card = createCard(createDeck());
+        List<ReviewResult> results = cardService.learnAll(List.of(
+                new Review(card.getCardId(), 0, LocalDateTime.now().minusDays(20)),
+                new Review(card.getCardId(), 4, LocalDateTime.now().minusDays(10)),
+                new Review(card.getCardId(), 5, LocalDateTime.now().minusDays(5))
+        )).orElseThrow();
+        assertTrue(results.stream().allMatch(ReviewResult::success), "Unable to learn card");
+        LearningProgress before = cardService.getLearningProgress(card.getCardId()).orElseThrow();
+
+        // when: rebuilding the learning progress from the review log
+        Optional<LearningProgress> maybeRebuilt = cardService.rebuildLearningProgress(card.getCardId());
+
+        // then: the rebuilt learning progress must be the same as the incrementally maintained one
+        assertTrue(maybeRebuilt.isPresent(), "Unable to rebuild learning progress");
+        LearningProgress after = cardService.getLearningProgress(card.getCardId()).orElseThrow();
+        assertEquals(before.getLearningProgressId(), after.getLearningProgressId(), "Learning progress was replaced");
+        assertEquals(before.getRepetitions(), after.getRepetitions(), "Number of repetitions other than expected");
+        assertEquals(before.getInterval(), after.getInterval(), "Interval other than expected");
+        assertEquals(before.getEFactor(), after.getEFactor(), "EFactor other than expected");
+        assertEquals(before.getNextLearn(), after.getNextLearn(), "Next learn date other than expected");
+    }
 }
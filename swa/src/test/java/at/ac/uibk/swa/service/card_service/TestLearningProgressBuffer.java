@@ -0,0 +1,218 @@
+package at.ac.uibk.swa.service.card_service;
+
+import at.ac.uibk.swa.models.*;
+import at.ac.uibk.swa.repositories.DeckRepository.DeckStatistics;
+import at.ac.uibk.swa.repositories.ReviewLogRepository;
+import at.ac.uibk.swa.service.CardService;
+import at.ac.uibk.swa.service.DeckExportService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.service.deck_service.ExportFormat;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "swa.learn.write-behind.enabled=true",
+        "swa.learn.write-behind.max-size=2",
+        "swa.learn.write-behind.offer-timeout=PT0.1S",
+        "swa.learn.write-behind.flush-interval=PT1H"
+})
+@ActiveProfiles("test")
+public class TestLearningProgressBuffer {
+    @Autowired
+    CardService cardService;
+    @Autowired
+    UserDeckService userDeckService;
+    @Autowired
+    PersonService personService;
+    @Autowired
+    LearningProgressBuffer learningProgressBuffer;
+    @Autowired
+    ReviewLogRepository reviewLogRepository;
+    @Autowired
+    DeckExportService deckExportService;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private Person createUserAndLogin() {
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user");
+        return (Person) MockAuthContext.setLoggedInUser(person);
+    }
+
+    private Deck createDeck() {
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        return deck;
+    }
+
+    private Card createCard(Deck deck) {
+        Card card = new Card(StringGenerator.cardText(), StringGenerator.cardText(), false);
+        assertTrue(cardService.create(card, deck.getDeckId()), "Unable to create card");
+        return card;
+    }
+
+    @Test
+    public void learnIsBufferedAndCoalesced() {
+        // given: a deck created by a user with one single card
+        Person person = createUserAndLogin();
+        Card card = createCard(createDeck());
+        learningProgressBuffer.flush();
+        long flushedBefore = learningProgressBuffer.getStatistics().flushedProgresses();
+
+        // when: learning the card badly multiple times
+        assertTrue(cardService.learn(card.getCardId(), 0), "Unable to learn card");
+        assertTrue(cardService.learn(card.getCardId(), 0), "Unable to learn card");
+
+        // then: the learning progress must be visible, but not written yet
+        Optional<LearningProgress> maybeLearningProgress = cardService.getLearningProgress(card.getCardId());
+        assertTrue(maybeLearningProgress.isPresent(), "Did not find any learning progress");
+        assertEquals(2, maybeLearningProgress.get().getRepetitions(), "Number of repetitions other than expected");
+        assertEquals(1, learningProgressBuffer.getStatistics().queueDepth(), "Reviews were not coalesced");
+        assertTrue(reviewLogRepository.findAllByCardAndPerson(card.getCardId(), person.getPersonId()).isEmpty(),
+                "Reviews were written before flushing");
+
+        assertEquals(1, meterRegistry.get("swa.learn.write-behind.queue-depth").gauge().value(), "Queue depth not published");
+
+        // when: flushing the buffer
+        learningProgressBuffer.flush();
+
+        // then: the learning progress and both reviews must be written in one go
+        assertEquals(flushedBefore + 1, learningProgressBuffer.getStatistics().flushedProgresses(), "Progress not flushed");
+        assertEquals(flushedBefore + 1, meterRegistry.get("swa.learn.write-behind.flushed").functionCounter().count(),
+                "Flushed progresses not published");
+        assertEquals(0, learningProgressBuffer.getStatistics().queueDepth(), "Buffer not empty after flushing");
+        assertEquals(2, reviewLogRepository.findAllByCardAndPerson(card.getCardId(), person.getPersonId()).size(),
+                "Reviews not written");
+        assertEquals(2, cardService.getLearningProgress(card.getCardId()).orElseThrow().getRepetitions(),
+                "Number of repetitions other than expected");
+    }
+
+    @Test
+    public void cardsToLearnIncludeBufferedProgress() {
+        // given: a deck created by a user with two cards
+        Person person = createUserAndLogin();
+        Deck deck = createDeck();
+        Card learnedWell = createCard(deck);
+        Card notLearned = createCard(deck);
+        learningProgressBuffer.flush();
+
+        // when: learning one card well
+        assertTrue(cardService.learn(learnedWell.getCardId(), 5), "Unable to learn card");
+
+        // then: the card must neither be due nor be learnable again
+        assertFalse(cardService.learn(learnedWell.getCardId(), 5), "Learnt card that is not due");
+        assertEquals(List.of(notLearned), cardService.getAllCardsToLearn(deck.getDeckId()).orElseThrow(),
+                "Got wrong cards to learn");
+        assertEquals(List.of(notLearned), cardService.getCardsToLearn(deck.getDeckId(), 1).orElseThrow(),
+                "Got wrong cards to learn");
+        assertEquals(1, learningProgressBuffer.getStatistics().queueDepth(), "Buffer was flushed for reading");
+        learningProgressBuffer.flush();
+    }
+
+    @Test
+    public void deckStatisticsIncludeBufferedProgress() {
+        // given: a deck created by a user with three cards
+        Person person = createUserAndLogin();
+        Deck deck = createDeck();
+        Card learnedWell = createCard(deck);
+        Card learnedBadly = createCard(deck);
+        createCard(deck);
+        learningProgressBuffer.flush();
+
+        // when: learning one card well and one card badly
+        assertTrue(cardService.learn(learnedWell.getCardId(), 5), "Unable to learn card");
+        assertTrue(cardService.learn(learnedBadly.getCardId(), 0), "Unable to learn card");
+
+        // then: the statistics must include both cards without flushing the buffer
+        DeckStatistics statistics = userDeckService.getDeckStatistics(List.of(deck), person.getPersonId())
+                .get(deck.getDeckId());
+        assertEquals(3, statistics.getNumCards(), "Number of cards other than expected");
+        assertEquals(1, statistics.getNumNotLearnedCards(), "Number of not learned cards other than expected");
+        assertEquals(1, statistics.getNumCardsToRepeat(), "Number of cards to repeat other than expected");
+        assertEquals(2, learningProgressBuffer.getStatistics().queueDepth(), "Buffer was flushed for reading");
+
+        // when: exporting the deck with the learning progresses
+        DeckExportService.DeckExport export = deckExportService.prepareExport(deck.getDeckId(), true).orElseThrow();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertDoesNotThrow(() -> deckExportService.write(export, ExportFormat.JSONL, output));
+
+        // then: the buffered learning progresses must be exported without flushing the buffer
+        assertEquals(2, output.toString(StandardCharsets.UTF_8).lines()
+                .filter(line -> line.contains("\"repetitions\":1")).count(), "Buffered learning progresses not exported");
+        assertEquals(2, learningProgressBuffer.getStatistics().queueDepth(), "Buffer was flushed for exporting");
+        learningProgressBuffer.flush();
+    }
+
+    @Test
+    public void fullBufferRejectsNewProgress() {
+        // given: a deck created by a user with three cards and an empty buffer
+        Person person = createUserAndLogin();
+        Deck deck = createDeck();
+        Card first = createCard(deck);
+        Card second = createCard(deck);
+        Card third = createCard(deck);
+        learningProgressBuffer.flush();
+        long rejectedBefore = learningProgressBuffer.getStatistics().rejected();
+
+        // when: learning more cards than the buffer can hold
+        assertTrue(cardService.learn(first.getCardId(), 0), "Unable to learn card");
+        assertTrue(cardService.learn(second.getCardId(), 0), "Unable to learn card");
+        boolean learnedThird = cardService.learn(third.getCardId(), 0);
+
+        // then: the last card must be rejected, but cards that are already buffered can still be learnt
+        assertFalse(learnedThird, "Buffer accepted more progresses than allowed");
+        assertEquals(rejectedBefore + 1, learningProgressBuffer.getStatistics().rejected(), "Rejection not counted");
+        assertTrue(cardService.learn(first.getCardId(), 0), "Unable to learn buffered card");
+
+        // when: flushing the buffer
+        learningProgressBuffer.flush();
+
+        // then: there must be space again
+        assertTrue(cardService.learn(third.getCardId(), 0), "Unable to learn card after flushing");
+        learningProgressBuffer.flush();
+    }
+
+    @Test
+    public void bufferedProgressSurvivesRolledBackBatch() {
+        // given: a deck created by a user with two cards, one of which has been learnt into the buffer
+        Person person = createUserAndLogin();
+        Deck deck = createDeck();
+        Card buffered = createCard(deck);
+        Card reviewed = createCard(deck);
+        learningProgressBuffer.flush();
+        assertTrue(cardService.learn(buffered.getCardId(), 5), "Unable to learn card");
+
+        // when: learning the other card in a batch whose transaction rolls back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(cardService.learnAll(List.of(new Review(reviewed.getCardId(), 5, null))).isPresent(),
+                    "Unable to learn batch");
+            status.setRollbackOnly();
+        });
+
+        // then: the buffered progress must have been written, but the batch must not
+        assertEquals(0, learningProgressBuffer.getStatistics().queueDepth(), "Buffer not flushed by batch");
+        assertEquals(1, cardService.getLearningProgress(buffered.getCardId()).orElseThrow().getRepetitions(),
+                "Buffered progress lost");
+        assertEquals(1, reviewLogRepository.findAllByCardAndPerson(buffered.getCardId(), person.getPersonId()).size(),
+                "Buffered review lost");
+        assertTrue(cardService.getLearningProgress(reviewed.getCardId()).isEmpty(), "Batch was not rolled back");
+    }
+}
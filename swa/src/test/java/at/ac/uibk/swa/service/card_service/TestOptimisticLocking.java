@@ -0,0 +1,143 @@
+package at.ac.uibk.swa.service.card_service;
+
+import at.ac.uibk.swa.models.*;
+import at.ac.uibk.swa.models.annotations.RetryOnConflict;
+import at.ac.uibk.swa.models.annotations.aspects.RetryOnConflictAspect;
+import at.ac.uibk.swa.repositories.CardRepository;
+import at.ac.uibk.swa.service.CardService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TestOptimisticLocking {
+    @Autowired
+    CardService cardService;
+    @Autowired
+    UserDeckService userDeckService;
+    @Autowired
+    PersonService personService;
+    @Autowired
+    CardRepository cardRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    ConflictingOperation conflictingOperation;
+
+    /**
+     * An Operation that fails with a Conflict a given number of Times before it succeeds.
+     */
+    public static class ConflictingOperation {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @RetryOnConflict
+        public int run(int conflicts) {
+            if (calls.incrementAndGet() <= conflicts)
+                throw new OptimisticLockingFailureException("Simulated conflict");
+            return calls.getAndSet(0);
+        }
+
+        public void reset() {
+            calls.set(0);
+        }
+    }
+
+    @TestConfiguration
+    static class ConflictingOperationConfig {
+        @Bean
+        ConflictingOperation conflictingOperation() {
+            return new ConflictingOperation();
+        }
+    }
+
+    private Card createCard() {
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user");
+        MockAuthContext.setLoggedInUser(person);
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        Card card = new Card(StringGenerator.cardText(), StringGenerator.cardText(), false);
+        assertTrue(cardService.create(card, deck.getDeckId()), "Unable to create card");
+        return card;
+    }
+
+    private double conflicts(String result) {
+        Counter counter = meterRegistry.find(RetryOnConflictAspect.CONFLICTS_COUNTER)
+                .tag("class", ConflictingOperation.class.getSimpleName())
+                .tag("result", result)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    public void updateIncrementsVersion() {
+        // given: a card
+        Card card = createCard();
+        long versionBefore = cardRepository.findById(card.getCardId()).orElseThrow().getVersion();
+
+        // when: updating the card
+        assertTrue(cardService.update(card.getCardId(), StringGenerator.cardText(), StringGenerator.cardText(), true));
+
+        // then: the version must have been incremented
+        assertEquals(versionBefore + 1, cardRepository.findById(card.getCardId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void staleUpdateIsRejected() {
+        // given: two copies of the same card, loaded before either of them is changed
+        Card card = createCard();
+        Card first = cardRepository.findById(card.getCardId()).orElseThrow();
+        Card second = cardRepository.findById(card.getCardId()).orElseThrow();
+
+        // when: saving both copies
+        first.setFrontText(StringGenerator.cardText());
+        cardRepository.save(first);
+        second.setFrontText(StringGenerator.cardText());
+
+        // then: the outdated copy must not overwrite the first change
+        assertThrows(OptimisticLockingFailureException.class, () -> cardRepository.save(second));
+        assertEquals(first.getFrontText(), cardRepository.findById(card.getCardId()).orElseThrow().getFrontText());
+    }
+
+    @Test
+    public void conflictsAreRetried() {
+        // given: an operation that conflicts twice
+        conflictingOperation.reset();
+        double retriedBefore = conflicts("retried");
+
+        // when: running the operation
+        int calls = conflictingOperation.run(2);
+
+        // then: it must succeed on the third attempt and both conflicts must be counted
+        assertEquals(3, calls);
+        assertEquals(retriedBefore + 2, conflicts("retried"));
+    }
+
+    @Test
+    public void conflictIsRethrownAfterMaxAttempts() {
+        // given: an operation that conflicts more often than it is retried
+        conflictingOperation.reset();
+        double exhaustedBefore = conflicts("exhausted");
+
+        // when: running the operation
+        // then: the last conflict must be rethrown and counted
+        assertThrows(OptimisticLockingFailureException.class, () -> conflictingOperation.run(Integer.MAX_VALUE));
+        assertEquals(exhaustedBefore + 1, conflicts("exhausted"));
+    }
+}
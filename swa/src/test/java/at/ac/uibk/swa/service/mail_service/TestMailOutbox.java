@@ -0,0 +1,211 @@
+package at.ac.uibk.swa.service.mail_service;
+
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.OutboxMail;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.OutboxMailRepository;
+import at.ac.uibk.swa.service.AdminDeckService;
+import at.ac.uibk.swa.service.MailService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=swa",
+        "spring.mail.password=swa",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "swa.mail.outbox.chunk-size=2",
+        "swa.mail.outbox.batch-size=100",
+        "swa.mail.outbox.max-messages-per-second=0",
+        "swa.mail.outbox.max-attempts=2",
+        "swa.mail.outbox.initial-backoff=PT30S"
+})
+@ActiveProfiles("test")
+public class TestMailOutbox {
+
+    @RegisterExtension
+    static GreenMailExtension smtpServer = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("swa@localhost", "swa", "swa"))
+            .withPerMethodLifecycle(true);
+
+    @SpyBean
+    private MailService mailService;
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private UserDeckService userDeckService;
+    @Autowired
+    private AdminDeckService adminDeckService;
+
+    private Person createUser() {
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(),
+                Permission.defaultAuthorities());
+        assertTrue(personService.create(person), "Unable to create user");
+        return person;
+    }
+
+    private static LocalDateTime now() {
+        // NOTE: The Database might not store more than Seconds, but the queued Mails must already be due.
+        return LocalDateTime.now().plusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private Deck createPublishedDeck() {
+        MockAuthContext.setLoggedInUser(createUser());
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        assertTrue(userDeckService.publish(deck.getDeckId()), "Unable to publish deck");
+        MockAuthContext.setLoggedInUser(null);
+        return deck;
+    }
+
+    private List<OutboxMail> outbox() {
+        List<OutboxMail> mails = new ArrayList<>();
+        outboxMailRepository.findAll().forEach(mails::add);
+        return mails;
+    }
+
+    @BeforeEach
+    public void clearOutbox() {
+        outboxMailRepository.deleteAll();
+    }
+
+    @Test
+    public void blockedDeckNotificationIsQueuedAndSentInChunks() {
+        // given: a deck with five subscribers (and its creator, who is subscribed too)
+        Person creator = createUser();
+        MockAuthContext.setLoggedInUser(creator);
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        assertTrue(userDeckService.publish(deck.getDeckId()), "Unable to publish deck");
+        int numberOfSubscribers = 5;
+        for (int i = 0; i < numberOfSubscribers; i++) {
+            MockAuthContext.setLoggedInUser(createUser());
+            assertTrue(userDeckService.subscribe(deck.getDeckId()), "Unable to subscribe to deck");
+        }
+        int numberOfRecipients = numberOfSubscribers + 1;
+        MockAuthContext.setLoggedInUser(null);
+
+        // when: notifying the subscribers that the deck has been blocked
+        mailService.notifyBlockedDeck(deck);
+
+        // then: the mails must only be queued (in chunks of two recipients)
+        assertEquals(0, smtpServer.getReceivedMessages().length, "Mail was sent synchronously");
+        List<OutboxMail> queued = outbox();
+        assertEquals(3, queued.size());
+        assertEquals(numberOfRecipients, queued.stream().mapToInt(OutboxMail::getNumberOfRecipients).sum());
+
+        // when: dispatching the outbox
+        // then: every subscriber must have received the mail
+        assertEquals(3, mailOutboxDispatcher.dispatch(now()));
+        assertEquals(numberOfRecipients, smtpServer.getReceivedMessages().length);
+        assertTrue(outbox().stream().allMatch(mail -> mail.getStatus() == OutboxMail.Status.SENT && mail.getAttempts() == 1));
+    }
+
+    @Test
+    public void unreachableServerIsRetriedWithBackoff() {
+        // given: a queued mail and a mail server that is down
+        mailService.sendMessage("Test text", "Test subject", new String[]{"test@localhost"});
+        smtpServer.stop();
+
+        // when: dispatching the outbox
+        LocalDateTime now = now();
+        assertEquals(0, mailOutboxDispatcher.dispatch(now));
+
+        // then: the mail must be retried after the backoff
+        OutboxMail mail = outbox().get(0);
+        assertEquals(OutboxMail.Status.PENDING, mail.getStatus());
+        assertEquals(1, mail.getAttempts());
+        assertEquals(now.plusSeconds(30), mail.getNextAttemptAt());
+        assertNotNull(mail.getLastError());
+
+        // when: dispatching again before and after the backoff
+        assertEquals(0, mailOutboxDispatcher.dispatch(now.plusSeconds(10)));
+        assertEquals(1, outbox().get(0).getAttempts(), "Mail was retried before the backoff");
+        assertEquals(0, mailOutboxDispatcher.dispatch(now.plusSeconds(30)));
+
+        // then: the mail must have failed after the maximum number of attempts
+        mail = outbox().get(0);
+        assertEquals(OutboxMail.Status.FAILED, mail.getStatus());
+        assertEquals(2, mail.getAttempts());
+    }
+
+    @Test
+    public void invalidAddressFailsImmediately() {
+        // given: a mail to an invalid address
+        mailService.sendMessage("Test text", "Test subject", new String[]{"<missing-bracket@localhost"});
+
+        // when: dispatching the outbox
+        assertEquals(0, mailOutboxDispatcher.dispatch(now()));
+
+        // then: the mail must not be retried
+        OutboxMail mail = outbox().get(0);
+        assertEquals(OutboxMail.Status.FAILED, mail.getStatus());
+        assertEquals(1, mail.getAttempts());
+    }
+
+    @Test
+    public void backoffDoublesUpToMaximum() {
+        assertEquals(Duration.ofSeconds(30), mailOutboxDispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), mailOutboxDispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(120), mailOutboxDispatcher.backoff(3));
+        assertEquals(Duration.ofHours(1), mailOutboxDispatcher.backoff(100));
+    }
+
+    @Test
+    public void blockingDeckQueuesNotification() {
+        // given: a published deck
+        Deck deck = createPublishedDeck();
+
+        // when: blocking and unblocking the deck (and blocking it twice)
+        assertTrue(adminDeckService.block(deck.getDeckId()), "Unable to block deck");
+        assertFalse(adminDeckService.block(deck.getDeckId()), "Blocked deck twice");
+        assertTrue(adminDeckService.unblock(deck.getDeckId()), "Unable to unblock deck");
+
+        // then: exactly one mail must have been queued for every change
+        List<OutboxMail> queued = outbox();
+        assertEquals(2, queued.size());
+        assertEquals(1, queued.stream().filter(mail -> mail.getSubject().equals("Deck blocked")).count());
+        assertEquals(1, queued.stream().filter(mail -> mail.getSubject().equals("Deck unblocked")).count());
+    }
+
+    @Test
+    public void blockingDeckIsRolledBackIfNotificationFails() {
+        // given: a published deck and an outbox that cannot be written
+        Deck deck = createPublishedDeck();
+        Mockito.doThrow(new IllegalStateException("Outbox unavailable")).when(mailService).notifyBlockedDeck(Mockito.any());
+
+        // when: blocking the deck
+        assertThrows(IllegalStateException.class, () -> adminDeckService.block(deck.getDeckId()));
+
+        // then: the deck must not have been blocked
+        assertFalse(adminDeckService.findById(deck.getDeckId()).orElseThrow().isBlocked(), "Deck was blocked without notification");
+        assertEquals(0, outbox().size());
+    }
+}
@@ -1,5 +1,8 @@
 package at.ac.uibk.swa.service.person_service;
 
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.config.jwt_authentication.PersonPrincipal;
+import at.ac.uibk.swa.models.Permission;
 import at.ac.uibk.swa.models.Person;
 import at.ac.uibk.swa.repositories.PersonRepository;
 import at.ac.uibk.swa.service.PersonService;
@@ -98,6 +101,33 @@ public class TestPersonServiceSecurity {
         assertEquals(person, maybePersonByToken.get(), "Got user " + maybePersonByToken.get() + " when user " + person + " was expected");
     }
 
+    @Test
+    public void getPrincipalByToken() {
+        // given: demo admin in database
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        Person person = new Person(username, StringGenerator.email(), password, Permission.allAuthorities());
+        assertTrue(personService.create(person), "Unable to create user for test");
+
+        // when: logging in as user and retrieving the principal by token
+        Optional<Person> maybePerson = personService.login(username, password);
+        assertTrue(maybePerson.isPresent(), "Could not login");
+        UUID token = maybePerson.get().getToken();
+        Optional<PersonPrincipal> maybePrincipal = personService.findPrincipalByUsernameAndToken(new JwtToken(username, token));
+
+        // then: principal must describe the original user
+        assertTrue(maybePrincipal.isPresent(), "Did not find principal by token");
+        PersonPrincipal principal = maybePrincipal.get();
+        assertEquals(person.getPersonId(), principal.getId(), "Got principal of wrong user");
+        assertEquals(username, principal.getUsername(), "Got wrong username");
+        assertEquals(Permission.allPermissions(), principal.getPermissions(), "Got wrong permissions");
+        assertNotNull(principal.getTokenCreationDate(), "Token creation date was not loaded");
+
+        // then: principal must not be found with a wrong token
+        assertTrue(personService.findPrincipalByUsernameAndToken(new JwtToken(username, UUID.randomUUID())).isEmpty(),
+                "Found principal with wrong token");
+    }
+
     @Test
     public void logout() {
         // given: demo user in database, logged in
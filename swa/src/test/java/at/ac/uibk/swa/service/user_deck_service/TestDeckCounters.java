@@ -0,0 +1,144 @@
+package at.ac.uibk.swa.service.user_deck_service;
+
+import at.ac.uibk.swa.models.Card;
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.DeckRepository;
+import at.ac.uibk.swa.service.CardService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.service.deck_service.DeckCounterReconciler;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TestDeckCounters {
+    @Autowired
+    private UserDeckService userDeckService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private DeckRepository deckRepository;
+    @Autowired
+    private DeckCounterReconciler deckCounterReconciler;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Person createUserAndLogin() {
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user");
+        return (Person) MockAuthContext.setLoggedInUser(person);
+    }
+
+    private Deck createDeck(int numberOfCards) {
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < numberOfCards; i++) {
+            cards.add(new Card(StringGenerator.cardText(), StringGenerator.cardText(), false));
+        }
+        deck.setCards(cards);
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        return deck;
+    }
+
+    private Deck loadDeck(UUID deckId) {
+        return deckRepository.findById(deckId).orElseThrow();
+    }
+
+    @Test
+    public void cardCountFollowsCards() {
+        // given: a deck with some cards
+        int numberOfCards = 5;
+        createUserAndLogin();
+        Deck deck = createDeck(numberOfCards);
+        assertEquals(numberOfCards, loadDeck(deck.getDeckId()).getCardCount());
+
+        // when: creating and deleting single cards
+        Card card = new Card(StringGenerator.cardText(), StringGenerator.cardText(), false);
+        assertTrue(cardService.create(card, deck.getDeckId()), "Unable to create card");
+        assertTrue(cardService.create(new Card(StringGenerator.cardText(), StringGenerator.cardText(), false), deck.getDeckId()));
+        assertTrue(cardService.delete(card.getCardId()), "Unable to delete card");
+
+        // then: the counter must have changed by the number of changed cards
+        assertEquals(numberOfCards + 1, loadDeck(deck.getDeckId()).getCardCount());
+    }
+
+    @Test
+    public void cardCountFollowsDeckUpdate() {
+        // given: a deck with some cards
+        int numberOfCards = 10;
+        createUserAndLogin();
+        Deck deck = createDeck(numberOfCards);
+
+        // when: replacing half of the cards with more new cards
+        Deck loadedDeck = deckRepository.findWithCardsById(deck.getDeckId()).orElseThrow();
+        List<Card> cards = new ArrayList<>(loadedDeck.getCards().subList(0, numberOfCards / 2));
+        for (int i = 0; i < numberOfCards; i++) {
+            cards.add(new Card(StringGenerator.cardText(), StringGenerator.cardText(), false));
+        }
+        loadedDeck.setCards(cards);
+        assertTrue(userDeckService.update(loadedDeck, true), "Unable to update deck");
+
+        // then: the counter must match the cards of the deck
+        assertEquals(cards.size(), loadDeck(deck.getDeckId()).getCardCount());
+    }
+
+    @Test
+    public void subscriberCountFollowsSubscriptions() {
+        // given: a published deck
+        createUserAndLogin();
+        Deck deck = createDeck(1);
+        assertTrue(userDeckService.publish(deck.getDeckId()), "Unable to publish deck");
+
+        // when: subscribing with multiple users (and subscribing twice)
+        int numberOfSubscribers = 3;
+        for (int i = 0; i < numberOfSubscribers; i++) {
+            createUserAndLogin();
+            assertTrue(userDeckService.subscribe(deck.getDeckId()), "Unable to subscribe to deck");
+        }
+        assertFalse(userDeckService.subscribe(deck.getDeckId()), "Subscribed to the same deck twice");
+
+        // then: every subscriber (and the creator) must be counted once
+        assertEquals(numberOfSubscribers + 1, loadDeck(deck.getDeckId()).getSubscriberCount());
+
+        // when: unsubscribing (and unsubscribing twice)
+        assertTrue(userDeckService.unsubscribe(deck.getDeckId()), "Unable to unsubscribe from deck");
+        assertFalse(userDeckService.unsubscribe(deck.getDeckId()), "Unsubscribed from the same deck twice");
+
+        // then: the subscriber must no longer be counted
+        assertEquals(numberOfSubscribers, loadDeck(deck.getDeckId()).getSubscriberCount());
+    }
+
+    @Test
+    public void reconcilerFixesDrift() {
+        // given: a deck whose counters have been changed outside the application
+        int numberOfCards = 3;
+        createUserAndLogin();
+        Deck deck = createDeck(numberOfCards);
+        jdbcTemplate.update("UPDATE deck SET card_count = 999, subscriber_count = 42 WHERE deck_id = ?",
+                deck.getDeckId().toString());
+
+        // when: reconciling the counters
+        DeckCounterReconciler.Result result = deckCounterReconciler.reconcileAll();
+
+        // then: the counters must have been fixed
+        assertTrue(result.cardCounts() >= 1, "Card counter has not been fixed");
+        assertTrue(result.subscriberCounts() >= 1, "Subscriber counter has not been fixed");
+        Deck loadedDeck = loadDeck(deck.getDeckId());
+        assertEquals(numberOfCards, loadedDeck.getCardCount());
+        assertEquals(1, loadedDeck.getSubscriberCount(), "Creator is not counted");
+    }
+}
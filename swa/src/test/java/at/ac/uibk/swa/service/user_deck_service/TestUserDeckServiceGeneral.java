@@ -1,14 +1,20 @@
 package at.ac.uibk.swa.service.user_deck_service;
 
+import at.ac.uibk.swa.models.Card;
 import at.ac.uibk.swa.models.Deck;
 import at.ac.uibk.swa.models.Permission;
 import at.ac.uibk.swa.models.Person;
 import at.ac.uibk.swa.repositories.DeckRepository;
 import at.ac.uibk.swa.service.AdminDeckService;
+import at.ac.uibk.swa.service.CardService;
 import at.ac.uibk.swa.service.PersonService;
 import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.service.deck_service.DeckPage;
 import at.ac.uibk.swa.util.MockAuthContext;
 import at.ac.uibk.swa.util.StringGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -30,6 +36,10 @@ public class TestUserDeckServiceGeneral {
     private AdminDeckService adminDeckService;
     @Autowired
     private PersonService personService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private Person createUserAndLogin() {
         Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
@@ -117,6 +127,65 @@ public class TestUserDeckServiceGeneral {
         assertFalse(foundDeck.isDeleted(), "Deck has been deleted");
     }
 
+    @Test
+    public void updateDeckCards() {
+        // given: a user that created a deck with many cards and learned some of them
+        int numberOfCards = 300;
+        int numberOfLearnedCards = 10;
+        int numberOfNewCards = 100;
+        createUserAndLogin();
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < numberOfCards; i++) {
+            cards.add(new Card(StringGenerator.cardText(), StringGenerator.cardText(), false));
+        }
+        deck.setCards(cards);
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        for (int i = 0; i < numberOfLearnedCards; i++) {
+            assertTrue(cardService.learn(cards.get(i).getCardId(), 3), "Unable to learn card");
+        }
+
+        // when: updating every second card, deleting the others and adding new cards
+        List<Card> keptCards = new ArrayList<>();
+        List<Card> deletedCards = new ArrayList<>();
+        for (int i = 0; i < numberOfCards; i++) {
+            Card card = cards.get(i);
+            if (i % 2 == 0) {
+                keptCards.add(new Card(card.getCardId(), StringGenerator.cardText(), card.getBackText(), true));
+            } else {
+                deletedCards.add(card);
+            }
+        }
+        List<Card> newCards = new ArrayList<>();
+        for (int i = 0; i < numberOfNewCards; i++) {
+            newCards.add(new Card(StringGenerator.cardText(), StringGenerator.cardText(), false));
+        }
+        List<Card> updatedCards = new ArrayList<>(keptCards);
+        updatedCards.addAll(newCards);
+        deck.setCards(updatedCards);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertTrue(userDeckService.update(deck, true), "Unable to update deck");
+        long statements = statistics.getPrepareStatementCount();
+
+        // then: the cards must be synchronized with a number of statements far below the number of cards
+        assertTrue(statements < numberOfCards / 5, "Updating the cards executed " + statements + " statements");
+        Deck loadedDeck = deckRepository.findWithCardsById(deck.getDeckId()).orElseThrow();
+        assertEquals(keptCards.size() + newCards.size(), loadedDeck.getCards().size(), "Wrong number of cards");
+        for (Card keptCard : keptCards) {
+            Card loadedCard = cardService.findById(keptCard.getCardId()).orElseThrow();
+            assertEquals(keptCard.getFrontText(), loadedCard.getFrontText(), "Card has not been updated");
+            assertTrue(loadedCard.isFlipped(), "Card has not been updated");
+        }
+        for (Card deletedCard : deletedCards) {
+            assertTrue(cardService.findById(deletedCard.getCardId()).isEmpty(), "Found deleted card");
+        }
+        for (Card newCard : newCards) {
+            assertTrue(loadedDeck.getCards().contains(newCard), "Did not find created card");
+        }
+        assertTrue(cardService.getLearningProgress(cards.get(0).getCardId()).isPresent(), "Learning progress of updated card is lost");
+    }
+
     @Test
     public void updateDeckViaCreate() {
         // given: a user that created a deck in the repository
@@ -220,8 +289,14 @@ public class TestUserDeckServiceGeneral {
         assertTrue(userDeckService.delete(deletedDeck.getDeckId()), "Unable to delete deck");
         MockAuthContext.setLoggedInUser(null);
 
-        // when: searching for decks available for subscription
-        List<Deck> availableDecks = userDeckService.findAllAvailableDecks();
+        // when: searching for decks available for subscription (page by page)
+        List<Deck> availableDecks = new ArrayList<>();
+        DeckPage page = userDeckService.findAvailableDecks(null, null);
+        availableDecks.addAll(page.decks());
+        while (page.nextCursor() != null) {
+            page = userDeckService.findAvailableDecks(page.nextCursor(), null);
+            availableDecks.addAll(page.decks());
+        }
 
         // then: only available, public decks (maybe also from other unittests) should be returned
         assertTrue(availableDecks.contains(publishedDeck), "Unable to find published deck");
@@ -1,12 +1,17 @@
 package at.ac.uibk.swa.service.user_deck_service;
 
+import at.ac.uibk.swa.models.Card;
 import at.ac.uibk.swa.models.Deck;
 import at.ac.uibk.swa.models.Permission;
 import at.ac.uibk.swa.models.Person;
 import at.ac.uibk.swa.repositories.DeckRepository;
+import at.ac.uibk.swa.repositories.DeckRepository.DeckStatistics;
 import at.ac.uibk.swa.service.AdminDeckService;
+import at.ac.uibk.swa.service.CardService;
 import at.ac.uibk.swa.service.PersonService;
 import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.service.card_service.Review;
+import at.ac.uibk.swa.service.card_service.ReviewResult;
 import at.ac.uibk.swa.util.MockAuthContext;
 import at.ac.uibk.swa.util.StringGenerator;
 import org.junit.jupiter.api.AfterEach;
@@ -15,9 +20,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,6 +36,8 @@ public class TestUserDeckServiceGetAll {
     private AdminDeckService adminDeckService;
     @Autowired
     private PersonService personService;
+    @Autowired
+    private CardService cardService;
 
     private Person createUserAndLogin() {
         String password = StringGenerator.password();
@@ -231,4 +237,49 @@ public class TestUserDeckServiceGetAll {
         assertNotEquals(deckDescription, decks.get(decks.indexOf(deck)).getDescription(), "Description has not changed");
         assertTrue(decks.get(decks.indexOf(deck)).getDescription().contains("deleted"), "Missing info on deleting");
     }
+
+    @Test
+    public void getDeckStatistics() {
+        // given: a deck with cards that were never learned, that were learned recently and that are due again,
+        //        where another user has learned all cards
+        Person other = createUserAndLogin();
+        Person person = createUserAndLogin();
+        Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            cards.add(new Card(StringGenerator.cardText(), StringGenerator.cardText(), false));
+        }
+        deck.setCards(cards);
+        assertTrue(userDeckService.create(deck), "Unable to create deck");
+        assertTrue(userDeckService.publish(deck.getDeckId()), "Unable to publish deck");
+        Deck emptyDeck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+        assertTrue(userDeckService.create(emptyDeck), "Unable to create deck");
+
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(10);
+        assertTrue(cardService.learn(cards.get(0).getCardId(), 5), "Unable to learn card");
+        assertTrue(cardService.learnAll(List.of(
+                new Review(cards.get(1).getCardId(), 5, longAgo),
+                new Review(cards.get(2).getCardId(), 0, longAgo)
+        )).orElseThrow().stream().allMatch(ReviewResult::success), "Unable to learn cards");
+
+        MockAuthContext.setLoggedInUser(other);
+        assertTrue(userDeckService.subscribe(deck.getDeckId()), "Unable to subscribe to deck");
+        for (Card card : cards) {
+            assertTrue(cardService.learn(card.getCardId(), 5), "Unable to learn card");
+        }
+
+        // when: loading the statistics of the decks for the user
+        Map<UUID, DeckStatistics> statistics = userDeckService.getDeckStatistics(List.of(deck, emptyDeck), person.getPersonId());
+
+        // then: the cards must be counted for that user only
+        assertEquals(2, statistics.size(), "Did not get statistics for every deck");
+        DeckStatistics deckStatistics = statistics.get(deck.getDeckId());
+        assertEquals(5, deckStatistics.getNumCards(), "Wrong number of cards");
+        assertEquals(2, deckStatistics.getNumCardsToRepeat(), "Wrong number of cards to repeat");
+        assertEquals(2, deckStatistics.getNumNotLearnedCards(), "Wrong number of not learned cards");
+        DeckStatistics emptyDeckStatistics = statistics.get(emptyDeck.getDeckId());
+        assertEquals(0, emptyDeckStatistics.getNumCards(), "Wrong number of cards");
+        assertEquals(0, emptyDeckStatistics.getNumCardsToRepeat(), "Wrong number of cards to repeat");
+        assertEquals(0, emptyDeckStatistics.getNumNotLearnedCards(), "Wrong number of not learned cards");
+    }
 }
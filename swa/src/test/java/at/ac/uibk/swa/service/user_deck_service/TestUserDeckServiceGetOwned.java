@@ -136,12 +136,9 @@ public class TestUserDeckServiceGetOwned {
         assertTrue(maybeOwnedDecks.isPresent(), "Decks could not be loaded");
         List<Deck> ownedDecks = maybeOwnedDecks.get();
         assertEquals(createdDecks.size() - 1, ownedDecks.size(), "Found more/less decks than expected");
-        for (Deck createdDeck : createdDecks) {
-            if (createdDeck.isDeleted()) {
-                assertFalse(ownedDecks.contains(createdDeck), "Found a deleted deck");
-            } else {
-                assertTrue(ownedDecks.contains(createdDeck), "Unable to find deck " + createdDeck);
-            }
+        assertFalse(ownedDecks.contains(createdDecks.get(0)), "Found a deleted deck");
+        for (Deck createdDeck : createdDecks.subList(1, createdDecks.size())) {
+            assertTrue(ownedDecks.contains(createdDeck), "Unable to find deck " + createdDeck);
         }
     }
 }
@@ -0,0 +1,176 @@
+package at.ac.uibk.swa.service.user_deck_service;
+
+import at.ac.uibk.swa.models.Deck;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.DeckRepository;
+import at.ac.uibk.swa.repositories.SubscriptionRepository;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UserDeckService;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TestUserDeckServiceSubscriptions {
+    @Autowired
+    private UserDeckService userDeckService;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+    @Autowired
+    private DeckRepository deckRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Person createUserAndLogin() {
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user");
+        return (Person) MockAuthContext.setLoggedInUser(person);
+    }
+
+    private List<UUID> createDecks(int numberOfDecks, boolean publish) {
+        List<UUID> deckIds = new ArrayList<>();
+        for (int i = 0; i < numberOfDecks; i++) {
+            Deck deck = new Deck(StringGenerator.deckName(), StringGenerator.deckDescription());
+            assertTrue(userDeckService.create(deck), "Unable to create deck");
+            if (publish) {
+                assertTrue(userDeckService.publish(deck.getDeckId()), "Unable to publish deck");
+            }
+            deckIds.add(deck.getDeckId());
+        }
+        return deckIds;
+    }
+
+    @Test
+    public void subscribeToManyDecksAtOnce() {
+        // given: a user with published and unpublished decks and another user
+        int numberOfDecks = 30;
+        createUserAndLogin();
+        List<UUID> publishedDeckIds = createDecks(numberOfDecks, true);
+        List<UUID> unpublishedDeckIds = createDecks(3, false);
+        Person person = createUserAndLogin();
+
+        // when: subscribing to all decks at once (including duplicates and unknown decks)
+        List<UUID> deckIds = new ArrayList<>(publishedDeckIds);
+        deckIds.addAll(unpublishedDeckIds);
+        deckIds.add(publishedDeckIds.get(0));
+        deckIds.add(UUID.randomUUID());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Optional<Integer> maybeSubscribed = userDeckService.subscribeAll(deckIds);
+        long statements = statistics.getPrepareStatementCount();
+
+        // then: only the published decks must be subscribed with one statement (and two for the counters)
+        assertEquals(Optional.of(numberOfDecks), maybeSubscribed);
+        assertEquals(3, statements, "Subscribing executed " + statements + " statements");
+        for (UUID deckId : publishedDeckIds) {
+            assertTrue(subscriptionRepository.isSubscribed(deckId, person.getPersonId()), "Deck has not been subscribed");
+        }
+        for (UUID deckId : unpublishedDeckIds) {
+            assertFalse(subscriptionRepository.isSubscribed(deckId, person.getPersonId()), "Unpublished deck has been subscribed");
+        }
+    }
+
+    @Test
+    public void subscribeOnlyOnce() {
+        // given: a published deck and a user that has already subscribed to it
+        createUserAndLogin();
+        List<UUID> deckIds = createDecks(1, true);
+        Person person = createUserAndLogin();
+        assertTrue(userDeckService.subscribe(deckIds.get(0)), "Unable to subscribe to deck");
+
+        // when: subscribing to the deck again
+        boolean subscribed = userDeckService.subscribe(deckIds.get(0));
+
+        // then: no new subscription must be stored
+        assertFalse(subscribed, "Subscribed to the same deck twice");
+        assertEquals(Optional.of(0), userDeckService.subscribeAll(deckIds));
+        assertEquals(1, personService.findById(person.getPersonId()).orElseThrow().getSavedDecks().size());
+    }
+
+    @Test
+    public void unsubscribeFromManyDecksAtOnce() {
+        // given: a user that has subscribed to a number of published decks
+        int numberOfDecks = 10;
+        createUserAndLogin();
+        List<UUID> deckIds = createDecks(numberOfDecks, true);
+        Person person = createUserAndLogin();
+        assertEquals(Optional.of(numberOfDecks), userDeckService.subscribeAll(deckIds));
+
+        // when: unsubscribing from half of the decks and from a deck that has not been subscribed
+        List<UUID> unsubscribedDeckIds = new ArrayList<>(deckIds.subList(0, numberOfDecks / 2));
+        unsubscribedDeckIds.add(UUID.randomUUID());
+        Optional<Integer> maybeUnsubscribed = userDeckService.unsubscribeAll(unsubscribedDeckIds);
+
+        // then: only the subscribed decks must be removed
+        assertEquals(Optional.of(numberOfDecks / 2), maybeUnsubscribed);
+        for (UUID deckId : deckIds) {
+            assertEquals(!unsubscribedDeckIds.contains(deckId), subscriptionRepository.isSubscribed(deckId, person.getPersonId()));
+        }
+    }
+
+    @Test
+    public void bulkSubscriptionsWithoutLogin() {
+        // given: a published deck and no logged-in user
+        createUserAndLogin();
+        List<UUID> deckIds = createDecks(1, true);
+        MockAuthContext.setLoggedInUser(null);
+
+        // when: subscribing and unsubscribing
+        // then: nothing must be returned
+        assertTrue(userDeckService.subscribeAll(deckIds).isEmpty());
+        assertTrue(userDeckService.unsubscribeAll(deckIds).isEmpty());
+    }
+
+    @Test
+    public void concurrentSubscriptionsOfTheSameDecks() throws Exception {
+        // given: published decks and a user
+        int numberOfDecks = 10;
+        int numberOfThreads = 8;
+        createUserAndLogin();
+        List<UUID> deckIds = createDecks(numberOfDecks, true);
+        Person person = createUserAndLogin();
+
+        // when: subscribing to the same decks from multiple threads at once
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<Integer>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < numberOfThreads; i++) {
+                results.add(executor.submit(() -> {
+                    MockAuthContext.setLoggedInUser(person);
+                    start.await();
+                    return userDeckService.subscribeAll(deckIds);
+                }));
+            }
+            start.countDown();
+
+            // then: no request must fail and every deck must have been subscribed (and counted) exactly once
+            int subscribed = 0;
+            for (Future<Optional<Integer>> result : results) {
+                subscribed += result.get(30, TimeUnit.SECONDS).orElseThrow();
+            }
+            assertEquals(numberOfDecks, subscribed);
+        } finally {
+            executor.shutdownNow();
+        }
+        for (UUID deckId : deckIds) {
+            assertTrue(subscriptionRepository.isSubscribed(deckId, person.getPersonId()), "Deck has not been subscribed");
+            assertEquals(2, deckRepository.findById(deckId).orElseThrow().getSubscriberCount(), "Wrong subscriber counter");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package at.ac.uibk.swa.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the Cost of a Request (or any other Call), so Tests can declare Budgets for it and fail once it gets
+ * more expensive (e.g. because of a new EAGER Relation or an additional Query).
+ * <br/>
+ * The Statements are counted with the Hibernate-Statistics (so Statements bypassing Hibernate are not counted) and
+ * the Allocations are the Bytes allocated by the calling Thread (MockMvc handles Requests in the calling Thread).
+ *
+ * @implNote The Statistics are shared by all Threads, so Statements of concurrent Calls are counted as well.
+ */
+public class RequestCostMeter {
+
+    /**
+     * @param statements The number of prepared SQL-Statements.
+     * @param allocatedBytes The number of Bytes allocated on the Heap (-1 if this is not supported by the JVM).
+     */
+    public record Cost(long statements, long allocatedBytes) {
+    }
+
+    /**
+     * The maximum Cost of a Request.
+     *
+     * @param maxStatements The maximum number of prepared SQL-Statements.
+     * @param maxAllocatedBytes The maximum number of allocated Bytes.
+     */
+    public record Budget(long maxStatements, long maxAllocatedBytes) {
+        public static Budget statements(long maxStatements) {
+            return new Budget(maxStatements, Long.MAX_VALUE);
+        }
+
+        public Budget allocatedKilobytes(long maxAllocatedKilobytes) {
+            return new Budget(maxStatements, maxAllocatedKilobytes * 1024);
+        }
+    }
+
+    /**
+     * The measured Call (e.g. {@code () -> mockMvc.perform(...)}).
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Exception;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMXBean();
+
+    private final Statistics statistics;
+
+    public RequestCostMeter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Measures the Cost of a Call.
+     *
+     * @param call The Call to measure.
+     * @return The Cost of the Call.
+     * @throws Exception If the Call fails.
+     */
+    public Cost measure(Call<?> call) throws Exception {
+        statistics.clear();
+        long allocatedBytesBefore = allocatedBytes();
+        call.call();
+        long allocatedBytesAfter = allocatedBytes();
+        long statements = statistics.getPrepareStatementCount();
+        return new Cost(statements, allocatedBytesBefore < 0 ? -1 : allocatedBytesAfter - allocatedBytesBefore);
+    }
+
+    /**
+     * Executes a Call and asserts that it stays within its Budget.
+     *
+     * @param name The Name of the Call in the Assertion-Messages (e.g. the Endpoint).
+     * @param budget The Budget of the Call.
+     * @param call The Call to execute.
+     * @return The Cost of the Call.
+     * @throws Exception If the Call fails.
+     */
+    public Cost assertWithin(String name, Budget budget, Call<?> call) throws Exception {
+        Cost cost = measure(call);
+        assertTrue(cost.statements() <= budget.maxStatements(), String.format(
+                "%s executed %d statements, but its budget is %d", name, cost.statements(), budget.maxStatements()
+        ));
+        assertTrue(cost.allocatedBytes() <= budget.maxAllocatedBytes(), String.format(
+                "%s allocated %d KB, but its budget is %d KB", name, cost.allocatedBytes() / 1024, budget.maxAllocatedBytes() / 1024
+        ));
+        return cost;
+    }
+
+    private static long allocatedBytes() {
+        return THREAD_MX_BEAN == null ? -1 : THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()) {
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+            return threadMXBean;
+        }
+        return null;
+    }
+}
@@ -1,5 +1,7 @@
 package at.ac.uibk.swa.util;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 public class StringGenerator {
     private final static String CAPITAL_LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
     private final static String SMALL_LETTERS = "abcdefghijklmnopqrstuvwxyz";
@@ -8,7 +10,8 @@ public class StringGenerator {
     public static String base(String alphabet, int n) {
         StringBuilder sb = new StringBuilder(n);
         for (int i = 0; i < n; i++) {
-            int index = (int)(Math.random() * alphabet.length());
+            // NOTE: Math.random() shares one Generator between all Threads (e.g. when generating Load-Test Data).
+            int index = ThreadLocalRandom.current().nextInt(alphabet.length());
             sb.append(alphabet.charAt(index));
         }
         return sb.toString();